@@ -0,0 +1,147 @@
+package batch;
+
+import core.GameLoop;
+import core.GameSession;
+import interfaces.GameOutput;
+import replay.Input;
+import replay.Outcome;
+
+import java.awt.Color;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.IntFunction;
+
+/**
+ * Runs many independent headless games side by side. Each session has its
+ * own Mario, decorator chain, level manager and timer wheel, and plays until
+ * game over or a time limit, with its inputs from its own {@link InputPolicy}.
+ * The sessions are split over a ForkJoinPool: each worker plays its share
+ * and counts the outcomes in its own {@link BatchStats}, and the parts are
+ * merged as the tasks join, so the workers share nothing while they run.
+ *
+ * Usage: java batch.BatchSimulator [sessions] [seconds] [threads] [random|scripted]
+ */
+public final class BatchSimulator {
+    // Sessions a task plays itself rather than splitting further
+    private static final int LEAF_SESSIONS = 4;
+    private static final long DEFAULT_SEED = 1985;
+    private static final Input[] DEFAULT_SCRIPT = {
+            Input.MOVE_RIGHT, Input.JUMP, Input.MOVE_RIGHT, Input.MUSHROOM, Input.MOVE_RIGHT, Input.SPEED_BOOST,
+            Input.MOVE_RIGHT, Input.DAMAGE, Input.FIRE_FLOWER, Input.FIRE, Input.MOVE_RIGHT, Input.BREAK,
+            Input.SHIELD, Input.DAMAGE, Input.STAR, Input.MOVE_RIGHT, Input.NEXT_LEVEL, Input.DAMAGE, Input.DAMAGE,
+    };
+
+    private final int sessions;
+    private final long maxTicks;
+    private final IntFunction<InputPolicy> policies;
+
+    /**
+     * @param maxTicks    how long a session may play if it does not end in game over first
+     * @param policies    the input policy for the session with the given index
+     */
+    public BatchSimulator(int sessions, long maxTicks, IntFunction<InputPolicy> policies) {
+        this.sessions = sessions;
+        this.maxTicks = maxTicks;
+        this.policies = policies;
+    }
+
+    /**
+     * Plays every session on {@code pool} and returns what they came to.
+     */
+    public BatchStats run(ForkJoinPool pool) {
+        return pool.invoke(new Part(0, sessions));
+    }
+
+    /**
+     * Plays session {@code index} to its end and counts it in {@code stats}.
+     */
+    private void play(int index, BatchStats stats) {
+        GameOver gameOver = new GameOver();
+        GameSession session = new GameSession(gameOver);
+        InputPolicy policy = policies.apply(index);
+        while (session.getTick() < maxTicks && !gameOver.seen) {
+            // As GameLoop.step: the tick's input first, then the tick
+            Input input = policy.next(session);
+            if (input != null) input.apply(session);
+            session.tick();
+        }
+        stats.add(Outcome.of(session), gameOver.seen);
+    }
+
+    private final class Part extends RecursiveTask<BatchStats> {
+        private static final long serialVersionUID = 1L;
+
+        private final int from, to;
+
+        Part(int from, int to) {
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected BatchStats compute() {
+            if (to - from <= LEAF_SESSIONS) {
+                BatchStats stats = new BatchStats();
+                for (int i = from; i < to; i++) {
+                    play(i, stats);
+                }
+                return stats;
+            }
+            int middle = (from + to) >>> 1;
+            Part right = new Part(middle, to);
+            right.fork();
+            BatchStats stats = new Part(from, middle).compute();
+            stats.merge(right.join());
+            return stats;
+        }
+    }
+
+    /**
+     * Notices game over and discards the rest; nobody is watching a batch.
+     */
+    private static final class GameOver implements GameOutput {
+        boolean seen;
+
+        @Override public void addLogMessage(String message, Color color) { }
+        @Override public void updateDisplay() { }
+        @Override public void updateInvincibilityTimer(int timer) { }
+        @Override public void removeDecorator(String decoratorType) { }
+        @Override public void showGameOver() { seen = true; }
+        @Override public void createFireEffect(int x, int y, int size) { }
+    }
+
+    /**
+     * Seeded random play, a different seed per session from {@code seed}.
+     */
+    public static IntFunction<InputPolicy> randomPolicies(long seed) {
+        return index -> new RandomPolicy(seed + index * 0x9E3779B97F4A7C15L);
+    }
+
+    /**
+     * The same script for every session, one input every {@code interval} ticks.
+     */
+    public static IntFunction<InputPolicy> scriptedPolicies(Input[] script, int interval) {
+        return index -> new ScriptedPolicy(script, interval);
+    }
+
+    public static void main(String[] args) {
+        int sessions = args.length > 0 ? Integer.parseInt(args[0]) : 10_000;
+        int seconds = args.length > 1 ? Integer.parseInt(args[1]) : 120;
+        int threads = args.length > 2 ? Integer.parseInt(args[2]) : Runtime.getRuntime().availableProcessors();
+        boolean scripted = args.length > 3 && args[3].equals("scripted");
+
+        IntFunction<InputPolicy> policies = scripted
+                ? scriptedPolicies(DEFAULT_SCRIPT, GameLoop.TICKS_PER_SECOND / 2)
+                : randomPolicies(DEFAULT_SEED);
+        BatchSimulator simulator = new BatchSimulator(sessions, (long) seconds * GameLoop.TICKS_PER_SECOND, policies);
+        ForkJoinPool pool = new ForkJoinPool(threads);
+        long start = System.nanoTime();
+        BatchStats stats = simulator.run(pool);
+        double elapsed = (System.nanoTime() - start) / 1e9;
+        pool.shutdown();
+
+        System.out.println(stats);
+        System.out.printf("%d threads, %.2f s: %,.0f sessions/s, %,.0f ticks/s%n",
+                threads, elapsed, stats.getSessions() / elapsed, stats.getTicks() / elapsed);
+    }
+}
@@ -0,0 +1,128 @@
+package batch;
+
+import core.MarioSnapshot;
+import replay.Outcome;
+
+import java.util.Arrays;
+
+/**
+ * What a batch of sessions came to: how many ended in game over, the spread
+ * of final scores, and how many finished with each number of lives, in each
+ * state and on each level. Each worker fills its own and the parts are
+ * merged at the end, so sessions never contend over shared counters.
+ */
+public final class BatchStats {
+    private static final MarioSnapshot.Kind[] KINDS = MarioSnapshot.Kind.values();
+
+    private long sessions;
+    private long gameOvers;
+    private long ticks;
+    private long scoreSum;
+    private int minScore = Integer.MAX_VALUE;
+    private int maxScore = Integer.MIN_VALUE;
+    // Index is lives left, or level number; grown as needed
+    private long[] byLives = new long[4];
+    private long[] byLevel = new long[8];
+    private final long[] byKind = new long[KINDS.length];
+
+    /**
+     * Counts one finished session.
+     */
+    public void add(Outcome outcome, boolean gameOver) {
+        sessions++;
+        if (gameOver) gameOvers++;
+        ticks += outcome.getTick();
+        scoreSum += outcome.getScore();
+        minScore = Math.min(minScore, outcome.getScore());
+        maxScore = Math.max(maxScore, outcome.getScore());
+        byLives = count(byLives, Math.max(0, outcome.getLives()), 1);
+        byLevel = count(byLevel, outcome.getLevel(), 1);
+        byKind[outcome.getKind().ordinal()]++;
+    }
+
+    /**
+     * Folds another part of the batch into this one.
+     */
+    public void merge(BatchStats other) {
+        sessions += other.sessions;
+        gameOvers += other.gameOvers;
+        ticks += other.ticks;
+        scoreSum += other.scoreSum;
+        minScore = Math.min(minScore, other.minScore);
+        maxScore = Math.max(maxScore, other.maxScore);
+        for (int i = 0; i < other.byLives.length; i++) {
+            byLives = count(byLives, i, other.byLives[i]);
+        }
+        for (int i = 0; i < other.byLevel.length; i++) {
+            byLevel = count(byLevel, i, other.byLevel[i]);
+        }
+        for (int i = 0; i < byKind.length; i++) {
+            byKind[i] += other.byKind[i];
+        }
+    }
+
+    private static long[] count(long[] counts, int index, long n) {
+        if (n == 0) return counts;
+        if (index >= counts.length) counts = Arrays.copyOf(counts, Math.max(index + 1, counts.length * 2));
+        counts[index] += n;
+        return counts;
+    }
+
+    public long getSessions() { return sessions; }
+    public long getGameOvers() { return gameOvers; }
+    /** Ticks simulated over all sessions */
+    public long getTicks() { return ticks; }
+    public double getMeanScore() { return sessions == 0 ? 0 : (double) scoreSum / sessions; }
+    public int getMinScore() { return minScore; }
+    public int getMaxScore() { return maxScore; }
+    public long getSessionsWithLives(int lives) { return lives < byLives.length ? byLives[lives] : 0; }
+    public long getSessionsOnLevel(int level) { return level < byLevel.length ? byLevel[level] : 0; }
+    public long getSessionsIn(MarioSnapshot.Kind kind) { return byKind[kind.ordinal()]; }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof BatchStats)) return false;
+        BatchStats other = (BatchStats) o;
+        return sessions == other.sessions && gameOvers == other.gameOvers && ticks == other.ticks
+                && scoreSum == other.scoreSum && minScore == other.minScore && maxScore == other.maxScore
+                && Arrays.equals(trim(byLives), trim(other.byLives))
+                && Arrays.equals(trim(byLevel), trim(other.byLevel))
+                && Arrays.equals(byKind, other.byKind);
+    }
+
+    @Override
+    public int hashCode() {
+        int result = Long.hashCode(sessions);
+        result = 31 * result + Long.hashCode(ticks);
+        result = 31 * result + Long.hashCode(scoreSum);
+        return 31 * result + Arrays.hashCode(trim(byLevel));
+    }
+
+    // Without the unused tail, so counts grown to different lengths compare equal
+    private static long[] trim(long[] counts) {
+        int length = counts.length;
+        while (length > 0 && counts[length - 1] == 0) length--;
+        return Arrays.copyOf(counts, length);
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder text = new StringBuilder();
+        text.append(String.format("%,d sessions, %,d ticks, %,d game over%n", sessions, ticks, gameOvers));
+        text.append(String.format("score: mean %,.1f, min %,d, max %,d%n", getMeanScore(), minScore, maxScore));
+        text.append("lives left:");
+        for (int i = 0; i < byLives.length; i++) {
+            if (byLives[i] > 0) text.append(String.format(" %d: %,d", i, byLives[i]));
+        }
+        text.append(String.format("%nstate:"));
+        for (MarioSnapshot.Kind kind : KINDS) {
+            text.append(String.format(" %s: %,d", kind, byKind[kind.ordinal()]));
+        }
+        text.append(String.format("%nlevel:"));
+        for (int i = 0; i < byLevel.length; i++) {
+            if (byLevel[i] > 0) text.append(String.format(" %d: %,d", i, byLevel[i]));
+        }
+        return text.toString();
+    }
+}
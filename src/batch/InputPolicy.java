@@ -0,0 +1,16 @@
+package batch;
+
+import core.GameSession;
+import replay.Input;
+
+/**
+ * Decides the player's inputs for one headless session of a batch, in place
+ * of someone at the keyboard. Each session gets its own policy, so a policy
+ * may keep whatever state it likes without locking.
+ */
+public interface InputPolicy {
+    /**
+     * The input to apply to {@code session} before its next tick, or null for none.
+     */
+    Input next(GameSession session);
+}
@@ -0,0 +1,40 @@
+package batch;
+
+import core.GameSession;
+import replay.Input;
+
+import java.util.SplittableRandom;
+
+/**
+ * Presses buttons at random at about a player's pace, mostly walking right
+ * and jumping, with power-ups, damage and level changes now and then. The
+ * same seed gives the same presses, so a batch of seeded sessions comes out
+ * the same however it is spread over threads.
+ */
+public final class RandomPolicy implements InputPolicy {
+    // Weighted like a player: mostly moving and jumping
+    private static final Input[] CHOICES = {
+            Input.MOVE_RIGHT, Input.MOVE_RIGHT, Input.MOVE_RIGHT, Input.MOVE_RIGHT, Input.MOVE_RIGHT,
+            Input.MOVE_RIGHT, Input.MOVE_LEFT, Input.MOVE_LEFT, Input.JUMP, Input.JUMP, Input.JUMP,
+            Input.FIRE, Input.BREAK, Input.MUSHROOM, Input.FIRE_FLOWER, Input.STAR, Input.DAMAGE, Input.DAMAGE,
+            Input.SPEED_BOOST, Input.DOUBLE_JUMP, Input.SHIELD, Input.SUPER_STRENGTH,
+            Input.PREVIOUS_LEVEL, Input.NEXT_LEVEL,
+    };
+    // Ticks between presses, from MIN_GAP to MIN_GAP + GAP_RANGE - 1
+    private static final int MIN_GAP = 5;
+    private static final int GAP_RANGE = 60;
+
+    private final SplittableRandom random;
+    private long nextPress;
+
+    public RandomPolicy(long seed) {
+        this.random = new SplittableRandom(seed);
+    }
+
+    @Override
+    public Input next(GameSession session) {
+        if (session.getTick() < nextPress) return null;
+        nextPress = session.getTick() + MIN_GAP + random.nextInt(GAP_RANGE);
+        return CHOICES[random.nextInt(CHOICES.length)];
+    }
+}
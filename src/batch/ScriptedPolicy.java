@@ -0,0 +1,30 @@
+package batch;
+
+import core.GameSession;
+import replay.Input;
+
+/**
+ * Plays a fixed script over and over: one input every {@code interval} ticks,
+ * starting again from the top when it runs out.
+ */
+public final class ScriptedPolicy implements InputPolicy {
+    private final Input[] script;
+    private final int interval;
+    private int next;
+
+    public ScriptedPolicy(Input[] script, int interval) {
+        if (script.length == 0 || interval < 1) {
+            throw new IllegalArgumentException("A script needs inputs and an interval of at least one tick");
+        }
+        this.script = script.clone();
+        this.interval = interval;
+    }
+
+    @Override
+    public Input next(GameSession session) {
+        if (session.getTick() % interval != 0) return null;
+        Input input = script[next];
+        next = (next + 1) % script.length;
+        return input;
+    }
+}
@@ -0,0 +1,43 @@
+package benchmarks;
+
+import level.Level;
+import level.LevelManager;
+import ui.BackgroundLayer;
+
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+
+/**
+ * Per-frame cost of the background and ground at several window sizes:
+ * repainting the gradient and ground every frame, as GamePanel used to,
+ * versus copying the cached BackgroundLayer image.
+ */
+public class BackgroundBenchmark {
+    private static final int[][] SIZES = {{800, 500}, {1200, 800}, {1920, 1080}, {2560, 1440}};
+
+    public static void main(String[] args) {
+        Level level = new LevelManager().getCurrentLevel();
+        Bench.printHeader("Background and ground per frame");
+        for (int[] size : SIZES) {
+            int width = size[0];
+            int height = size[1];
+            BufferedImage frame = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+            Graphics2D g2d = frame.createGraphics();
+            g2d.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+            g2d.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            BackgroundLayer layer = new BackgroundLayer();
+
+            String label = width + "x" + height;
+            Bench.run(label + ", repaint every frame", 1, () -> {
+                BackgroundLayer.paint(g2d, level, width, height);
+                return width;
+            }).print();
+            Bench.run(label + ", cached layer", 1, () -> {
+                layer.draw(g2d, level, width, height, null);
+                return layer.getRebuilds();
+            }).print();
+            g2d.dispose();
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package benchmarks;
+
+import batch.BatchSimulator;
+import batch.BatchStats;
+import core.GameLoop;
+
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Plays the same batch of seeded-random sessions on 1, 2, 4... threads up to
+ * the number of cores. Reports sessions and ticks per second at each thread
+ * count, and the speedup and efficiency against one thread. Exits with status
+ * 1 if the batch comes to different statistics on different thread counts,
+ * or, on a machine with more than one core, if using all of them gives less
+ * than 60% of a perfect speedup.
+ *
+ * Usage: java benchmarks.BatchSimulatorBenchmark [sessions] [seconds]
+ */
+public class BatchSimulatorBenchmark {
+    private static final long SEED = 23;
+    private static final double MIN_EFFICIENCY = 0.6;
+
+    public static void main(String[] args) {
+        int sessions = args.length > 0 ? Integer.parseInt(args[0]) : 1_000;
+        int seconds = args.length > 1 ? Integer.parseInt(args[1]) : 60;
+        int cores = Runtime.getRuntime().availableProcessors();
+        BatchSimulator simulator = new BatchSimulator(sessions, (long) seconds * GameLoop.TICKS_PER_SECOND,
+                BatchSimulator.randomPolicies(SEED));
+
+        // Warm up on every core so the first measured count is not also the JIT's
+        BatchStats expected = run(simulator, cores);
+        System.out.println(expected);
+        System.out.println("=".repeat(72));
+        System.out.printf("%,d sessions of %d s, %d cores%n", sessions, seconds, cores);
+        System.out.println("-".repeat(72));
+        System.out.printf("%8s %14s %14s %9s %11s%n", "threads", "sessions/s", "ticks/s", "speedup", "efficiency");
+
+        double single = measure(simulator, 1, expected, 0);
+        double efficiency = 1;
+        for (int threads = 2; threads < cores * 2; threads *= 2) {
+            // Powers of two, and then all the cores if that is not one
+            int count = Math.min(threads, cores);
+            efficiency = measure(simulator, count, expected, single) / single / count;
+        }
+        if (cores > 1 && efficiency < MIN_EFFICIENCY) {
+            System.out.printf("FAIL: %d cores run at %.0f%% efficiency%n", cores, efficiency * 100);
+            System.exit(1);
+        }
+        System.out.println("OK: every thread count came to the same statistics"
+                + (cores > 1 ? ", and the batch scales across cores" : "; one core, so no scaling to show"));
+    }
+
+    /**
+     * Plays the batch on {@code threads} threads, prints a row against the
+     * one-thread rate {@code single}, and returns sessions per second.
+     */
+    private static double measure(BatchSimulator simulator, int threads, BatchStats expected, double single) {
+        long start = System.nanoTime();
+        BatchStats stats = run(simulator, threads);
+        double elapsed = (System.nanoTime() - start) / 1e9;
+        if (!stats.equals(expected)) {
+            System.out.println("FAIL: on " + threads + " threads the batch came to\n" + stats);
+            System.exit(1);
+        }
+        double rate = stats.getSessions() / elapsed;
+        double speedup = single == 0 ? 1 : rate / single;
+        System.out.printf("%8d %,14.0f %,14.0f %8.2fx %10.0f%%%n",
+                threads, rate, stats.getTicks() / elapsed, speedup, speedup / threads * 100);
+        return rate;
+    }
+
+    private static BatchStats run(BatchSimulator simulator, int threads) {
+        ForkJoinPool pool = new ForkJoinPool(threads);
+        try {
+            return simulator.run(pool);
+        } finally {
+            pool.shutdown();
+        }
+    }
+}
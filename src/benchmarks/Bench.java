@@ -0,0 +1,93 @@
+package benchmarks;
+
+import java.lang.management.ManagementFactory;
+
+/**
+ * Minimal benchmark harness shared by the benchmarks in this package.
+ * Runs an operation in timed batches after a warm-up phase and reports
+ * throughput and bytes allocated per operation on the measuring thread.
+ */
+public final class Bench {
+    private static final long WARMUP_NANOS = 300_000_000L;
+    private static final long MEASURE_NANOS = 700_000_000L;
+    private static final int DEFAULT_BATCH = 1_000;
+
+    private static final com.sun.management.ThreadMXBean THREADS =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    // Results are folded in here so the JIT cannot drop the measured work
+    public static volatile long sink;
+
+    /**
+     * The measured operation; return something derived from the work done.
+     */
+    public interface Op {
+        long run();
+    }
+
+    private Bench() { }
+
+    public static Result run(String name, Op op) {
+        return run(name, DEFAULT_BATCH, op);
+    }
+
+    /**
+     * Same as {@link #run(String, Op)}; {@code batch} is how many operations run
+     * between clock reads - use 1 for operations that take milliseconds.
+     */
+    public static Result run(String name, int batch, Op op) {
+        loop(op, batch, WARMUP_NANOS);
+
+        long allocatedBefore = allocatedBytes();
+        long start = System.nanoTime();
+        long ops = loop(op, batch, MEASURE_NANOS);
+        long elapsed = System.nanoTime() - start;
+        long allocated = allocatedBytes() - allocatedBefore;
+
+        return new Result(name, ops * 1e9 / elapsed, (double) allocated / ops);
+    }
+
+    private static long loop(Op op, int batch, long nanos) {
+        long acc = 0;
+        long ops = 0;
+        long deadline = System.nanoTime() + nanos;
+        do {
+            for (int i = 0; i < batch; i++) {
+                acc += op.run();
+            }
+            ops += batch;
+        } while (System.nanoTime() < deadline);
+        sink = acc;
+        return ops;
+    }
+
+    /**
+     * Bytes allocated so far by the calling thread.
+     */
+    public static long allocatedBytes() {
+        return THREADS.getThreadAllocatedBytes(Thread.currentThread().getId());
+    }
+
+    public static void printHeader(String title) {
+        System.out.println("=".repeat(72));
+        System.out.println(title);
+        System.out.println("-".repeat(72));
+        System.out.printf("%-44s %14s %12s%n", "benchmark", "ops/s", "B/op");
+    }
+
+    public static final class Result {
+        public final String name;
+        public final double opsPerSecond;
+        public final double bytesPerOp;
+
+        Result(String name, double opsPerSecond, double bytesPerOp) {
+            this.name = name;
+            this.opsPerSecond = opsPerSecond;
+            this.bytesPerOp = bytesPerOp;
+        }
+
+        public void print() {
+            System.out.printf("%-44s %,14.0f %12.1f%n", name, opsPerSecond, bytesPerOp);
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package benchmarks;
+
+import level.Block;
+import level.GameObject;
+import level.Level;
+import level.Mushroom;
+
+import java.awt.Color;
+import java.awt.Point;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Collision query cost against level size: the old linear scan over every item
+ * and block versus the Level's spatial grid.
+ */
+public class CollisionBenchmark {
+    private static final int[] SIZES = {100, 1_000, 10_000, 100_000, 1_000_000};
+    private static final int LINEAR_LIMIT = 100_000; // the scan gets too slow to be worth timing beyond this
+    private static final int QUERIES = 4096;
+
+    public static void main(String[] args) {
+        Bench.printHeader("Collision query for Mario's 40x40 box");
+        for (int n : SIZES) {
+            Level level = randomLevel(n);
+            Point[] queries = randomPositions(level, QUERIES);
+            int[] index = {0};
+
+            if (n <= LINEAR_LIMIT) {
+                Bench.run(n + " objects, linear scan",
+                        () -> linearScan(level, queries[index[0]++ & (QUERIES - 1)])).print();
+            }
+            List<GameObject> nearbyItems = new ArrayList<>();
+            List<Block> nearbyBlocks = new ArrayList<>();
+            Bench.run(n + " objects, spatial grid", () -> {
+                Point p = queries[index[0]++ & (QUERIES - 1)];
+                level.findItems(p.x, p.y, 40, 40, nearbyItems);
+                level.findBlocks(p.x, p.y, 40, 40, nearbyBlocks);
+                return nearbyItems.size() + nearbyBlocks.size();
+            }).print();
+        }
+    }
+
+    /**
+     * What GamePanel.checkCollisions() used to do.
+     */
+    private static long linearScan(Level level, Point marioPos) {
+        long hits = 0;
+        for (GameObject item : level.getItems()) {
+            if (item.checkCollision(marioPos)) hits++;
+        }
+        for (Block block : level.getBlocks()) {
+            if (block.checkCollision(marioPos) && !block.isBroken()) hits++;
+        }
+        return hits;
+    }
+
+    /**
+     * Half items, half blocks, spread along a world about 60 px per object wide.
+     */
+    private static Level randomLevel(int n) {
+        Random random = new Random(42);
+        Level level = new Level("Benchmark " + n, "Random objects", Color.WHITE);
+        int worldWidth = n * 60;
+        for (int i = 0; i < n; i++) {
+            Point position = new Point(random.nextInt(worldWidth), 300 + random.nextInt(150));
+            if (i % 2 == 0) {
+                level.addItem(new Mushroom(position));
+            } else {
+                level.addBlock(new Block(position));
+            }
+        }
+        return level;
+    }
+
+    private static Point[] randomPositions(Level level, int count) {
+        Random random = new Random(7);
+        int worldWidth = (level.getItems().size() + level.getBlocks().size()) * 60;
+        Point[] positions = new Point[count];
+        for (int i = 0; i < count; i++) {
+            positions[i] = new Point(random.nextInt(worldWidth), 300 + random.nextInt(150));
+        }
+        return positions;
+    }
+}
@@ -0,0 +1,96 @@
+package benchmarks;
+
+import core.GameLoop;
+import core.GameSession;
+import decorators.SpeedBoostDecorator;
+import interfaces.GameOutput;
+import interfaces.MarioComponent;
+import ui.DamageTracker;
+import ui.GamePanel;
+
+import java.awt.Graphics2D;
+import java.awt.Rectangle;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+
+/**
+ * Pixels filled per frame while Mario walks, jumps and sets off effects:
+ * repainting the whole panel every frame versus one pass per cluster of
+ * damaged regions, each clipped to its cluster, as GamePanel.paintDamage
+ * paints. Exits with status 1 if the clusters fill more than a few times the
+ * pixels actually damaged, as one box around Mario and the log far apart would.
+ */
+public class DamageBenchmark {
+    private static final int WIDTH = 1200;
+    private static final int HEIGHT = 800;
+    private static final int TICKS_PER_FRAME = GameLoop.TICKS_PER_SECOND / 60;
+    // Filled pixels per damaged pixel allowed, over all frames
+    private static final double MAX_OVERPAINT = 3;
+
+    public static void main(String[] args) {
+        GameSession session = new GameSession(GameOutput.NONE);
+        session.setMario(new SpeedBoostDecorator(session.getMario()));
+        GamePanel panel = new GamePanel(session);
+        panel.setSize(WIDTH, HEIGHT);
+        session.setWorldWidth(WIDTH);
+
+        BufferedImage image = new BufferedImage(WIDTH, HEIGHT, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g2d = image.createGraphics();
+        g2d.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+        g2d.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+        long[] frame = {0};
+        // Filled, damaged, frames
+        long[] pixels = {0, 0, 0};
+
+        Bench.printHeader("Game panel frame, " + WIDTH + "x" + HEIGHT);
+        Bench.run("full repaint", 1, () -> {
+            advance(session, panel, frame[0]++);
+            panel.collectDamage();
+            panel.render(g2d);
+            return WIDTH;
+        }).print();
+        Bench.run("damaged clusters only", 1, () -> {
+            advance(session, panel, frame[0]++);
+            DamageTracker damage = panel.collectDamage();
+            int clusters = damage.cluster(GamePanel.MAX_PAINT_CLUSTERS);
+            for (int i = 0; i < clusters; i++) {
+                Rectangle cluster = damage.getCluster(i);
+                g2d.setClip(cluster.x, cluster.y, cluster.width, cluster.height);
+                panel.render(g2d);
+            }
+            g2d.setClip(null);
+            pixels[0] += damage.clusterArea();
+            pixels[1] += damage.area();
+            pixels[2]++;
+            return clusters;
+        }).print();
+        g2d.dispose();
+
+        long full = (long) WIDTH * HEIGHT;
+        long filled = pixels[0] / pixels[2];
+        long damaged = pixels[1] / pixels[2];
+        double overpaint = (double) pixels[0] / pixels[1];
+        System.out.printf("pixels per frame: full %,d, damaged %,d, clusters filled %,d (%.1f%% of full, %.2fx damaged)%n",
+                full, damaged, filled, 100.0 * filled / full, overpaint);
+        if (overpaint > MAX_OVERPAINT) {
+            System.out.printf("FAIL: the clusters fill %.2f times the damaged pixels, more than %.0f%n",
+                    overpaint, MAX_OVERPAINT);
+            System.exit(1);
+        }
+        System.out.println("OK: painting fills little more than the damage");
+    }
+
+    /**
+     * One 60 Hz frame of play: walk back and forth, jump now and then, break a block's worth of fire.
+     */
+    private static void advance(GameSession session, GamePanel panel, long frame) {
+        MarioComponent mario = session.getMario();
+        if (frame % 8 == 0) mario.move((frame / 400 & 1) == 0 ? 1 : -1);
+        if (frame % 120 == 0) mario.jump();
+        if (frame % 30 == 0) panel.createFireEffect(mario.getX() + 20, mario.getY(), 8);
+        for (int i = 0; i < TICKS_PER_FRAME; i++) {
+            session.tick();
+            panel.simulate(session.getTick());
+        }
+    }
+}
@@ -0,0 +1,155 @@
+package benchmarks;
+
+import core.Ability;
+import core.GameSession;
+import decorators.DoubleJumpDecorator;
+import decorators.ShieldDecorator;
+import decorators.SpeedBoostDecorator;
+import decorators.SuperStrengthDecorator;
+import interfaces.GameOutput;
+import interfaces.MarioComponent;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Throughput and allocation of MarioComponent calls through decorator chains.
+ *
+ * Covers chain depths 0-64 (cycling through the four decorator types), every
+ * MarioState at the bottom of the chain, and call sites that see one, two or
+ * many receiver classes. Each call-site case runs in a JVM of its own, as a
+ * forked JMH run would: in this one, the sweeps before it would already have
+ * shown the shared call sites every decorator class, and the monomorphic case
+ * would measure a megamorphic site.
+ *
+ * Usage: java benchmarks.DecoratorChainBenchmark [maxDepth]
+ *        java benchmarks.DecoratorChainBenchmark --call-site monomorphic|bimorphic|megamorphic
+ */
+public class DecoratorChainBenchmark {
+    private static final int[] DEPTHS = {0, 1, 2, 4, 8, 16, 32, 64};
+    private static final String[] STATES = {"Small", "Big", "Fire", "Invincible"};
+    private static final String[] CALL_SITES = {"monomorphic", "bimorphic", "megamorphic"};
+    private static final int[] CALL_SITE_KINDS = {1, 2, 5};
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+        if (args.length == 2 && args[0].equals("--call-site")) {
+            for (int i = 0; i < CALL_SITES.length; i++) {
+                if (CALL_SITES[i].equals(args[1])) {
+                    measureCallSite(CALL_SITES[i], CALL_SITE_KINDS[i]);
+                    return;
+                }
+            }
+            throw new IllegalArgumentException("Unknown call site case " + args[1]);
+        }
+        int maxDepth = args.length > 0 ? Integer.parseInt(args[0]) : 64;
+
+        Bench.printHeader("MarioComponent dispatch by chain depth (Small Mario)");
+        for (int depth : DEPTHS) {
+            if (depth > maxDepth) break;
+            MarioComponent mario = chain(newSession("Small"), depth);
+            measureMethods("depth " + depth, mario);
+        }
+
+        Bench.printHeader("MarioComponent dispatch by state (depth 4)");
+        for (String state : STATES) {
+            MarioComponent mario = chain(newSession(state), 4);
+            measureMethods(state, mario);
+        }
+
+        Bench.printHeader("Call-site polymorphism (getScore / hasAbility, depth 1), one JVM each");
+        for (String callSite : CALL_SITES) {
+            if (fork(callSite) != 0) {
+                System.out.println("FAIL: the " + callSite + " case exited abnormally");
+                System.exit(1);
+            }
+        }
+    }
+
+    /**
+     * Runs one call-site case in a fresh JVM with this one's options, so its
+     * type profile holds only the receivers that case shows it.
+     *
+     * @return the child's exit status
+     */
+    private static int fork(String callSite) throws IOException, InterruptedException {
+        List<String> command = new ArrayList<>();
+        command.add(Paths.get(System.getProperty("java.home"), "bin", "java").toString());
+        command.addAll(ManagementFactory.getRuntimeMXBean().getInputArguments());
+        command.add("-cp");
+        command.add(System.getProperty("java.class.path"));
+        command.add(DecoratorChainBenchmark.class.getName());
+        command.add("--call-site");
+        command.add(callSite);
+        return new ProcessBuilder(command).inheritIO().start().waitFor();
+    }
+
+    private static void measureMethods(String label, MarioComponent mario) {
+        Bench.run(label + " getScore", mario::getScore).print();
+        Bench.run(label + " canBreakBlocks", () -> mario.canBreakBlocks() ? 1 : 0).print();
+        Bench.run(label + " hasAbility(miss)", () -> mario.hasAbility("Invisibility") ? 1 : 0).print();
+        Bench.run(label + " hasAbility(Ability)", () -> mario.hasAbility(Ability.SHIELD) ? 1 : 0).print();
+        Bench.run(label + " getStateName", () -> mario.getStateName().length()).print();
+        Bench.run(label + " getSnapshot().getStateName", () -> mario.getSession().getSnapshot().getStateName().length()).print();
+        Bench.run(label + " getAbilities", () -> mario.getAbilities().size()).print();
+    }
+
+    /**
+     * Calls the same site with {@code kinds} different receiver classes in rotation.
+     */
+    private static void measureCallSite(String label, int kinds) {
+        MarioComponent[] receivers = new MarioComponent[1024];
+        for (int i = 0; i < receivers.length; i++) {
+            MarioComponent base = newSession("Small").getMario();
+            receivers[i] = kinds == 1 ? base : wrap(base, i % kinds);
+        }
+        int[] index = {0};
+        Bench.run(label + " getScore", () -> receivers[index[0]++ & 1023].getScore()).print();
+        Bench.run(label + " hasAbility(miss)",
+                () -> receivers[index[0]++ & 1023].hasAbility("Invisibility") ? 1 : 0).print();
+    }
+
+    private static GameSession newSession(String state) {
+        GameSession session = new GameSession(GameOutput.NONE);
+        MarioComponent mario = session.getMario();
+        switch (state) {
+            case "Big":
+                mario.collectFireFlower();
+                mario.takeDamage();
+                break;
+            case "Fire":
+                mario.collectFireFlower();
+                break;
+            case "Invincible":
+                mario.collectStar();
+                break;
+            default:
+                break;
+        }
+        return session;
+    }
+
+    private static MarioComponent chain(GameSession session, int depth) {
+        MarioComponent mario = session.getMario();
+        for (int i = 0; i < depth; i++) {
+            mario = wrap(mario, i % 4 + 1);
+        }
+        session.setMario(mario);
+        return mario;
+    }
+
+    /**
+     * 0 returns the component unchanged; 1-4 pick a decorator type.
+     */
+    private static MarioComponent wrap(MarioComponent mario, int kind) {
+        switch (kind) {
+            case 1: return new SpeedBoostDecorator(mario);
+            case 2: return new ShieldDecorator(mario);
+            case 3: return new DoubleJumpDecorator(mario);
+            case 4: return new SuperStrengthDecorator(mario);
+            default: return mario;
+        }
+    }
+}
@@ -0,0 +1,104 @@
+package benchmarks;
+
+import core.Ability;
+import core.GameSession;
+import decorators.DoubleJumpDecorator;
+import decorators.ShieldDecorator;
+import decorators.SpeedBoostDecorator;
+import decorators.SuperStrengthDecorator;
+import interfaces.GameOutput;
+import interfaces.MarioComponent;
+
+import java.awt.Point;
+import java.util.List;
+
+/**
+ * Decorator dispatch by chain depth: nested forwarding, where every layer
+ * passes every call to the one inside it as MarioDecorator used to, against
+ * the compiled tables MarioDecorator uses now. Operations cover one no
+ * decorator overrides (getScore, canShootFire), one a single decorator type
+ * overrides (canBreakBlocks) and Mario's position, which the game reads
+ * every tick.
+ *
+ * Usage: java benchmarks.DecoratorPipelineBenchmark [maxDepth]
+ */
+public class DecoratorPipelineBenchmark {
+    private static final int[] DEPTHS = {1, 2, 4, 10, 16, 32, 64};
+
+    public static void main(String[] args) {
+        int maxDepth = args.length > 0 ? Integer.parseInt(args[0]) : 64;
+        for (int depth : DEPTHS) {
+            if (depth > maxDepth) break;
+            Bench.printHeader("Depth " + depth);
+
+            MarioComponent nested = new GameSession(GameOutput.NONE).getMario();
+            for (int i = 0; i < depth; i++) {
+                nested = new Forwarding(nested);
+            }
+            MarioComponent compiled = new GameSession(GameOutput.NONE).getMario();
+            for (int i = 0; i < depth; i++) {
+                compiled = decorate(compiled, i % 4);
+            }
+
+            measure("nested", nested);
+            measure("compiled", compiled);
+        }
+    }
+
+    private static void measure(String label, MarioComponent mario) {
+        Bench.run(label + " getScore", mario::getScore).print();
+        Bench.run(label + " canShootFire", () -> mario.canShootFire() ? 1 : 0).print();
+        Bench.run(label + " canBreakBlocks", () -> mario.canBreakBlocks() ? 1 : 0).print();
+        Bench.run(label + " getX + getY", () -> mario.getX() + mario.getY()).print();
+    }
+
+    /**
+     * Wraps with the four decorator types in turn; SuperStrength is the one overriding canBreakBlocks.
+     */
+    private static MarioComponent decorate(MarioComponent mario, int kind) {
+        switch (kind) {
+            case 0: return new SpeedBoostDecorator(mario);
+            case 1: return new ShieldDecorator(mario);
+            case 2: return new DoubleJumpDecorator(mario);
+            default: return new SuperStrengthDecorator(mario);
+        }
+    }
+
+    /**
+     * One layer of plain nested forwarding.
+     */
+    private static final class Forwarding implements MarioComponent {
+        private final MarioComponent inner;
+
+        Forwarding(MarioComponent inner) {
+            this.inner = inner;
+        }
+
+        @Override public void jump() { inner.jump(); }
+        @Override public void takeDamage() { inner.takeDamage(); }
+        @Override public void collectMushroom() { inner.collectMushroom(); }
+        @Override public void collectFireFlower() { inner.collectFireFlower(); }
+        @Override public void collectStar() { inner.collectStar(); }
+        @Override public String getStateName() { return inner.getStateName(); }
+        @Override public boolean canBreakBlocks() { return inner.canBreakBlocks(); }
+        @Override public boolean canShootFire() { return inner.canShootFire(); }
+        @Override public int getScore() { return inner.getScore(); }
+        @Override public void addScore(int points) { inner.addScore(points); }
+        @Override public boolean hasAbility(Ability ability) { return inner.hasAbility(ability); }
+        @Override public long getCapabilities() { return inner.getCapabilities(); }
+        @Override public List<String> getAbilities() { return inner.getAbilities(); }
+        @Override public int getLives() { return inner.getLives(); }
+        @Override public void setLives(int lives) { inner.setLives(lives); }
+        @Override public Point getPosition() { return inner.getPosition(); }
+        @Override public void setPosition(Point position) { inner.setPosition(position); }
+        @Override public int getX() { return inner.getX(); }
+        @Override public int getY() { return inner.getY(); }
+        @Override public int getWidth() { return inner.getWidth(); }
+        @Override public int getHeight() { return inner.getHeight(); }
+        @Override public void setPosition(int x, int y) { inner.setPosition(x, y); }
+        @Override public String getStateEmoji() { return inner.getStateEmoji(); }
+        @Override public GameSession getSession() { return inner.getSession(); }
+        @Override public void update() { inner.update(); }
+        @Override public void move(int direction) { inner.move(direction); }
+    }
+}
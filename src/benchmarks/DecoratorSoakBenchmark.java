@@ -0,0 +1,106 @@
+package benchmarks;
+
+import core.Ability;
+import core.GameLoop;
+import core.GameSession;
+import decorators.DoubleJumpDecorator;
+import decorators.MarioDecorator;
+import decorators.ShieldDecorator;
+import decorators.SpeedBoostDecorator;
+import decorators.SuperStrengthDecorator;
+import interfaces.GameOutput;
+import interfaces.MarioComponent;
+
+import java.util.Random;
+
+/**
+ * Soak test for decorator removal: simulates 24 hours of play at the game
+ * loop's tick rate, with power-ups applied as the player would - only when
+ * not already held - and left to expire, shields worn down by damage, and the
+ * odd power-up removed early by type. Samples the chain depth every simulated
+ * second and exits with status 1 if it ever exceeds one decorator per ability.
+ *
+ * Usage: java benchmarks.DecoratorSoakBenchmark [hours]
+ */
+public class DecoratorSoakBenchmark {
+    private static final long SEED = 42;
+    private static final int ACTION_EVERY_TICKS = GameLoop.TICKS_PER_SECOND * 2;
+
+    public static void main(String[] args) {
+        double hours = args.length > 0 ? Double.parseDouble(args[0]) : 24;
+        long ticks = (long) (hours * 3600 * GameLoop.TICKS_PER_SECOND);
+        int bound = Ability.values().length;
+
+        GameSession session = new GameSession(GameOutput.NONE);
+        Random random = new Random(SEED);
+        long applied = 0;
+        long removedByType = 0;
+        int maxDepth = 0;
+        long depthSum = 0;
+        long samples = 0;
+
+        long start = System.nanoTime();
+        for (long tick = 1; tick <= ticks; tick++) {
+            session.tick();
+            if (tick % ACTION_EVERY_TICKS == 0) {
+                switch (random.nextInt(6)) {
+                    case 0: case 1: case 2:
+                        Ability ability = Ability.values()[random.nextInt(bound)];
+                        if (!session.getMario().hasAbility(ability)) {
+                            session.setMario(decorate(session.getMario(), ability));
+                            applied++;
+                        }
+                        break;
+                    case 3:
+                        if (session.getMario().hasAbility(Ability.SHIELD)) {
+                            session.getMario().takeDamage();
+                        }
+                        break;
+                    case 4:
+                        if (MarioDecorator.removeNewest(session, Ability.values()[random.nextInt(bound)])) {
+                            removedByType++;
+                        }
+                        break;
+                    default:
+                        session.getMario().jump();
+                        break;
+                }
+            }
+            if (tick % GameLoop.TICKS_PER_SECOND == 0) {
+                int depth = depth(session.getMario());
+                maxDepth = Math.max(maxDepth, depth);
+                depthSum += depth;
+                samples++;
+            }
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+
+        System.out.printf("%.1f simulated hours (%,d ticks) in %.1f s%n", hours, ticks, seconds);
+        System.out.printf("decorators applied %,d, removed early by type %,d%n", applied, removedByType);
+        System.out.printf("chain depth: max %d, mean %.2f over %,d samples (bound %d)%n",
+                maxDepth, (double) depthSum / samples, samples, bound);
+        if (maxDepth > bound) {
+            System.out.println("FAIL: expired decorators stay in the chain");
+            System.exit(1);
+        }
+        System.out.println("OK: chain depth stays bounded");
+    }
+
+    private static MarioComponent decorate(MarioComponent mario, Ability ability) {
+        switch (ability) {
+            case SPEED_BOOST: return new SpeedBoostDecorator(mario);
+            case DOUBLE_JUMP: return new DoubleJumpDecorator(mario);
+            case SHIELD: return new ShieldDecorator(mario);
+            default: return new SuperStrengthDecorator(mario);
+        }
+    }
+
+    private static int depth(MarioComponent mario) {
+        int depth = 0;
+        while (mario instanceof MarioDecorator) {
+            mario = ((MarioDecorator) mario).getDecoratedMario();
+            depth++;
+        }
+        return depth;
+    }
+}
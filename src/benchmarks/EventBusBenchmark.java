@@ -0,0 +1,148 @@
+package benchmarks;
+
+import core.GameLoop;
+import interfaces.GameOutput;
+import ui.EventBus;
+
+import java.awt.Color;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * The event bus between the game and the window: the cost of queuing an
+ * event and of draining, a frame's worth of typical game events collapsed
+ * into one batch, and several producer threads posting while one thread
+ * drains once per frame. Exits with status 1 if queuing or draining
+ * allocates, if a frame delivers more than one display refresh or the same
+ * effect twice, or if events go missing between the producers and the drain.
+ *
+ * Usage: java benchmarks.EventBusBenchmark [producers]
+ */
+public class EventBusBenchmark {
+    private static final long FRAME_NANOS = 16_666_667L;
+    private static final int FRAMES = 120;
+    private static final long TICK_NANOS = 1_000_000_000L / GameLoop.TICKS_PER_SECOND;
+    private static final int EVENTS_PER_TICK = 50;
+
+    public static void main(String[] args) throws InterruptedException {
+        int producers = args.length > 0 ? Integer.parseInt(args[0]) : 4;
+        Counting output = new Counting();
+        EventBus bus = new EventBus(output);
+
+        Bench.printHeader("Event bus");
+        Bench.Result queue = Bench.run("offer + drain, one event", () -> {
+            bus.updateDisplay();
+            return bus.drain();
+        });
+        queue.print();
+        long receivedBefore = bus.getReceived();
+        long deliveredBefore = bus.getDelivered();
+        Bench.Result frame = Bench.run("frame of 2 ticks' events, collapsed", () -> {
+            for (int tick = 0; tick < 2; tick++) {
+                // A move scores and refreshes; a power-up changes state and refreshes twice
+                bus.updateDisplay();
+                bus.updateDisplay();
+                bus.updateDisplay();
+                bus.updateInvincibilityTimer(7);
+                bus.createFireEffect(120, 400, 8);
+                bus.createFireEffect(120, 400, 8);
+                bus.removeDecorator("Speed Boost");
+            }
+            return bus.drain();
+        });
+        frame.print();
+        long received = bus.getReceived() - receivedBefore;
+        long delivered = bus.getDelivered() - deliveredBefore;
+        System.out.printf("events received %,d, calls delivered %,d (%.0f%% collapsed)%n",
+                received, delivered, 100.0 * (received - delivered) / received);
+
+        // The same effect twice in a frame, with another in between, still shows once
+        Counting distinct = new Counting();
+        bus.createFireEffect(120, 400, 8);
+        bus.createFireEffect(300, 400, 8);
+        bus.createFireEffect(120, 400, 8);
+        bus.drain(distinct);
+        System.out.println("effects A, B, A in one frame: " + distinct.effects + " delivered");
+
+        // Producers on other threads, drained once per frame
+        Counting threaded = new Counting();
+        EventBus shared = new EventBus(threaded);
+        AtomicBoolean running = new AtomicBoolean(true);
+        CountDownLatch done = new CountDownLatch(producers);
+        long[] sent = new long[producers];
+        for (int p = 0; p < producers; p++) {
+            int id = p;
+            Thread thread = new Thread(() -> {
+                long n = 0;
+                while (running.get()) {
+                    // A busy tick's worth of events, at the game's tick rate
+                    for (int i = 0; i < EVENTS_PER_TICK; i += 2) {
+                        shared.createFireEffect(id, (int) n, 1);
+                        shared.updateDisplay();
+                        n += 2;
+                    }
+                    LockSupport.parkNanos(TICK_NANOS);
+                }
+                sent[id] = n;
+                done.countDown();
+            }, "producer-" + p);
+            thread.setDaemon(true);
+            thread.start();
+        }
+        int overfull = 0;
+        long drainBytes = 0;
+        long next = System.nanoTime();
+        for (int f = 0; f < FRAMES; f++) {
+            next += FRAME_NANOS;
+            LockSupport.parkNanos(next - System.nanoTime());
+            long refreshes = threaded.displays;
+            long before = Bench.allocatedBytes();
+            shared.drain();
+            drainBytes += Bench.allocatedBytes() - before;
+            if (threaded.displays - refreshes > 1) overfull++;
+        }
+        running.set(false);
+        done.await();
+        while (shared.drain() > 0) {
+            // Take what the producers posted after the last frame
+        }
+        long total = 0;
+        for (long n : sent) total += n;
+        System.out.printf("%d producers, %d frames: %,d events sent, %,d received, %,d dropped, %,d calls delivered%n",
+                producers, FRAMES, total, shared.getReceived(), shared.getDropped(), shared.getDelivered());
+
+        if (queue.bytesPerOp > 0 || frame.bytesPerOp > 0 || drainBytes > 0) {
+            System.out.println("FAIL: the event bus allocates");
+            System.exit(1);
+        }
+        if (distinct.effects != 2) {
+            System.out.println("FAIL: a frame delivered " + distinct.effects + " effects for 2 distinct ones");
+            System.exit(1);
+        }
+        if (overfull > 0) {
+            System.out.println("FAIL: " + overfull + " frames refreshed the display more than once");
+            System.exit(1);
+        }
+        if (shared.getReceived() + shared.getDropped() != total) {
+            System.out.println("FAIL: events went missing");
+            System.exit(1);
+        }
+        System.out.println("OK: lock-free, allocation-free, one display refresh per frame");
+    }
+
+    /**
+     * Counts what reaches the window.
+     */
+    private static final class Counting implements GameOutput {
+        long displays;
+        long effects;
+
+        @Override public void addLogMessage(String message, Color color) { }
+        @Override public void updateDisplay() { displays++; }
+        @Override public void updateInvincibilityTimer(int timer) { }
+        @Override public void removeDecorator(String decoratorType) { }
+        @Override public void showGameOver() { }
+        @Override public void createFireEffect(int x, int y, int size) { effects++; }
+    }
+}
@@ -0,0 +1,72 @@
+package benchmarks;
+
+import core.GameSession;
+import decorators.ShieldDecorator;
+import decorators.SpeedBoostDecorator;
+import decorators.SuperStrengthDecorator;
+import interfaces.GameOutput;
+import interfaces.MarioComponent;
+import level.Level;
+
+/**
+ * Verifies that the per-tick simulation path allocates nothing once warmed up:
+ * Mario walking back and forth and jumping, collecting the level's items and
+ * breaking its blocks, the collision queries against the level grid, and
+ * power-up timers running out. The level is reset at every turn so there is
+ * always something to run into. Exits with status 1 if a steady-state tick
+ * allocates, or if the measured ticks hit nothing.
+ */
+public class HotPathAllocationBenchmark {
+    private static final int TICKS = 1_000_000;
+    // Ticks per walk in one direction; the level's items and blocks lie within one
+    private static final int LAP = 64;
+
+    public static void main(String[] args) {
+        GameSession session = new GameSession(GameOutput.NONE);
+        session.setMario(new SuperStrengthDecorator(
+                new ShieldDecorator(new SpeedBoostDecorator(session.getMario()))));
+        long[] step = {0};
+
+        Bench.printHeader("Per-tick allocation");
+        Bench.run("session tick", () -> {
+            session.tick();
+            return session.getTick();
+        }).print();
+        Bench.run("move + jump + collide + tick", () -> play(session, step[0]++)).print();
+
+        Level level = session.getLevelManager().getCurrentLevel();
+        int modCount = level.getModCount();
+        long before = Bench.allocatedBytes();
+        for (int i = 0; i < TICKS; i++) {
+            play(session, step[0]++);
+        }
+        long allocated = Bench.allocatedBytes() - before;
+        // Each collected item, broken block and reset bumps the level's count
+        int changes = level.getModCount() - modCount;
+        System.out.printf("%,d ticks of play allocated %,d bytes; %,d items collected, blocks broken and resets%n",
+                TICKS, allocated, changes);
+        if (changes <= TICKS / LAP) {
+            System.out.println("FAIL: Mario collided with nothing");
+            System.exit(1);
+        }
+        if (allocated > 0) {
+            System.out.println("FAIL: the tick path allocates");
+            System.exit(1);
+        }
+        System.out.println("OK: the tick path is allocation-free");
+    }
+
+    /**
+     * One tick of play: walk, now and then jump, and at each turn bring the
+     * level's items and blocks back.
+     */
+    private static long play(GameSession session, long step) {
+        // Decorators unlink themselves as they run out, so ask for Mario every time
+        MarioComponent mario = session.getMario();
+        if (step % LAP == 0) session.getLevelManager().getCurrentLevel().reset();
+        mario.move((step / LAP & 1) == 0 ? 1 : -1);
+        if (step % 16 == 0) mario.jump();
+        session.tick();
+        return mario.getX();
+    }
+}
@@ -0,0 +1,120 @@
+package benchmarks;
+
+import level.Block;
+import level.BuiltInLevels;
+import level.FireFlower;
+import level.GameObject;
+import level.Level;
+import level.LevelConverter;
+import level.LevelFile;
+import level.LevelManager;
+import level.Mushroom;
+import level.Star;
+
+import java.awt.Point;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Level start-up cost: building every level up front, as LevelManager used
+ * to, against mapping a level file and decoding only the current level.
+ * Runs on the five built-in levels and on a pack of several hundred larger
+ * ones. Exits with status 1 if a level does not survive the round trip
+ * through the file, or if opening the pack costs as much as building it.
+ *
+ * Usage: java benchmarks.LevelLoadBenchmark [packLevels]
+ */
+public class LevelLoadBenchmark {
+    public static void main(String[] args) throws IOException {
+        int packLevels = args.length > 0 ? Integer.parseInt(args[0]) : 500;
+        Path builtInFile = Files.createTempFile("levels", ".dat");
+        Path packFile = Files.createTempFile("pack", ".dat");
+        builtInFile.toFile().deleteOnExit();
+        packFile.toFile().deleteOnExit();
+
+        List<Level> builtIn = BuiltInLevels.create();
+        LevelFile.write(builtInFile, builtIn);
+        LevelFile file = LevelFile.open(builtInFile);
+        for (int i = 0; i < builtIn.size(); i++) {
+            if (!LevelConverter.sameLevel(builtIn.get(i), file.load(i))) {
+                System.out.println("FAIL: level " + (i + 1) + " changed on the way through the file");
+                System.exit(1);
+            }
+        }
+
+        List<Level> pack = createPack(packLevels);
+        LevelFile.write(packFile, pack);
+
+        Bench.printHeader("Built-in levels (" + builtIn.size() + ")");
+        Bench.run("build all in code", 1, () -> BuiltInLevels.create().size()).print();
+        Bench.run("open file + current level", 1, () -> startUp(builtInFile)).print();
+        Bench.run("decode one level", 1, () -> file.load(4).getBlocks().size()).print();
+
+        LevelFile packed = LevelFile.open(packFile);
+        Bench.printHeader(String.format("Level pack (%,d levels, %,d bytes)", packLevels, Files.size(packFile)));
+        Bench.Result eager = Bench.run("decode every level", 1, () -> {
+            long blocks = 0;
+            for (int i = 0; i < packed.getLevelCount(); i++) {
+                blocks += packed.load(i).getBlocks().size();
+            }
+            return blocks;
+        });
+        eager.print();
+        Bench.Result lazy = Bench.run("open file + current level", 1, () -> startUp(packFile));
+        lazy.print();
+        int[] next = {0};
+        Bench.run("decode one level", 1, () -> packed.load(next[0]++ % packLevels).getBlocks().size()).print();
+
+        if (lazy.opsPerSecond < eager.opsPerSecond * 10) {
+            System.out.println("FAIL: opening the pack is not much cheaper than decoding all of it");
+            System.exit(1);
+        }
+        System.out.printf("OK: start-up %.0fx cheaper than decoding the whole pack%n",
+                lazy.opsPerSecond / eager.opsPerSecond);
+    }
+
+    /**
+     * What the game does at start-up: open the level file and get the first level.
+     */
+    private static long startUp(Path path) {
+        try {
+            return new LevelManager(LevelFile.open(path)).getCurrentLevel().getBlocks().size();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * The built-in levels over and over, each copy a few screens wide.
+     */
+    private static List<Level> createPack(int count) {
+        List<Level> source = BuiltInLevels.create();
+        List<Level> pack = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            Level from = source.get(i % source.size());
+            Level level = new Level(from.getName() + " #" + (i + 1), from.getDescription(), from.getBackgroundColor());
+            for (int screen = 0; screen < 4; screen++) {
+                int dx = screen * 800;
+                for (GameObject item : from.getItems()) {
+                    level.addItem(copy(item, dx));
+                }
+                for (Block block : from.getBlocks()) {
+                    level.addBlock(new Block(new Point(block.getX() + dx, block.getY())));
+                }
+            }
+            pack.add(level);
+        }
+        return pack;
+    }
+
+    private static GameObject copy(GameObject item, int dx) {
+        Point position = new Point(item.getX() + dx, item.getY());
+        if (item instanceof Mushroom) return new Mushroom(position);
+        if (item instanceof FireFlower) return new FireFlower(position);
+        return new Star(position);
+    }
+}
@@ -0,0 +1,133 @@
+package benchmarks;
+
+import level.Block;
+import level.GameObject;
+import level.Level;
+import level.Mushroom;
+import level.SpatialGrid;
+
+import java.awt.Color;
+import java.awt.Point;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Level reset cost against level size. Level.reset() moves the level to a
+ * new epoch; for comparison, what it used to do - clear every object's
+ * collected or broken flag and file every object in the collision indexes
+ * again. Exits with status 1 if a reset leaves anything collected or broken,
+ * allocates, or costs several times more on the largest level than on the
+ * smallest.
+ *
+ * Usage: java benchmarks.LevelResetBenchmark [maxObjects]
+ */
+public class LevelResetBenchmark {
+    private static final int[] SIZES = {1_000, 10_000, 100_000, 1_000_000};
+
+    public static void main(String[] args) {
+        int maxObjects = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        double smallest = 0;
+        double largest = 0;
+        boolean allocates = false;
+        for (int objects : SIZES) {
+            if (objects > maxObjects) break;
+            Level level = createLevel(objects);
+            playThrough(level);
+            level.reset();
+            if (!allBack(level)) {
+                System.out.println("FAIL: reset left objects collected or broken");
+                System.exit(1);
+            }
+
+            Bench.printHeader(String.format("%,d objects", objects));
+            Bench.Result reset = Bench.run("reset (new epoch)", () -> {
+                level.reset();
+                return level.getEpoch();
+            });
+            reset.print();
+            SpatialGrid<GameObject> itemGrid = new SpatialGrid<>();
+            SpatialGrid<Block> blockGrid = new SpatialGrid<>();
+            Bench.run("clear flags, re-file in indexes", 1,
+                    () -> refile(level, itemGrid, blockGrid)).print();
+
+            allocates |= reset.bytesPerOp > 0;
+            if (smallest == 0) smallest = reset.opsPerSecond;
+            largest = reset.opsPerSecond;
+        }
+
+        if (allocates) {
+            System.out.println("FAIL: reset allocates");
+            System.exit(1);
+        }
+        // Generous: at this speed the measurement is mostly loop overhead and JIT luck
+        if (largest < smallest / 4) {
+            System.out.println("FAIL: reset cost grows with level size");
+            System.exit(1);
+        }
+        System.out.println("OK: reset costs the same at every level size");
+    }
+
+    private static Level createLevel(int objects) {
+        Level level = new Level("Reset", "", Color.WHITE);
+        for (int i = 0; i < objects; i++) {
+            Point position = new Point(i / 2 * 40, i % 2 == 0 ? 360 : 420);
+            if (i % 2 == 0) {
+                level.addItem(new Mushroom(position));
+            } else {
+                level.addBlock(new Block(position));
+            }
+        }
+        return level;
+    }
+
+    /**
+     * Collects every item and breaks every block, through the level as the game does.
+     */
+    private static void playThrough(Level level) {
+        List<GameObject> items = new ArrayList<>();
+        List<Block> blocks = new ArrayList<>();
+        level.findItems(0, 0, level.getWidth(), 1000, items);
+        level.findBlocks(0, 0, level.getWidth(), 1000, blocks);
+        for (GameObject item : items) {
+            level.collectItem(item);
+        }
+        for (Block block : blocks) {
+            level.breakBlock(block);
+        }
+    }
+
+    private static boolean allBack(Level level) {
+        List<GameObject> items = new ArrayList<>();
+        List<Block> blocks = new ArrayList<>();
+        level.findItems(0, 0, level.getWidth(), 1000, items);
+        level.findBlocks(0, 0, level.getWidth(), 1000, blocks);
+        if (items.size() != level.getItems().size() || blocks.size() != level.getBlocks().size()) {
+            return false;
+        }
+        for (GameObject item : level.getItems()) {
+            if (item.isCollected()) return false;
+        }
+        for (Block block : level.getBlocks()) {
+            if (block.isBroken()) return false;
+        }
+        return true;
+    }
+
+    private static long refile(Level level, SpatialGrid<GameObject> itemGrid, SpatialGrid<Block> blockGrid) {
+        itemGrid.clear();
+        blockGrid.clear();
+        List<GameObject> items = level.getItems();
+        for (int i = 0; i < items.size(); i++) {
+            GameObject item = items.get(i);
+            item.isCollected();
+            itemGrid.insert(item);
+        }
+        List<Block> blocks = level.getBlocks();
+        for (int i = 0; i < blocks.size(); i++) {
+            Block block = blocks.get(i);
+            block.isBroken();
+            blockGrid.insert(block);
+        }
+        return itemGrid.size() + blockGrid.size();
+    }
+}
@@ -0,0 +1,126 @@
+package benchmarks;
+
+import core.GameSession;
+import interfaces.GameOutput;
+import ui.GameLog;
+import ui.GamePanel;
+import ui.LogRing;
+
+import javax.swing.JTextArea;
+import javax.swing.SwingUtilities;
+import java.awt.Color;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Game log under load. Producer threads log as fast as they can, then at a
+ * steady 100,000 messages per second, while the event dispatch thread flushes
+ * the log once per 60 Hz frame as GameFrame does. Reports messages delivered
+ * and dropped, the EDT's CPU time per flush and the log area's final size. Exits with
+ * status 1 if the paced run drops messages, one flush in a hundred takes
+ * longer than a frame, or the log area grows past its bound.
+ */
+public class LogBenchmark {
+    private static final ThreadMXBean THREADS = ManagementFactory.getThreadMXBean();
+    private static final int PRODUCERS = 4;
+    private static final long RUN_NANOS = 2_000_000_000L;
+    private static final long FRAME_NANOS = 1_000_000_000L / 60;
+    private static final int PACED_RATE = 100_000;
+    private static final String[] MESSAGES = {
+            "⬆️ Mario jumped!", "🍄 Collected Mushroom! +1000 points", "🔥 Fire!",
+            "🧱💥 Block broken!", "⚡ Speed Boost activated", "🛡️ Shield absorbed the hit",
+    };
+
+    public static void main(String[] args) throws Exception {
+        LogRing ring = new LogRing(GameLog.CAPACITY);
+        String[] messages = new String[GameLog.FLUSH_LINES];
+        Color[] colors = new Color[GameLog.FLUSH_LINES];
+        Bench.printHeader("Game log");
+        int[] next = {0};
+        Bench.run("offer, drained every 4096", () -> {
+            ring.offer(MESSAGES[next[0]++ % MESSAGES.length], Color.WHITE);
+            if ((next[0] & 4095) == 0) ring.drain(messages, colors);
+            return next[0];
+        }).print();
+
+        System.out.println();
+        boolean ok = true;
+        ok &= run("unthrottled", 0, false);
+        ok &= run("paced, " + String.format("%,d", PACED_RATE) + " msgs/s", PACED_RATE, true);
+        if (!ok) System.exit(1);
+        System.out.println("OK");
+    }
+
+    /**
+     * Runs producers at {@code rate} messages per second in total (0 for as
+     * fast as possible) and flushes on the EDT once per frame.
+     */
+    private static boolean run(String label, int rate, boolean strict) throws Exception {
+        JTextArea area = new JTextArea();
+        GameLog log = new GameLog(area, new GamePanel(new GameSession(GameOutput.NONE)));
+        AtomicLong offered = new AtomicLong();
+        long start = System.nanoTime();
+        long end = start + RUN_NANOS;
+
+        Thread[] producers = new Thread[PRODUCERS];
+        for (int p = 0; p < PRODUCERS; p++) {
+            int id = p;
+            producers[p] = new Thread(() -> {
+                long sent = 0;
+                long now;
+                while ((now = System.nanoTime()) < end) {
+                    if (rate > 0) {
+                        // Keep this thread's share of the rate, sleeping when ahead
+                        long due = (now - start) * rate / PRODUCERS / 1_000_000_000L;
+                        if (sent >= due) {
+                            LockSupport.parkNanos(500_000);
+                            continue;
+                        }
+                    }
+                    log.add(MESSAGES[(int) (sent % MESSAGES.length)], id % 2 == 0 ? Color.GREEN : Color.ORANGE);
+                    sent++;
+                }
+                offered.addAndGet(sent);
+            });
+            producers[p].start();
+        }
+
+        long[] flushTimes = new long[(int) (RUN_NANOS / FRAME_NANOS) + 2];
+        int frames = 0;
+        long[] flushNanos = new long[1];
+        for (long frame = start; frame < end + FRAME_NANOS; frame += FRAME_NANOS) {
+            long wait = frame - System.nanoTime();
+            if (wait > 0) Thread.sleep(wait / 1_000_000, (int) (wait % 1_000_000));
+            SwingUtilities.invokeAndWait(() -> {
+                // CPU time, so the producers sharing the machine do not count against the flush
+                long t0 = THREADS.getCurrentThreadCpuTime();
+                log.flush();
+                flushNanos[0] = THREADS.getCurrentThreadCpuTime() - t0;
+            });
+            flushTimes[frames++] = flushNanos[0];
+        }
+        for (Thread producer : producers) {
+            producer.join();
+        }
+        SwingUtilities.invokeAndWait(log::flush);
+
+        Arrays.sort(flushTimes, 0, frames);
+        long medianFlush = flushTimes[frames / 2];
+        long p99Flush = flushTimes[frames * 99 / 100];
+        long dropped = log.getRing().getDropped();
+        int lines = area.getLineCount() - 1;
+        double seconds = RUN_NANOS / 1e9;
+        System.out.printf("%-20s offered %,12.0f/s  delivered %,12.0f/s  dropped %,d%n",
+                label, offered.get() / seconds, log.getFlushed() / seconds, dropped);
+        System.out.printf("%-20s %,d frames, flush median %.2f ms, p99 %.2f ms, max %.2f ms, log area %,d lines%n",
+                "", frames, medianFlush / 1e6, p99Flush / 1e6, flushTimes[frames - 1] / 1e6, lines);
+
+        boolean ok = lines <= GameLog.MAX_LINES;
+        if (strict) ok &= dropped == 0 && p99Flush < FRAME_NANOS;
+        if (!ok) System.out.println("FAIL: " + label);
+        return ok;
+    }
+}
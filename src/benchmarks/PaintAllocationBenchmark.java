@@ -0,0 +1,96 @@
+package benchmarks;
+
+import core.GameSession;
+import decorators.ShieldDecorator;
+import decorators.SpeedBoostDecorator;
+import interfaces.GameOutput;
+import ui.GamePanel;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+
+/**
+ * Verifies that painting a frame allocates nothing once sprites and the
+ * background layer are built: Mario with pulsing power-up glows, the level,
+ * the info panel and the game log, with a new log message every other frame
+ * as moves and jumps give in play. Exits with status 1 if more than one frame
+ * in a thousand allocates - the odd frame can pay for JIT or Java2D
+ * bookkeeping - or if log messages cost cached sprites.
+ */
+public class PaintAllocationBenchmark {
+    private static final int WIDTH = 1200;
+    private static final int HEIGHT = 800;
+    private static final int FRAMES = 10_000;
+    // Enough frames for the JIT to compile the log redraw, so its allocations are eliminated
+    private static final int WARMUP_FRAMES = 10_000;
+    // What play logs, built up front: the message itself is the game's cost, not the paint path's
+    private static final String[] MESSAGES = new String[64];
+    static {
+        for (int i = 0; i < MESSAGES.length; i++) {
+            MESSAGES[i] = (i % 2 == 0 ? "🏃 Mario moves right! x=" : "🦘 Mario jumps! y=") + i * 10;
+        }
+    }
+
+    public static void main(String[] args) {
+        GameSession session = new GameSession(GameOutput.NONE);
+        session.setMario(new ShieldDecorator(new SpeedBoostDecorator(session.getMario())));
+        GamePanel panel = new GamePanel(session);
+        panel.setSize(WIDTH, HEIGHT);
+
+        BufferedImage image = new BufferedImage(WIDTH, HEIGHT, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g2d = image.createGraphics();
+        g2d.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+        g2d.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+
+        Bench.printHeader("Paint path, " + WIDTH + "x" + HEIGHT);
+        Bench.run("render frame", 1, () -> {
+            panel.render(g2d);
+            return panel.getWidth();
+        }).print();
+        long[] logged = {0};
+        Bench.run("log message + render frame", 1, () -> {
+            panel.addLogMessage(MESSAGES[(int) (logged[0]++ % MESSAGES.length)], Color.GREEN);
+            panel.render(g2d);
+            return panel.getWidth();
+        }).print();
+        for (int i = 0; i < WARMUP_FRAMES; i++) {
+            if (i % 2 == 0) panel.addLogMessage(MESSAGES[i / 2 % MESSAGES.length], Color.GREEN);
+            panel.render(g2d);
+        }
+
+        // Count per frame, so a one-off allocation is told apart from a steady leak
+        long allocated = 0;
+        int allocatingFrames = 0;
+        long misses = panel.getSprites().getMisses();
+        long evictions = panel.getSprites().getEvictions();
+        long redraws = panel.getLogPanelSprite().getRedraws();
+        for (int i = 0; i < FRAMES; i++) {
+            if (i % 2 == 0) panel.addLogMessage(MESSAGES[i / 2 % MESSAGES.length], Color.GREEN);
+            long before = Bench.allocatedBytes();
+            panel.render(g2d);
+            long frameBytes = Bench.allocatedBytes() - before;
+            if (frameBytes > 0) {
+                allocated += frameBytes;
+                allocatingFrames++;
+            }
+        }
+        g2d.dispose();
+        misses = panel.getSprites().getMisses() - misses;
+        evictions = panel.getSprites().getEvictions() - evictions;
+        redraws = panel.getLogPanelSprite().getRedraws() - redraws;
+        System.out.printf("%,d frames allocated %,d bytes in %,d frames%n", FRAMES, allocated, allocatingFrames);
+        System.out.printf("%,d log messages: %,d log redraws, %,d sprite misses, %,d evictions%n",
+                FRAMES / 2, redraws, misses, evictions);
+        if (allocatingFrames > FRAMES / 1000) {
+            System.out.println("FAIL: the paint path allocates");
+            System.exit(1);
+        }
+        if (misses > 0 || evictions > 0) {
+            System.out.println("FAIL: log messages rasterize new sprites");
+            System.exit(1);
+        }
+        System.out.println("OK: steady-state frames allocate nothing");
+    }
+}
@@ -0,0 +1,55 @@
+package benchmarks;
+
+import ui.ParticleSystem;
+
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+
+/**
+ * Frame cost of the particle pool with 50k live particles: one update step
+ * (with respawns to keep the population steady) and one draw into an
+ * off-screen image the size of the game panel.
+ */
+public class ParticleBenchmark {
+    private static final int LIVE_PARTICLES = 50_000;
+    private static final int WIDTH = 1200;
+    private static final int HEIGHT = 800;
+
+    public static void main(String[] args) {
+        ParticleSystem particles = new ParticleSystem();
+        refill(particles, 0);
+
+        BufferedImage image = new BufferedImage(WIDTH, HEIGHT, BufferedImage.TYPE_INT_ARGB);
+        Graphics2D g2d = image.createGraphics();
+        g2d.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+        int[] frame = {0};
+
+        Bench.printHeader("Particle pool, " + LIVE_PARTICLES + " live particles");
+        Bench.run("update + respawn", 1, () -> {
+            particles.update(WIDTH);
+            refill(particles, frame[0]++);
+            return particles.getCount();
+        }).print();
+        Bench.run("draw", 1, () -> {
+            particles.draw(g2d);
+            return particles.getCount();
+        }).print();
+        g2d.dispose();
+    }
+
+    /**
+     * Tops the pool back up to the target population, like a steady stream of block-break bursts.
+     */
+    private static void refill(ParticleSystem particles, int frame) {
+        for (int i = particles.getCount(); i < LIVE_PARTICLES; i++) {
+            int x = (i * 31 + frame) % WIDTH;
+            int y = 200 + (i * 17) % 400;
+            switch (i % 3) {
+                case 0: particles.spawnFire(x, y, 8); break;
+                case 1: particles.spawnSmoke(x, y, 10); break;
+                default: particles.spawnFireball(x, y); break;
+            }
+        }
+    }
+}
@@ -0,0 +1,165 @@
+package benchmarks;
+
+import core.GameLoop;
+import core.GameSession;
+import interfaces.GameOutput;
+import replay.Input;
+import replay.InputRecorder;
+import replay.Outcome;
+import replay.Replay;
+
+import java.awt.Color;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.SplittableRandom;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Records a long scripted game - walking, jumping, power-ups, damage, level
+ * changes and restarts after game over, at a player's pace - then replays the
+ * recording headless. Reports what recording costs the game thread, the size
+ * of the recording per input, and how many times faster than real time the
+ * replay runs. Exits with status 1 if recording allocates on the game thread,
+ * if a replay ends anywhere other than where the game did, or if it runs less
+ * than 1000 times faster than real time.
+ *
+ * Usage: java benchmarks.ReplayBenchmark [minutes]
+ */
+public class ReplayBenchmark {
+    private static final long SEED = 7;
+    private static final double MIN_SPEEDUP = 1_000;
+    private static final int RUNS = 5;
+    private static final int RECORDED_INPUTS = 200_000;
+    private static final int BURST = 1_000;
+
+    // Weighted like a player: mostly moving and jumping
+    private static final Input[] SCRIPT = {
+            Input.MOVE_RIGHT, Input.MOVE_RIGHT, Input.MOVE_RIGHT, Input.MOVE_RIGHT, Input.MOVE_RIGHT,
+            Input.MOVE_RIGHT, Input.MOVE_LEFT, Input.MOVE_LEFT, Input.JUMP, Input.JUMP, Input.JUMP,
+            Input.FIRE, Input.BREAK, Input.MUSHROOM, Input.FIRE_FLOWER, Input.STAR, Input.DAMAGE, Input.DAMAGE,
+            Input.SPEED_BOOST, Input.DOUBLE_JUMP, Input.SHIELD, Input.SUPER_STRENGTH,
+            Input.PREVIOUS_LEVEL, Input.NEXT_LEVEL, Input.RESET, Input.RESIZE,
+    };
+
+    public static void main(String[] args) throws IOException {
+        int minutes = args.length > 0 ? Integer.parseInt(args[0]) : 30;
+        long ticks = (long) minutes * 60 * GameLoop.TICKS_PER_SECOND;
+        Path file = Files.createTempFile("mario", ".rec");
+        try {
+            double recordingBytes = measureRecording(file);
+
+            Outcome played = record(file, ticks);
+            System.out.println("game ended at " + played);
+
+            Replay replay = Replay.read(file);
+            double best = 0;
+            for (int run = 0; run < RUNS; run++) {
+                long start = System.nanoTime();
+                Outcome replayed = replay.run();
+                double seconds = (System.nanoTime() - start) / 1e9;
+                if (!replayed.equals(played) || !replay.getExpected().equals(played)) {
+                    System.out.println("FAIL: replay " + (run + 1) + " ended at " + replayed);
+                    System.exit(1);
+                }
+                best = Math.max(best, ticks / seconds);
+            }
+            double speedup = best / GameLoop.TICKS_PER_SECOND;
+            System.out.printf("replay: %,.0f ticks/s, %,.0fx real time, %d of %d runs matched%n",
+                    best, speedup, RUNS, RUNS);
+
+            if (recordingBytes > 0.5) {
+                System.out.println("FAIL: recording an input allocates");
+                System.exit(1);
+            }
+            if (speedup < MIN_SPEEDUP) {
+                System.out.printf("FAIL: replay runs only %.0fx real time%n", speedup);
+                System.exit(1);
+            }
+            System.out.println("OK: every replay ended where the game did, at over 1000x real time");
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    /**
+     * Plays the scripted game as the window would - inputs applied at the start
+     * of a tick, a restart after game over - recording every input.
+     */
+    private static Outcome record(Path file, long ticks) throws IOException {
+        boolean[] gameOver = {false};
+        GameSession session = new GameSession(new GameOutput() {
+            @Override public void addLogMessage(String message, Color color) { }
+            @Override public void updateDisplay() { }
+            @Override public void updateInvincibilityTimer(int timer) { }
+            @Override public void removeDecorator(String decoratorType) { }
+            @Override public void showGameOver() { gameOver[0] = true; }
+            @Override public void createFireEffect(int x, int y, int size) { }
+        });
+        InputRecorder recorder = new InputRecorder(file, session);
+        SplittableRandom random = new SplittableRandom(SEED);
+        long nextInput = 0;
+        int restarts = 0;
+        for (long tick = 0; tick < ticks; tick++) {
+            if (gameOver[0]) {
+                gameOver[0] = false;
+                restarts++;
+                apply(recorder, session, Input.RESTART, 0);
+            }
+            if (tick == nextInput) {
+                Input input = SCRIPT[random.nextInt(SCRIPT.length)];
+                int argument = input == Input.RESIZE ? 600 + random.nextInt(1200) : 0;
+                apply(recorder, session, input, argument);
+                // A few presses a second
+                nextInput = tick + 5 + random.nextInt(60);
+            }
+            session.tick();
+        }
+        Outcome outcome = Outcome.of(session);
+        recorder.close(session);
+
+        long inputs = recorder.getInputs();
+        System.out.printf("recorded %,d inputs and %d restarts: %,d bytes, %.2f bytes/input%n",
+                inputs, restarts, Files.size(file), (double) Files.size(file) / inputs);
+        return outcome;
+    }
+
+    private static void apply(InputRecorder recorder, GameSession session, Input input, int argument) {
+        recorder.record(session.getTick(), input, argument);
+        input.apply(session, argument);
+    }
+
+    /**
+     * The game thread's share of recording: encoding an input, and now and
+     * then handing a full buffer to the writer. A fixed number of inputs, so
+     * the file stays small however fast they go.
+     *
+     * @return bytes allocated per input
+     */
+    private static double measureRecording(Path file) throws IOException {
+        GameSession session = new GameSession(GameOutput.NONE);
+        InputRecorder recorder = new InputRecorder(file, session);
+        long tick = 0;
+        for (int i = 0; i < RECORDED_INPUTS; i++) {
+            recorder.record(tick += 30, Input.MOVE_RIGHT, 0);
+        }
+        long nanos = 0;
+        long bytes = 0;
+        for (int i = 0; i < RECORDED_INPUTS; i += BURST) {
+            long before = Bench.allocatedBytes();
+            long start = System.nanoTime();
+            for (int j = 0; j < BURST; j++) {
+                recorder.record(tick += 30, Input.MOVE_RIGHT, 0);
+            }
+            nanos += System.nanoTime() - start;
+            bytes += Bench.allocatedBytes() - before;
+            // Far faster than anyone presses keys; give the writer time to keep up, as it would in a game
+            LockSupport.parkNanos(1_000_000);
+        }
+        double bytesPerInput = (double) bytes / RECORDED_INPUTS;
+        recorder.close(session);
+        System.out.printf("record an input: %.1f ns, %.2f bytes allocated; %,d inputs in %,d bytes on disk%n",
+                (double) nanos / RECORDED_INPUTS, bytesPerInput, recorder.getInputs(), Files.size(file));
+        return bytesPerInput;
+    }
+}
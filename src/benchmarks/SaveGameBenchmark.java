@@ -0,0 +1,220 @@
+package benchmarks;
+
+import core.GameSession;
+import core.MarioSnapshot;
+import interfaces.GameOutput;
+import level.Block;
+import level.GameObject;
+import level.Level;
+import level.LevelManager;
+import replay.Input;
+import save.SaveGame;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * Saving and loading a game in the middle of everything: Mario invincible on
+ * top of Fire Mario with seconds left, all four decorators part way through
+ * their time, the shield hit once and the double jump waiting to land, and
+ * items collected and blocks broken across the fixed levels and the endless
+ * one. The loaded game is saved again and must give the same bytes; then both
+ * games play on with the same inputs and must stay the same. Reports the
+ * snapshot size and the cost of saving and loading. Exits with status 1 if a
+ * loaded game differs from the saved one, now or later, if a snapshot cut
+ * short loads, if a corrupt one fails with anything but an IOException or
+ * loads a game that throws when played - Mario invincible with no state to
+ * return to, say - or if saving allocates or takes more than a few tens of
+ * microseconds.
+ */
+public class SaveGameBenchmark {
+    private static final double MAX_SAVE_MICROS = 50;
+    private static final int PLAY_ON_TICKS = 30 * 120;
+    private static final long SEED = 11;
+    // Saves before and while checking allocation; the timed runs are too short for the JIT to settle
+    private static final int SAVES = 1_000_000;
+
+    public static void main(String[] args) throws IOException {
+        GameSession session = createGame();
+        SaveGame saveGame = new SaveGame();
+        ByteBuffer saved = copy(saveGame.write(session));
+
+        GameSession loaded = new GameSession(GameOutput.NONE);
+        SaveGame.read(saved.duplicate(), loaded);
+        if (!saveGame.write(loaded).equals(saved)) {
+            System.out.println("FAIL: the loaded game saves differently");
+            System.exit(1);
+        }
+        if (!loaded.getMario().getStateName().equals(session.getMario().getStateName())) {
+            System.out.println("FAIL: loaded " + loaded.getMario().getStateName()
+                    + ", saved " + session.getMario().getStateName());
+            System.exit(1);
+        }
+        System.out.println("saved: " + session.getMario().getStateName());
+        ByteBuffer cut = saved.duplicate();
+        cut.limit(cut.limit() - 5);
+        try {
+            SaveGame.read(cut, new GameSession(GameOutput.NONE));
+            System.out.println("FAIL: a snapshot cut short loaded");
+            System.exit(1);
+        } catch (IOException expected) {
+            // As it should
+        }
+
+        // Every byte corrupted in turn: loading either fails with an IOException, or gives a game that plays
+        for (int i = 0; i < saved.limit(); i++) {
+            ByteBuffer corrupt = copy(saved);
+            corrupt.put(i, (byte) (corrupt.get(i) ^ 0xA5));
+            loadCorrupt(corrupt, "corrupting byte " + i);
+        }
+
+        // States that cannot go together: invincible with nothing to return to, and small with something
+        int marioAt = 8 + 4 + saved.getInt(8) + 4;
+        int kindAt = marioAt + 17; // after x, y, score, lives and facing
+        byte[][] states = {
+                {(byte) MarioSnapshot.Kind.INVINCIBLE.ordinal(), -1},
+                {(byte) MarioSnapshot.Kind.SMALL.ordinal(), (byte) MarioSnapshot.Kind.BIG.ordinal()},
+                {(byte) MarioSnapshot.Kind.BIG.ordinal(), (byte) MarioSnapshot.Kind.INVINCIBLE.ordinal()},
+        };
+        for (byte[] state : states) {
+            ByteBuffer corrupt = copy(saved);
+            corrupt.put(kindAt, state[0]);
+            corrupt.put(kindAt + 1, state[1]);
+            if (loadCorrupt(corrupt, "state " + state[0] + " returning to " + state[1])) {
+                System.out.println("FAIL: state " + state[0] + " returning to " + state[1] + " loaded");
+                System.exit(1);
+            }
+        }
+
+        // Timers and all: both games must go on the same way
+        playOn(session);
+        playOn(loaded);
+        if (!copy(saveGame.write(loaded)).equals(copy(saveGame.write(session)))) {
+            System.out.println("FAIL: the loaded game went on differently");
+            System.exit(1);
+        }
+        System.out.println("after " + PLAY_ON_TICKS + " more ticks, both: " + session.getMario().getStateName());
+
+        GameSession target = new GameSession(GameOutput.NONE);
+        Bench.printHeader(String.format("Snapshot of %,d bytes", saved.remaining()));
+        Bench.Result save = Bench.run("save", () -> saveGame.write(session).remaining());
+        save.print();
+        Bench.Result load = Bench.run("load", 1, () -> {
+            try {
+                SaveGame.read(saved.duplicate(), target);
+            } catch (IOException e) {
+                throw new IllegalStateException(e);
+            }
+            return target.getTick();
+        });
+        load.print();
+        System.out.printf("save %.2f us, load %.2f us%n", 1e6 / save.opsPerSecond, 1e6 / load.opsPerSecond);
+
+        for (int i = 0; i < SAVES; i++) {
+            saveGame.write(session);
+        }
+        long before = Bench.allocatedBytes();
+        for (int i = 0; i < SAVES; i++) {
+            saveGame.write(session);
+        }
+        long allocated = Bench.allocatedBytes() - before;
+        System.out.printf("%,d saves allocated %,d bytes%n", SAVES, allocated);
+        if (allocated > 0) {
+            System.out.println("FAIL: saving allocates");
+            System.exit(1);
+        }
+        if (1e6 / save.opsPerSecond > MAX_SAVE_MICROS) {
+            System.out.println("FAIL: saving takes more than " + MAX_SAVE_MICROS + " us");
+            System.exit(1);
+        }
+        System.out.println("OK: loaded games match their saves, and saving takes microseconds");
+    }
+
+    /**
+     * A game with something in every part of the snapshot.
+     */
+    private static GameSession createGame() {
+        GameSession session = new GameSession(GameOutput.NONE);
+        LevelManager levels = session.getLevelManager();
+        List<GameObject> items = new ArrayList<>();
+        List<Block> blocks = new ArrayList<>();
+        for (int index = 0; index < levels.getTotalLevels(); index++) {
+            Level level = levels.getLevel(index);
+            level.findItems(0, 0, 6_000, 1_000, items);
+            level.findBlocks(0, 0, 6_000, 1_000, blocks);
+            for (int i = 0; i < items.size(); i += 3) {
+                level.collectItem(items.get(i));
+            }
+            for (int i = 0; i < blocks.size(); i += 2) {
+                level.breakBlock(blocks.get(i));
+            }
+        }
+        levels.setCurrentLevelNumber(2);
+
+        Input.FIRE_FLOWER.apply(session);
+        Input.SPEED_BOOST.apply(session);
+        tick(session, 150);
+        Input.STAR.apply(session);
+        Input.SHIELD.apply(session);
+        tick(session, 200);
+        Input.DOUBLE_JUMP.apply(session);
+        Input.SUPER_STRENGTH.apply(session);
+        tick(session, 77);
+        Input.DAMAGE.apply(session);
+        Input.JUMP.apply(session);
+        tick(session, 33);
+        return session;
+    }
+
+    /**
+     * Loads a corrupt snapshot and, if that works, plays the game a little.
+     * Exits with status 1 on anything but an IOException.
+     *
+     * @return whether it loaded
+     */
+    private static boolean loadCorrupt(ByteBuffer corrupt, String what) {
+        GameSession target = new GameSession(GameOutput.NONE);
+        try {
+            SaveGame.read(corrupt, target);
+        } catch (IOException expected) {
+            return false;
+        } catch (RuntimeException e) {
+            System.out.println("FAIL: " + what + " made loading throw " + e);
+            System.exit(1);
+        }
+        try {
+            target.getSnapshot();
+            tick(target, 10);
+        } catch (RuntimeException e) {
+            System.out.println("FAIL: " + what + " loaded a game that throws " + e);
+            System.exit(1);
+        }
+        return true;
+    }
+
+    private static void playOn(GameSession session) {
+        SplittableRandom random = new SplittableRandom(SEED);
+        Input[] inputs = {Input.MOVE_RIGHT, Input.MOVE_LEFT, Input.JUMP, Input.DAMAGE, Input.BREAK, Input.STAR};
+        for (int i = 0; i < PLAY_ON_TICKS; i++) {
+            if (random.nextInt(20) == 0) {
+                inputs[random.nextInt(inputs.length)].apply(session);
+            }
+            session.tick();
+        }
+    }
+
+    private static void tick(GameSession session, int ticks) {
+        for (int i = 0; i < ticks; i++) {
+            session.tick();
+        }
+    }
+
+    private static ByteBuffer copy(ByteBuffer buffer) {
+        ByteBuffer copy = ByteBuffer.allocate(buffer.remaining());
+        copy.put(buffer.duplicate()).flip();
+        return copy;
+    }
+}
@@ -0,0 +1,80 @@
+package benchmarks;
+
+import level.Block;
+import level.FireFlower;
+import level.GameObject;
+import level.Mushroom;
+import level.Star;
+import ui.SpriteCache;
+
+import java.awt.Graphics2D;
+import java.awt.Point;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Cost of drawing a screen full of items and blocks: rendering each one from
+ * primitives, as GameObject.draw does, versus blitting cached sprites.
+ */
+public class SpriteBenchmark {
+    private static final int OBJECTS = 500;
+    private static final int WIDTH = 1200;
+    private static final int HEIGHT = 800;
+
+    public static void main(String[] args) {
+        List<GameObject> objects = randomObjects();
+        BufferedImage image = new BufferedImage(WIDTH, HEIGHT, BufferedImage.TYPE_INT_ARGB);
+        Graphics2D g2d = image.createGraphics();
+        g2d.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+        g2d.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+
+        SpriteCache sprites = new SpriteCache();
+        Map<Class<?>, SpriteCache.Kind<GameObject>> kinds = new HashMap<>();
+        for (GameObject object : objects) {
+            kinds.computeIfAbsent(object.getClass(), c -> sprites.register(8, 20,
+                    object.getWidth() + 16, object.getHeight() + 28,
+                    (g, item, frame) -> item.render(g, 0, 0, frame)));
+        }
+        long[] time = {0};
+
+        Bench.printHeader("Drawing " + OBJECTS + " items and blocks");
+        Bench.run("primitives", 1, () -> {
+            for (int i = 0; i < objects.size(); i++) {
+                objects.get(i).draw(g2d);
+            }
+            return objects.size();
+        }).print();
+        Bench.run("sprite cache", 1, () -> {
+            time[0]++;
+            for (int i = 0; i < objects.size(); i++) {
+                GameObject object = objects.get(i);
+                sprites.draw(g2d, kinds.get(object.getClass()), object,
+                        object.getFrame(time[0]), object.getX(), object.getY());
+            }
+            return objects.size();
+        }).print();
+        System.out.printf("cache: %d sprites, %,d bytes, %,d hits, %d misses%n",
+                sprites.size(), sprites.getBytes(), sprites.getHits(), sprites.getMisses());
+        g2d.dispose();
+    }
+
+    private static List<GameObject> randomObjects() {
+        Random random = new Random(42);
+        List<GameObject> objects = new ArrayList<>();
+        for (int i = 0; i < OBJECTS; i++) {
+            Point position = new Point(random.nextInt(WIDTH - 40), 20 + random.nextInt(HEIGHT - 60));
+            switch (i % 4) {
+                case 0: objects.add(new Mushroom(position)); break;
+                case 1: objects.add(new FireFlower(position)); break;
+                case 2: objects.add(new Star(position)); break;
+                default: objects.add(new Block(position)); break;
+            }
+        }
+        return objects;
+    }
+}
@@ -0,0 +1,58 @@
+package benchmarks;
+
+import core.GameLoop;
+import core.GameSession;
+import core.Mario;
+import interfaces.GameOutput;
+import states.MarioStates;
+
+/**
+ * Mario state transitions through the shared flyweight states: one Mario
+ * cycling Small -> Fire -> Big -> Small, then many Marios in one session, each
+ * ticked and handed a power-up or a hit every simulated second, with stars
+ * running out on their own. Exits with status 1 if a transition allocates.
+ */
+public class StateMachineBenchmark {
+    private static final int MARIOS = 10_000;
+    private static final MarioStates.Event[] CYCLE = {
+            MarioStates.Event.FIRE_FLOWER, MarioStates.Event.DAMAGE, MarioStates.Event.DAMAGE,
+    };
+    private static final MarioStates.Event[] EVENTS = MarioStates.Event.values();
+
+    public static void main(String[] args) {
+        GameSession session = new GameSession(GameOutput.NONE);
+        Mario mario = new Mario(session);
+        int[] step = {0};
+
+        Bench.printHeader("Mario state machine");
+        Bench.Result transitions = Bench.run("transition (table lookup + switch)",
+                () -> mario.transition(CYCLE[step[0]++ % CYCLE.length]) ? 1 : 0);
+        transitions.print();
+
+        Mario[] marios = new Mario[MARIOS];
+        for (int i = 0; i < MARIOS; i++) {
+            marios[i] = new Mario(session);
+        }
+        long[] tick = {0};
+        Bench.run(String.format("%,d Marios, one tick each", MARIOS), 1, () -> {
+            long t = ++tick[0];
+            int changed = 0;
+            for (int i = 0; i < MARIOS; i++) {
+                Mario m = marios[i];
+                // Spread events so about one Mario in TICKS_PER_SECOND gets one each tick
+                if ((t + i) % GameLoop.TICKS_PER_SECOND == 0) {
+                    MarioStates.Event event = EVENTS[(int) ((t / GameLoop.TICKS_PER_SECOND + i) % EVENTS.length)];
+                    if (m.transition(event)) changed++;
+                }
+                m.tick();
+            }
+            return changed;
+        }).print();
+
+        if (transitions.bytesPerOp > 0) {
+            System.out.println("FAIL: a state transition allocates");
+            System.exit(1);
+        }
+        System.out.println("OK: transitions allocate nothing");
+    }
+}
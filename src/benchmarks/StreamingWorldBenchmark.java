@@ -0,0 +1,165 @@
+package benchmarks;
+
+import level.Block;
+import level.Chunk;
+import level.GameObject;
+import level.StreamingLevel;
+import level.WorldGenerator;
+
+import java.awt.Color;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * An endless run through a StreamingLevel: Mario walks right five pixels a
+ * tick, collecting and smashing whatever he meets, while chunks stream in
+ * ahead of him and out behind him. Reports the tick rate, how many chunks
+ * were built and how often the game thread had to build one itself, and the
+ * heap in use along the way. Exits with status 1 if a chunk comes out
+ * differently when built again, if a query far ahead brings chunks into
+ * memory, if two levels walked side by side ever hold different chunks -
+ * whichever generator thread got there first - if the chunks in memory
+ * outgrow the budget, or if the heap grows with the distance travelled.
+ *
+ * Usage: java benchmarks.StreamingWorldBenchmark [chunks]
+ */
+public class StreamingWorldBenchmark {
+    private static final long SEED = 42;
+    private static final int STEP = 5;
+    private static final long HEAP_SLACK = 8L << 20;
+    private static final int LOCKSTEP_CHUNKS = 200;
+
+    private static final MemoryMXBean MEMORY = ManagementFactory.getMemoryMXBean();
+
+    public static void main(String[] args) {
+        int chunks = args.length > 0 ? Integer.parseInt(args[0]) : 20_000;
+        WorldGenerator generator = new WorldGenerator(SEED);
+        if (!sameChunk(generator.generate(12_345), new WorldGenerator(SEED).generate(12_345))) {
+            System.out.println("FAIL: the same seed built a different chunk");
+            System.exit(1);
+        }
+
+        StreamingLevel level = new StreamingLevel("Endless", "", Color.CYAN,
+                generator, StreamingLevel.DEFAULT_BUDGET_BYTES);
+        List<GameObject> items = new ArrayList<>();
+        List<Block> blocks = new ArrayList<>();
+        int[] x = {100};
+
+        checkQueriesReadOnly(generator, items);
+        checkLockstep(generator, items, blocks);
+
+        Bench.printHeader("Endless run");
+        Bench.run("tick: stream + collide", () -> walk(level, x, items, blocks)).print();
+
+        // Then a long run, watching memory
+        level.reset();
+        x[0] = 100;
+        long ticks = (long) chunks * StreamingLevel.CHUNK_WIDTH / STEP;
+        long maxResidentBytes = 0;
+        int maxResidentChunks = 0;
+        long earlyHeap = 0;
+        long start = System.nanoTime();
+        for (long tick = 1; tick <= ticks; tick++) {
+            walk(level, x, items, blocks);
+            maxResidentBytes = Math.max(maxResidentBytes, level.getResidentBytes());
+            maxResidentChunks = Math.max(maxResidentChunks, level.getResidentChunks());
+            if (tick == ticks / 10) earlyHeap = usedHeap();
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+        long lateHeap = usedHeap();
+
+        System.out.printf("%,d chunks (%,d px) in %.1f s, %,.0f ticks/s%n",
+                chunks, x[0], seconds, ticks / seconds);
+        System.out.printf("chunks built %,d, built by the game thread %,d%n",
+                level.getGeneratedChunks(), level.getStalls());
+        System.out.printf("resident at most %d chunks, %,d of %,d budget bytes%n",
+                maxResidentChunks, maxResidentBytes, level.getBudgetBytes());
+        System.out.printf("heap in use at 10%%: %,d KB, at the end: %,d KB%n", earlyHeap >> 10, lateHeap >> 10);
+
+        // The chunks around Mario are kept whatever the budget, so allow a few over
+        if (maxResidentBytes > level.getBudgetBytes() + 64 * 1024) {
+            System.out.println("FAIL: resident chunks outgrew the budget");
+            System.exit(1);
+        }
+        if (lateHeap > earlyHeap + HEAP_SLACK) {
+            System.out.println("FAIL: heap grew with distance travelled");
+            System.exit(1);
+        }
+        System.out.println("OK: memory stays flat however far Mario runs");
+    }
+
+    private static long walk(StreamingLevel level, int[] x, List<GameObject> items, List<Block> blocks) {
+        int marioX = x[0] += STEP;
+        level.update(marioX);
+        level.findItems(marioX, 360, 40, 80, items);
+        for (int i = 0; i < items.size(); i++) {
+            level.collectItem(items.get(i));
+        }
+        level.findBlocks(marioX, 360, 40, 80, blocks);
+        for (int i = 0; i < blocks.size(); i++) {
+            level.breakBlock(blocks.get(i));
+        }
+        return items.size() + blocks.size();
+    }
+
+    /**
+     * Looking far ahead of where the level has been updated finds nothing and loads nothing.
+     */
+    private static void checkQueriesReadOnly(WorldGenerator generator, List<GameObject> items) {
+        StreamingLevel level = new StreamingLevel("Endless", "", Color.CYAN,
+                generator, StreamingLevel.DEFAULT_BUDGET_BYTES);
+        level.update(100);
+        int chunks = level.getResidentChunks();
+        long generated = level.getGeneratedChunks();
+        int modCount = level.getModCount();
+        level.findItems(100 * StreamingLevel.CHUNK_WIDTH, 0, 2_000, 1_000, items);
+        if (!items.isEmpty() || level.getResidentChunks() != chunks
+                || level.getGeneratedChunks() != generated || level.getModCount() != modCount) {
+            System.out.println("FAIL: a query past the chunks in memory loaded chunks");
+            System.exit(1);
+        }
+    }
+
+    /**
+     * Two levels walked the same way, their chunks built by whichever thread
+     * gets there first, must hold the same chunks at every tick.
+     */
+    private static void checkLockstep(WorldGenerator generator, List<GameObject> items, List<Block> blocks) {
+        StreamingLevel a = new StreamingLevel("Endless", "", Color.CYAN, generator, 64 * 1024);
+        StreamingLevel b = new StreamingLevel("Endless", "", Color.CYAN, generator, 64 * 1024);
+        int[] xa = {100};
+        int[] xb = {100};
+        long ticks = (long) LOCKSTEP_CHUNKS * StreamingLevel.CHUNK_WIDTH / STEP;
+        for (long tick = 1; tick <= ticks; tick++) {
+            walk(a, xa, items, blocks);
+            walk(b, xb, items, blocks);
+            if (a.getResidentChunks() != b.getResidentChunks() || a.getResidentBytes() != b.getResidentBytes()
+                    || a.getGeneratedChunks() != b.getGeneratedChunks() || a.getModCount() != b.getModCount()) {
+                System.out.println("FAIL: two levels walked the same way hold different chunks at tick " + tick);
+                System.exit(1);
+            }
+        }
+    }
+
+    private static long usedHeap() {
+        System.gc();
+        return MEMORY.getHeapMemoryUsage().getUsed();
+    }
+
+    private static boolean sameChunk(Chunk a, Chunk b) {
+        return samePlaces(a.getItems(), b.getItems()) && samePlaces(a.getBlocks(), b.getBlocks());
+    }
+
+    private static boolean samePlaces(List<? extends GameObject> a, List<? extends GameObject> b) {
+        if (a.size() != b.size()) return false;
+        for (int i = 0; i < a.size(); i++) {
+            if (a.get(i).getClass() != b.get(i).getClass() || a.get(i).getX() != b.get(i).getX()
+                    || a.get(i).getY() != b.get(i).getY()) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
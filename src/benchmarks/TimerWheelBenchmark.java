@@ -0,0 +1,90 @@
+package benchmarks;
+
+import core.TimerWheel;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the shared TimerWheel with the old one-thread-pool-per-power-up approach.
+ * Prints live thread count and scheduling cost as the number of concurrent power-ups grows.
+ */
+public class TimerWheelBenchmark {
+    private static final int[] POWER_UPS = {10, 100, 1_000, 10_000, 100_000};
+    private static final int LEGACY_LIMIT = 1_000; // more platform threads than this is not worth trying
+
+    public static void main(String[] args) throws InterruptedException {
+        System.out.println("=".repeat(72));
+        System.out.printf("%10s | %10s %12s %14s | %10s %12s%n",
+                "power-ups", "wheel thr", "ns/schedule", "ns/expiry", "pool thr", "ns/schedule");
+        System.out.println("-".repeat(72));
+
+        // Warm up the JIT so the first row is not dominated by interpretation
+        runWheel(100_000);
+
+        for (int n : POWER_UPS) {
+            long[] wheel = runWheel(n);
+            String legacy = n <= LEGACY_LIMIT ? formatLegacy(runLegacy(n)) : String.format("%10s %12s", "-", "-");
+            System.out.printf("%10d | %10d %12d %14d | %s%n", n, wheel[0], wheel[1], wheel[2], legacy);
+        }
+        System.out.println("=".repeat(72));
+    }
+
+    /**
+     * Schedules n power-up style timers (1 s fixed rate, like the decorators) and
+     * simulates 10 s of game time. Returns {threads, ns per schedule, ns per expiry}.
+     */
+    private static long[] runWheel(int n) {
+        TimerWheel wheel = new TimerWheel();
+        int[] fired = {0};
+        TimerWheel.Timeout[] timeouts = new TimerWheel.Timeout[n];
+
+        long start = System.nanoTime();
+        for (int i = 0; i < n; i++) {
+            timeouts[i] = wheel.scheduleAtFixedRate(() -> fired[0]++, 1 + i % 1000, 1000, TimeUnit.MILLISECONDS);
+        }
+        long scheduleNanos = System.nanoTime() - start;
+        int threads = Thread.activeCount();
+
+        start = System.nanoTime();
+        for (long ms = 1; ms <= 10_000; ms++) {
+            wheel.advanceTo(ms);
+        }
+        long advanceNanos = System.nanoTime() - start;
+
+        for (TimerWheel.Timeout timeout : timeouts) {
+            timeout.cancel();
+        }
+        wheel.advanceTo(wheel.getCurrentTime() + 1000);
+
+        return new long[]{threads, scheduleNanos / n, advanceNanos / Math.max(1, fired[0])};
+    }
+
+    /**
+     * The previous approach: one single-threaded scheduled pool per active power-up.
+     * Returns {threads, ns per schedule}.
+     */
+    private static long[] runLegacy(int n) throws InterruptedException {
+        ScheduledExecutorService[] pools = new ScheduledExecutorService[n];
+        long start = System.nanoTime();
+        for (int i = 0; i < n; i++) {
+            pools[i] = Executors.newScheduledThreadPool(1);
+            pools[i].scheduleAtFixedRate(() -> { }, 1, 1, TimeUnit.SECONDS);
+        }
+        long scheduleNanos = System.nanoTime() - start;
+        int threads = Thread.activeCount();
+
+        for (ScheduledExecutorService pool : pools) {
+            pool.shutdownNow();
+        }
+        for (ScheduledExecutorService pool : pools) {
+            pool.awaitTermination(1, TimeUnit.SECONDS);
+        }
+        return new long[]{threads, scheduleNanos / n};
+    }
+
+    private static String formatLegacy(long[] result) {
+        return String.format("%10d %12d", result[0], result[1]);
+    }
+}
@@ -0,0 +1,110 @@
+package benchmarks;
+
+import core.GameSession;
+import interfaces.GameOutput;
+import level.Block;
+import level.FireFlower;
+import level.GameObject;
+import level.Level;
+import level.LevelManager;
+import level.Mushroom;
+import level.Star;
+import ui.GamePanel;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.Point;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.util.List;
+
+/**
+ * Frame cost against level size, with the camera in the middle of levels
+ * from a thousand to a million objects. Rendering finds what is in view
+ * through the level's index; for comparison, the time just to test every
+ * object against the view, as drawing the whole level used to need at the
+ * least. Exits with status 1 if a frame of the largest level costs much more
+ * than a frame of the smallest.
+ *
+ * Usage: java benchmarks.ViewportCullingBenchmark [maxObjects]
+ */
+public class ViewportCullingBenchmark {
+    private static final int WIDTH = 1200;
+    private static final int HEIGHT = 800;
+    private static final int[] SIZES = {1_000, 10_000, 100_000, 1_000_000};
+
+    public static void main(String[] args) {
+        int maxObjects = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        BufferedImage image = new BufferedImage(WIDTH, HEIGHT, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g2d = image.createGraphics();
+        g2d.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+        g2d.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+
+        double smallest = 0;
+        double largest = 0;
+        for (int objects : SIZES) {
+            if (objects > maxObjects) break;
+            Level level = createLevel(objects);
+            GameSession session = new GameSession(GameOutput.NONE, WIDTH, new LevelManager(List.of(level)));
+            session.getMario().setPosition(level.getWidth() / 2, 400);
+            GamePanel panel = new GamePanel(session);
+            panel.setSize(WIDTH, HEIGHT);
+            panel.simulate(1);
+
+            Bench.printHeader(String.format("%,d objects, %,d px wide, view at x=%,d",
+                    objects, level.getWidth(), panel.getCamera().getX()));
+            Bench.Result render = Bench.run("render frame (indexed culling)", 1, () -> {
+                panel.render(g2d);
+                return panel.getWidth();
+            });
+            render.print();
+            int viewX = panel.getCamera().getX();
+            Bench.run("test every object against the view", 1,
+                    () -> countInView(level, viewX)).print();
+
+            if (smallest == 0) smallest = render.opsPerSecond;
+            largest = render.opsPerSecond;
+        }
+        g2d.dispose();
+
+        if (largest < smallest / 2) {
+            System.out.println("FAIL: frame cost grows with level size");
+            System.exit(1);
+        }
+        System.out.printf("OK: largest level renders at %.0f%% of the smallest's frame rate%n",
+                100 * largest / smallest);
+    }
+
+    /**
+     * Items and blocks in four rows, an object every ten pixels of width.
+     */
+    private static Level createLevel(int objects) {
+        Level level = new Level("Culling", "", new Color(135, 206, 250));
+        for (int i = 0; i < objects; i++) {
+            Point position = new Point(i / 4 * 40, 340 + i % 4 * 30);
+            if (i % 2 == 0) {
+                level.addBlock(new Block(position));
+            } else if (i % 6 == 1) {
+                level.addItem(new Mushroom(position));
+            } else if (i % 6 == 3) {
+                level.addItem(new FireFlower(position));
+            } else {
+                level.addItem(new Star(position));
+            }
+        }
+        return level;
+    }
+
+    private static long countInView(Level level, int viewX) {
+        long visible = 0;
+        List<GameObject> items = level.getItems();
+        for (int i = 0; i < items.size(); i++) {
+            if (items.get(i).intersects(viewX, 0, WIDTH, HEIGHT)) visible++;
+        }
+        List<Block> blocks = level.getBlocks();
+        for (int i = 0; i < blocks.size(); i++) {
+            if (blocks.get(i).intersects(viewX, 0, WIDTH, HEIGHT)) visible++;
+        }
+        return visible;
+    }
+}
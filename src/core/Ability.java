@@ -0,0 +1,38 @@
+package core;
+
+/**
+ * Temporary abilities granted by the decorators. Each has one bit in the
+ * capability mask that the core Mario keeps, so asking whether any component
+ * of a decorator chain has an ability is a single bit test.
+ */
+public enum Ability {
+    SPEED_BOOST("Speed Boost"),
+    DOUBLE_JUMP("Double Jump"),
+    SHIELD("Shield"),
+    SUPER_STRENGTH("Super Strength");
+
+    private static final Ability[] VALUES = values();
+
+    private final String displayName;
+    private final long mask;
+
+    Ability(String displayName) {
+        this.displayName = displayName;
+        this.mask = 1L << ordinal();
+    }
+
+    public String getDisplayName() { return displayName; }
+
+    /** This ability's bit in a capability mask */
+    public long mask() { return mask; }
+
+    /**
+     * The ability with the given display name, or null if there is none.
+     */
+    public static Ability fromDisplayName(String displayName) {
+        for (Ability ability : VALUES) {
+            if (ability.displayName.equals(displayName)) return ability;
+        }
+        return null;
+    }
+}
@@ -0,0 +1,114 @@
+package core;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Fixed-timestep game loop.
+ * The simulation always advances in steps of exactly {@link #TICK_NANOS}; rendering
+ * happens once per frame at whatever rate the driver calls {@link #frame(long)}.
+ * Input is queued and applied at the start of the next tick. The loop has no
+ * notion of threads or UI; the Swing window drives it from a timer, while
+ * headless runs can call {@link #step()} as fast as they like.
+ */
+public class GameLoop {
+    public static final int TICKS_PER_SECOND = 120;
+    public static final long TICK_NANOS = 1_000_000_000L / TICKS_PER_SECOND;
+    // Never simulate more than this many ticks per frame; the rest is dropped
+    private static final int MAX_TICKS_PER_FRAME = 12;
+
+    /**
+     * One fixed step of game logic (physics, collisions, effects, timers).
+     */
+    public interface Simulation {
+        void tick(long tick);
+    }
+
+    private final Simulation simulation;
+    private final Runnable renderer;
+    private final Queue<Runnable> input;
+
+    private long tick;
+    private long accumulator;
+    private long lastFrameTime = -1;
+
+    // Statistics
+    private long frames;
+    private long droppedTicks;
+    private long lastTickNanos;
+    private long maxTickNanos;
+    private double averageTickNanos;
+
+    public GameLoop(Simulation simulation, Runnable renderer) {
+        this.simulation = simulation;
+        this.renderer = renderer;
+        this.input = new ConcurrentLinkedQueue<>();
+    }
+
+    /**
+     * Queues an input action to run at the start of the next tick.
+     */
+    public void post(Runnable action) {
+        input.add(action);
+    }
+
+    /**
+     * Called by the driver once per rendered frame with the current time.
+     * Runs as many fixed ticks as have elapsed, then renders.
+     */
+    public void frame(long nowNanos) {
+        if (lastFrameTime < 0) {
+            lastFrameTime = nowNanos;
+        }
+        accumulator += nowNanos - lastFrameTime;
+        lastFrameTime = nowNanos;
+
+        int ticksThisFrame = 0;
+        while (accumulator >= TICK_NANOS) {
+            if (ticksThisFrame == MAX_TICKS_PER_FRAME) {
+                // Spiral of death: give up on the backlog rather than fall further behind
+                droppedTicks += accumulator / TICK_NANOS;
+                accumulator %= TICK_NANOS;
+                break;
+            }
+            step();
+            accumulator -= TICK_NANOS;
+            ticksThisFrame++;
+        }
+
+        frames++;
+        renderer.run();
+    }
+
+    /**
+     * Runs exactly one simulation tick.
+     */
+    public void step() {
+        long start = System.nanoTime();
+
+        Runnable action;
+        while ((action = input.poll()) != null) {
+            action.run();
+        }
+        tick++;
+        simulation.tick(tick);
+
+        lastTickNanos = System.nanoTime() - start;
+        maxTickNanos = Math.max(maxTickNanos, lastTickNanos);
+        averageTickNanos = averageTickNanos == 0 ? lastTickNanos : averageTickNanos * 0.95 + lastTickNanos * 0.05;
+    }
+
+    /**
+     * Milliseconds of game time simulated so far.
+     */
+    public long getSimulationTime() {
+        return tick * 1000 / TICKS_PER_SECOND;
+    }
+
+    public long getTick() { return tick; }
+    public long getFrames() { return frames; }
+    public long getDroppedTicks() { return droppedTicks; }
+    public long getLastTickNanos() { return lastTickNanos; }
+    public long getMaxTickNanos() { return maxTickNanos; }
+    public double getAverageTickNanos() { return averageTickNanos; }
+}
@@ -0,0 +1,233 @@
+package core;
+
+import interfaces.GameOutput;
+import interfaces.MarioComponent;
+import level.Block;
+import level.FireFlower;
+import level.GameObject;
+import level.Level;
+import level.LevelManager;
+import level.Mushroom;
+import level.Star;
+
+import java.awt.Color;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * One running game, independent of any UI.
+ * Owns Mario (and the decorator chain on top of him), the levels, the power-up
+ * timers and the jump/collision logic. Everything visible goes to the GameOutput,
+ * so a session runs the same inside the Swing window or headless in a batch job.
+ */
+public class GameSession {
+    public static final int DEFAULT_WORLD_WIDTH = 800;
+
+    private final GameOutput output;
+    private final LevelManager levelManager;
+    private TimerWheel timers;
+    private Mario core;
+    private MarioComponent mario;
+    private MarioSnapshot snapshot;
+    private MarioComponent snapshotMario;
+    private int snapshotModCount;
+    private int worldWidth;
+    private long tick;
+    // Reused for every collision query
+    private final List<GameObject> nearbyItems = new ArrayList<>();
+    private final List<Block> nearbyBlocks = new ArrayList<>();
+
+    // Jump arc, purely visual: 10 frames of 50 ms up, 10 down
+    private boolean isJumping;
+    private int jumpTicks;
+    private int jumpOffset;
+
+    public GameSession(GameOutput output) {
+        this(output, DEFAULT_WORLD_WIDTH);
+    }
+
+    public GameSession(GameOutput output, int worldWidth) {
+        this(output, worldWidth, new LevelManager());
+    }
+
+    public GameSession(GameOutput output, int worldWidth, LevelManager levelManager) {
+        this.output = output;
+        this.worldWidth = worldWidth;
+        this.levelManager = levelManager;
+        this.timers = new TimerWheel(0, this::timerFailed);
+        this.core = new Mario(this);
+        this.mario = core;
+    }
+
+    /**
+     * Advances the session by one fixed GameLoop tick.
+     */
+    public void tick() {
+        tick++;
+        updateJump();
+        mario.update();
+        core.tick();
+        levelManager.getCurrentLevel().update(mario.getX());
+        timers.advanceTo(getSimulationTime());
+    }
+
+    public void startJump() {
+        if (!isJumping) {
+            isJumping = true;
+            jumpTicks = 0;
+        }
+    }
+
+    private void updateJump() {
+        if (!isJumping) return;
+        jumpTicks++;
+        int frame = (int) (jumpTicks * 1000L / GameLoop.TICKS_PER_SECOND / 50);
+        if (frame <= 10) {
+            jumpOffset = frame * 3; // Going up
+        } else if (frame <= 20) {
+            jumpOffset = (20 - frame) * 3; // Going down
+        } else {
+            jumpOffset = 0;
+            isJumping = false;
+        }
+    }
+
+    public void checkCollisions() {
+        Level currentLevel = levelManager.getCurrentLevel();
+        int x = mario.getX();
+        int y = mario.getY();
+        int width = mario.getWidth();
+        int height = mario.getHeight();
+
+        // Check item collisions
+        currentLevel.findItems(x, y, width, height, nearbyItems);
+        for (int i = 0; i < nearbyItems.size(); i++) {
+            GameObject item = nearbyItems.get(i);
+            if (item.checkCollision(x, y, width, height)) {
+                currentLevel.collectItem(item);
+                if (item instanceof Mushroom) {
+                    mario.collectMushroom();
+                } else if (item instanceof FireFlower) {
+                    mario.collectFireFlower();
+                } else if (item instanceof Star) {
+                    mario.collectStar();
+                }
+            }
+        }
+
+        // Check block collisions for breaking
+        currentLevel.findBlocks(x, y, width, height, nearbyBlocks);
+        for (int i = 0; i < nearbyBlocks.size(); i++) {
+            Block block = nearbyBlocks.get(i);
+            if (block.checkCollision(x, y, width, height) && !block.isBroken()) {
+                if (mario.canBreakBlocks()) {
+                    currentLevel.breakBlock(block);
+                    output.addLogMessage("🧱💥 Block broken!", Color.ORANGE);
+                    mario.addScore(25);
+                    if (mario.hasAbility(Ability.SUPER_STRENGTH)) {
+                        output.addLogMessage("💪 SUPER STRENGTH bonus!", Color.MAGENTA);
+                        mario.addScore(75);
+                        output.createFireEffect(x + 20, y, 8);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Starts over with a fresh Small Mario on the current level; pending power-up
+     * timers from the old Mario are dropped with their wheel.
+     */
+    public void reset() {
+        resetMario();
+        levelManager.resetCurrentLevel();
+    }
+
+    /**
+     * Starts a new game, as after game over: a fresh Small Mario back on the
+     * first level, with every level as new. Levels already loaded are reset
+     * in place rather than built again.
+     */
+    public void restart() {
+        resetMario();
+        levelManager.restart();
+    }
+
+    /**
+     * Writes the session's own fields for a saved game: long tick, int
+     * worldWidth, byte jumping, int jumpTicks, int jumpOffset.
+     */
+    public void save(ByteBuffer out) {
+        out.putLong(tick);
+        out.putInt(worldWidth);
+        out.put((byte) (isJumping ? 1 : 0));
+        out.putInt(jumpTicks);
+        out.putInt(jumpOffset);
+    }
+
+    /**
+     * Takes back the fields {@link #save} wrote and starts a fresh Mario at
+     * that point in game time, with no power-up timers pending, for the saved
+     * Mario and his decorators to be loaded into.
+     */
+    public void load(ByteBuffer in) {
+        tick = in.getLong();
+        worldWidth = in.getInt();
+        resetMario();
+        isJumping = in.get() != 0;
+        jumpTicks = in.getInt();
+        jumpOffset = in.getInt();
+    }
+
+    private void resetMario() {
+        timers.stop();
+        timers = new TimerWheel(getSimulationTime(), this::timerFailed);
+        core = new Mario(this);
+        mario = core;
+        isJumping = false;
+        jumpOffset = 0;
+    }
+
+    /**
+     * A power-up or state timer threw; the game goes on, and the log says so.
+     */
+    private void timerFailed(Thread thread, Throwable e) {
+        output.addLogMessage("❌ Timer failed: " + e, Color.RED);
+    }
+
+    /**
+     * Milliseconds of game time simulated by this session.
+     */
+    public long getSimulationTime() {
+        return tick * 1000 / GameLoop.TICKS_PER_SECOND;
+    }
+
+    /**
+     * What the HUD shows about Mario, rebuilt only when the core Mario reports
+     * a change or a decorator was added or removed since the last call.
+     */
+    public MarioSnapshot getSnapshot() {
+        if (snapshot == null || snapshotMario != mario || snapshotModCount != core.getModCount()) {
+            snapshot = new MarioSnapshot(mario, core);
+            snapshotMario = mario;
+            snapshotModCount = core.getModCount();
+        }
+        return snapshot;
+    }
+
+    /** Outermost component - Mario with all active decorators */
+    public MarioComponent getMario() { return mario; }
+    public void setMario(MarioComponent mario) { this.mario = mario; }
+    /** The undecorated Mario at the bottom of the chain */
+    public Mario getCore() { return core; }
+    public GameOutput getOutput() { return output; }
+    public TimerWheel getTimers() { return timers; }
+    public LevelManager getLevelManager() { return levelManager; }
+    /** How far right Mario may go: the window, or the level if it is wider */
+    public int getWorldWidth() { return Math.max(worldWidth, levelManager.getCurrentLevel().getWidth()); }
+    /** Sets the width of the window onto the world */
+    public void setWorldWidth(int worldWidth) { this.worldWidth = worldWidth; }
+    public int getJumpOffset() { return jumpOffset; }
+    public long getTick() { return tick; }
+}
@@ -3,11 +3,11 @@ package core;
 import interfaces.MarioComponent;
 import states.FireMario;
 import states.MarioState;
-import states.SmallMario;
-import ui.GameFrame;
+import states.MarioStates;
 
 import java.awt.Point;
 import java.awt.Color;
+import java.nio.ByteBuffer;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -15,16 +15,31 @@ import java.util.List;
  * Main Mario class - Context for State Pattern, Component for Decorator Pattern
  */
 public class Mario implements MarioComponent {
+    public static final int SIZE = 40;
+
+    private final GameSession session;
     private MarioState currentState;
-    private Point position;
+    // Per-Mario data of a temporary state; the shared state objects hold none
+    private MarioState returnState;
+    private int stateSeconds;
+    private int stateTicks;
+    private int x, y;
     private int score;
     protected int lives;
     private List<String> abilities;
+    // Abilities granted by the decorators wrapping this Mario
+    private long capabilities;
+    // Newest active decorator granting each ability, by ordinal
+    private final MarioComponent[] layers = new MarioComponent[Ability.values().length];
+    // Bumped whenever anything a MarioSnapshot records changes
+    private int modCount;
     private int facingDirection = 1; // 1 for right, -1 for left
 
-    public Mario() {
-        this.currentState = new SmallMario(this);
-        this.position = new Point(100, 400);
+    public Mario(GameSession session) {
+        this.session = session;
+        this.currentState = MarioStates.SMALL;
+        this.x = 100;
+        this.y = 400;
         this.score = 0;
         this.lives = 3;
         this.abilities = new ArrayList<>();
@@ -32,66 +47,170 @@ public class Mario implements MarioComponent {
 
     public void setState(MarioState state) {
         this.currentState = state;
+        modCount++;
     }
 
     public MarioState getState() {
         return currentState;
     }
 
+    /**
+     * Applies {@code event} through the state transition table.
+     *
+     * @return false if the event leaves the state unchanged
+     */
+    public boolean transition(MarioStates.Event event) {
+        MarioState next = MarioStates.next(currentState, event);
+        if (next == null) return false;
+        MarioState previous = currentState;
+        setState(next);
+        next.enter(this, previous);
+        return true;
+    }
+
+    /**
+     * Starts the countdown of a temporary state that returns to {@code returnState}.
+     */
+    public void beginTemporaryState(MarioState returnState, int seconds) {
+        this.returnState = returnState;
+        this.stateSeconds = seconds;
+        this.stateTicks = 0;
+        modCount++;
+    }
+
+    /**
+     * Leaves the temporary state for the one it was entered from, which is returned.
+     */
+    public MarioState endTemporaryState() {
+        MarioState previous = returnState;
+        returnState = null;
+        stateSeconds = 0;
+        setState(previous);
+        return previous;
+    }
+
+    /** The state a temporary state returns to, null when not in one */
+    public MarioState getReturnState() { return returnState; }
+
+    public int getStateSeconds() { return stateSeconds; }
+
+    public void setStateSeconds(int seconds) {
+        this.stateSeconds = seconds;
+        modCount++;
+    }
+
+    /**
+     * Advances a temporary state's countdown by one simulation tick.
+     */
+    public void tick() {
+        if (returnState != null && ++stateTicks == GameLoop.TICKS_PER_SECOND) {
+            stateTicks = 0;
+            currentState.onSecond(this);
+        }
+    }
+
     @Override
     public void jump() {
-        currentState.jump();
-        GameFrame.getInstance().getGamePanel().performJumpAnimation();
+        currentState.jump(this);
+        session.startJump();
     }
 
     @Override
     public void move(int direction) {
         facingDirection = direction;
-        currentState.move(direction);
+        currentState.move(this, direction);
     }
 
     @Override
-    public void takeDamage() { currentState.takeDamage(); }
+    public void takeDamage() { currentState.takeDamage(this); }
     @Override
-    public void collectMushroom() { currentState.collectMushroom(); }
+    public void collectMushroom() { currentState.collectMushroom(this); }
     @Override
-    public void collectFireFlower() { currentState.collectFireFlower(); }
+    public void collectFireFlower() { currentState.collectFireFlower(this); }
     @Override
-    public void collectStar() { currentState.collectStar(); }
+    public void collectStar() { currentState.collectStar(this); }
     @Override
-    public String getStateName() { return currentState.getStateName(); }
+    public String getStateName() { return currentState.getStateName(this); }
     @Override
     public String getStateEmoji() { return currentState.getStateEmoji(); }
     @Override
     public boolean canBreakBlocks() { return currentState.canBreakBlocks(); }
     @Override
-    public boolean canShootFire() { return currentState.canShootFire(); }
+    public boolean canShootFire() { return currentState.canShootFire(this); }
 
     @Override
     public int getScore() { return score; }
     @Override
-    public void addScore(int points) { this.score += points; }
+    public void addScore(int points) {
+        this.score += points;
+        modCount++;
+    }
     @Override
-    public boolean hasAbility(String ability) { return abilities.contains(ability); }
+    public boolean hasAbility(Ability ability) { return (capabilities & ability.mask()) != 0; }
+    @Override
+    public long getCapabilities() { return capabilities; }
     @Override
     public List<String> getAbilities() { return new ArrayList<>(abilities); }
     @Override
     public int getLives() { return lives; }
     @Override
-    public void setLives(int lives) {  this.lives = lives; }
+    public void setLives(int lives) {
+        this.lives = lives;
+        modCount++;
+    }
+    @Override
+    public Point getPosition() { return new Point(x, y); }
+    @Override
+    public void setPosition(Point position) { setPosition(position.x, position.y); }
     @Override
-    public Point getPosition() { return new Point(position); }
+    public int getX() { return x; }
     @Override
-    public void setPosition(Point position) { this.position = position; }
+    public int getY() { return y; }
+    @Override
+    public int getWidth() { return SIZE; }
+    @Override
+    public int getHeight() { return SIZE; }
+    @Override
+    public void setPosition(int x, int y) {
+        this.x = x;
+        this.y = y;
+    }
 
     public void shootFire() {
         if (currentState instanceof FireMario) {
-            ((FireMario) currentState).shootFire();
+            ((FireMario) currentState).shootFire(this);
+        } else {
+            session.getOutput().addLogMessage("❌ Cannot shoot fire in current state!", Color.RED);
+        }
+    }
+
+    /**
+     * The newest active decorator granting {@code ability}, or null if Mario lacks it.
+     */
+    public MarioComponent getLayer(Ability ability) { return layers[ability.ordinal()]; }
+
+    /**
+     * Records the newest decorator granting {@code ability}; null takes the ability away.
+     * Maintained by the decorators as they are applied and removed.
+     */
+    public void setLayer(Ability ability, MarioComponent layer) {
+        layers[ability.ordinal()] = layer;
+        if (layer != null) {
+            capabilities |= ability.mask();
         } else {
-            GameFrame.getInstance().addLogMessage("❌ Cannot shoot fire in current state!", Color.RED);
+            capabilities &= ~ability.mask();
         }
+        modCount++;
     }
 
+    /**
+     * Records a change to something shown about Mario that he does not hold himself,
+     * such as a state or decorator timer.
+     */
+    public void changed() { modCount++; }
+
+    public int getModCount() { return modCount; }
+
     public Color getStateColor() {
         return currentState.getStateColor();
     }
@@ -100,9 +219,63 @@ public class Mario implements MarioComponent {
         return facingDirection;
     }
 
+    /**
+     * Writes Mario's own fields for a saved game: int x, int y, int score,
+     * int lives, byte facing, byte state kind, byte kind of the state a
+     * temporary state returns to (-1 for none), int seconds and int ticks
+     * into that state's countdown. His abilities are saved with the decorators.
+     */
+    public void save(ByteBuffer out) {
+        out.putInt(x);
+        out.putInt(y);
+        out.putInt(score);
+        out.putInt(lives);
+        out.put((byte) facingDirection);
+        out.put((byte) currentState.getKind().ordinal());
+        out.put((byte) (returnState != null ? returnState.getKind().ordinal() : -1));
+        out.putInt(stateSeconds);
+        out.putInt(stateTicks);
+    }
+
+    /**
+     * Takes back the fields {@link #save} wrote, without running any state's entry.
+     *
+     * @throws IllegalArgumentException if the states do not fit together: only
+     *         an invincible Mario has a state to return to, and it is never invincible
+     */
+    public void load(ByteBuffer in) {
+        int x = in.getInt();
+        int y = in.getInt();
+        int score = in.getInt();
+        int lives = in.getInt();
+        byte facing = in.get();
+        MarioSnapshot.Kind kind = MarioSnapshot.Kind.values()[in.get()];
+        byte returnKind = in.get();
+        MarioSnapshot.Kind returnTo = returnKind >= 0 ? MarioSnapshot.Kind.values()[returnKind] : null;
+        if ((kind == MarioSnapshot.Kind.INVINCIBLE) != (returnTo != null) || returnTo == MarioSnapshot.Kind.INVINCIBLE) {
+            throw new IllegalArgumentException("Saved state " + kind + " cannot return to " + returnTo);
+        }
+        int seconds = in.getInt();
+        int ticks = in.getInt();
+
+        this.x = x;
+        this.y = y;
+        this.score = score;
+        this.lives = lives;
+        facingDirection = facing;
+        currentState = MarioStates.of(kind);
+        returnState = returnTo != null ? MarioStates.of(returnTo) : null;
+        stateSeconds = seconds;
+        stateTicks = ticks;
+        modCount++;
+    }
+
+    @Override
+    public GameSession getSession() { return session; }
+
     @Override
     public void update() {
         // Check collisions continuously
-        GameFrame.getInstance().getGamePanel().checkCollisions();
+        session.checkCollisions();
     }
 }
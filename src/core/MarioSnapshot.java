@@ -0,0 +1,61 @@
+package core;
+
+import interfaces.MarioComponent;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Immutable view of everything the HUD shows about Mario: his state, the
+ * abilities held, timers, score and lives. GameSession builds a new one only
+ * after something it records has changed, so displays can read it as often
+ * as they like instead of asking the decorator chain, which builds strings
+ * on every call, and parsing the answers.
+ */
+public final class MarioSnapshot {
+    public enum Kind { SMALL, BIG, FIRE, INVINCIBLE }
+
+    private final Kind kind;
+    private final Kind baseKind;
+    private final int invincibleSeconds;
+    private final long capabilities;
+    private final int score;
+    private final int lives;
+    private final boolean canBreakBlocks;
+    private final boolean canShootFire;
+    private final String stateName;
+    private final String stateEmoji;
+    private final List<String> abilities;
+
+    MarioSnapshot(MarioComponent mario, Mario core) {
+        this.kind = core.getState().getKind();
+        this.baseKind = core.getReturnState() != null ? core.getReturnState().getKind() : kind;
+        this.invincibleSeconds = kind == Kind.INVINCIBLE ? core.getStateSeconds() : 0;
+        this.capabilities = mario.getCapabilities();
+        this.score = mario.getScore();
+        this.lives = mario.getLives();
+        this.canBreakBlocks = mario.canBreakBlocks();
+        this.canShootFire = mario.canShootFire();
+        this.stateName = mario.getStateName();
+        this.stateEmoji = mario.getStateEmoji();
+        this.abilities = Collections.unmodifiableList(mario.getAbilities());
+    }
+
+    public Kind getKind() { return kind; }
+    /** The state beneath invincibility, or the state itself */
+    public Kind getBaseKind() { return baseKind; }
+    public boolean isInvincible() { return kind == Kind.INVINCIBLE; }
+    /** Seconds of invincibility left, 0 when not invincible */
+    public int getInvincibleSeconds() { return invincibleSeconds; }
+    public long getCapabilities() { return capabilities; }
+    public boolean hasAbility(Ability ability) { return (capabilities & ability.mask()) != 0; }
+    public int getScore() { return score; }
+    public int getLives() { return lives; }
+    public boolean canBreakBlocks() { return canBreakBlocks; }
+    public boolean canShootFire() { return canShootFire; }
+    /** Full state name with decorator details, as getStateName() returned it */
+    public String getStateName() { return stateName; }
+    public String getStateEmoji() { return stateEmoji; }
+    /** Ability descriptions with their remaining time, as getAbilities() returned them */
+    public List<String> getAbilities() { return abilities; }
+}
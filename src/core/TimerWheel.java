@@ -0,0 +1,244 @@
+package core;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Timer service - a hashed timing wheel with 1 ms resolution.
+ * Each GameSession owns one; states and decorators register their deadlines
+ * with it instead of creating a thread pool each, so the number of threads
+ * stays constant no matter how many power-ups are active.
+ *
+ * Scheduling and cancellation are O(1) and safe from any thread. Deadlines
+ * are only ever expired by the single thread that calls {@link #advanceTo(long)}.
+ * A task that throws is handed to the wheel's failure handler and the wheel
+ * carries on with the rest.
+ */
+public class TimerWheel {
+    private static final int WHEEL_SIZE = 512; // must be a power of two
+    private static final int MASK = WHEEL_SIZE - 1;
+
+    private final Bucket[] wheel;
+    private final Queue<Timeout> pending;
+    private final Thread.UncaughtExceptionHandler failureHandler;
+    // Periodic timeouts that fired this tick, chained through Timeout.next; only touched by the driver
+    private Timeout rescheduled;
+    private long currentTime; // last expired millisecond
+    private Thread driver;
+
+    public TimerWheel() {
+        this(0);
+    }
+
+    /**
+     * A wheel whose failing tasks go to the expiring thread's uncaught exception handler.
+     */
+    public TimerWheel(long startMillis) {
+        this(startMillis, (thread, e) -> thread.getUncaughtExceptionHandler().uncaughtException(thread, e));
+    }
+
+    /**
+     * @param failureHandler told of every task that throws, on the thread that expired it
+     */
+    public TimerWheel(long startMillis, Thread.UncaughtExceptionHandler failureHandler) {
+        this.failureHandler = failureHandler;
+        this.wheel = new Bucket[WHEEL_SIZE];
+        for (int i = 0; i < WHEEL_SIZE; i++) {
+            wheel[i] = new Bucket();
+        }
+        this.pending = new ConcurrentLinkedQueue<>();
+        this.currentTime = startMillis;
+    }
+
+    /**
+     * Runs a task once after the given delay.
+     */
+    public Timeout schedule(Runnable task, long delay, TimeUnit unit) {
+        return enqueue(new Timeout(task, unit.toMillis(delay), 0));
+    }
+
+    /**
+     * Runs a task repeatedly; each deadline is derived from the previous one so
+     * the period does not drift with late ticks.
+     */
+    public Timeout scheduleAtFixedRate(Runnable task, long initialDelay, long period, TimeUnit unit) {
+        long periodMillis = unit.toMillis(period);
+        if (periodMillis <= 0) {
+            throw new IllegalArgumentException("period must be at least 1 ms");
+        }
+        return enqueue(new Timeout(task, unit.toMillis(initialDelay), periodMillis));
+    }
+
+    private Timeout enqueue(Timeout timeout) {
+        pending.add(timeout);
+        return timeout;
+    }
+
+    /**
+     * Expires every deadline up to and including {@code nowMillis}, in deadline order.
+     * Must only be called from one thread at a time.
+     */
+    public void advanceTo(long nowMillis) {
+        transferPending();
+        while (currentTime < nowMillis) {
+            currentTime++;
+            Bucket bucket = wheel[(int) (currentTime & MASK)];
+            bucket.expire(this, currentTime);
+            transferRescheduled();
+            transferPending();
+        }
+    }
+
+    private void transferPending() {
+        Timeout timeout;
+        while ((timeout = pending.poll()) != null) {
+            if (timeout.cancelled) continue;
+            if (timeout.deadline == Long.MIN_VALUE) {
+                timeout.deadline = currentTime + Math.max(1, timeout.delay);
+            }
+            insert(timeout);
+        }
+    }
+
+    /**
+     * Re-inserts periodic timeouts without going through the pending queue,
+     * so a steady-state tick allocates nothing.
+     */
+    private void transferRescheduled() {
+        Timeout timeout = rescheduled;
+        rescheduled = null;
+        while (timeout != null) {
+            Timeout next = timeout.next;
+            if (!timeout.cancelled) {
+                insert(timeout);
+            }
+            timeout = next;
+        }
+    }
+
+    private void insert(Timeout timeout) {
+        long ticks = timeout.deadline - currentTime;
+        if (ticks <= 0) {
+            // Already due - expire on the next tick
+            timeout.deadline = currentTime + 1;
+            ticks = 1;
+        }
+        timeout.remainingRounds = (ticks - 1) / WHEEL_SIZE;
+        wheel[(int) (timeout.deadline & MASK)].add(timeout);
+    }
+
+    public long getCurrentTime() {
+        return currentTime;
+    }
+
+    /**
+     * Milliseconds until {@code timeout} next runs, for saving it to be
+     * scheduled again later; its full delay while it is still pending.
+     */
+    public long getRemaining(Timeout timeout) {
+        if (timeout.deadline == Long.MIN_VALUE) return Math.max(1, timeout.delay);
+        return Math.max(1, timeout.deadline - currentTime);
+    }
+
+    /**
+     * Starts a daemon thread that advances the wheel in real time, for use
+     * without a GameLoop.
+     */
+    public synchronized void start() {
+        if (driver != null) return;
+        long base = System.nanoTime() / 1_000_000L - currentTime;
+        driver = new Thread(() -> {
+            while (!Thread.currentThread().isInterrupted()) {
+                advanceTo(System.nanoTime() / 1_000_000L - base);
+                LockSupport.parkNanos(1_000_000L);
+            }
+        }, "timer-wheel");
+        driver.setDaemon(true);
+        driver.start();
+    }
+
+    public synchronized void stop() {
+        if (driver != null) {
+            driver.interrupt();
+            driver = null;
+        }
+    }
+
+    /**
+     * Handle returned for every scheduled task.
+     */
+    public static final class Timeout {
+        private final Runnable task;
+        private final long delay;
+        private final long period;
+        private long deadline = Long.MIN_VALUE;
+        private long remainingRounds;
+        private volatile boolean cancelled;
+        private Timeout prev, next;
+
+        private Timeout(Runnable task, long delay, long period) {
+            this.task = task;
+            this.delay = delay;
+            this.period = period;
+        }
+
+        /**
+         * Cancels the task. The entry is unlinked when the wheel next visits its slot.
+         */
+        public void cancel() { cancelled = true; }
+        public boolean isCancelled() { return cancelled; }
+        public boolean isPeriodic() { return period > 0; }
+    }
+
+    /**
+     * Doubly linked list of the timeouts that hash to one slot.
+     */
+    private static final class Bucket {
+        private Timeout head, tail;
+
+        void add(Timeout timeout) {
+            timeout.prev = tail;
+            timeout.next = null;
+            if (tail == null) {
+                head = timeout;
+            } else {
+                tail.next = timeout;
+            }
+            tail = timeout;
+        }
+
+        void remove(Timeout timeout) {
+            if (timeout.prev != null) timeout.prev.next = timeout.next; else head = timeout.next;
+            if (timeout.next != null) timeout.next.prev = timeout.prev; else tail = timeout.prev;
+            timeout.prev = timeout.next = null;
+        }
+
+        void expire(TimerWheel wheel, long now) {
+            Timeout timeout = head;
+            while (timeout != null) {
+                Timeout next = timeout.next;
+                if (timeout.cancelled) {
+                    remove(timeout);
+                } else if (timeout.remainingRounds > 0) {
+                    timeout.remainingRounds--;
+                } else {
+                    remove(timeout);
+                    try {
+                        timeout.task.run();
+                    } catch (RuntimeException e) {
+                        // A failing task must not stop the wheel for everyone else
+                        wheel.failureHandler.uncaughtException(Thread.currentThread(), e);
+                    }
+                    if (timeout.period > 0 && !timeout.cancelled) {
+                        timeout.deadline = now + timeout.period;
+                        timeout.next = wheel.rescheduled;
+                        wheel.rescheduled = timeout;
+                    }
+                }
+                timeout = next;
+            }
+        }
+    }
+}
@@ -1,14 +1,13 @@
 package decorators;
+import core.Ability;
+import core.TimerWheel;
 import interfaces.MarioComponent;
-import ui.GameFrame;
 
 import java.awt.Color;
+import java.nio.ByteBuffer;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.concurrent.Executors;
-import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
-import javax.swing.SwingUtilities;
 
 /**
  * Double Jump Decorator - Allows second jump in mid-air
@@ -16,31 +15,27 @@ import javax.swing.SwingUtilities;
 public class DoubleJumpDecorator extends MarioDecorator {
     private boolean hasUsedSecondJump;
     private int duration;
-    private ScheduledExecutorService timer;
+    // Gives the second jump back two seconds after it was used; null when none is due
+    private TimerWheel.Timeout landing;
 
     public DoubleJumpDecorator(MarioComponent mario) {
-        super(mario);
+        super(mario, Ability.DOUBLE_JUMP);
         this.hasUsedSecondJump = false;
         this.duration = 10;
-        startTimer();
+        startTimer(1_000);
     }
 
     @Override
     public void jump() {
         decoratedMario.jump();
         if (!hasUsedSecondJump) {
-            GameFrame.getInstance().addLogMessage("⬆️ DOUBLE JUMP: Second jump activated!", Color.MAGENTA);
+            getOutput().addLogMessage("⬆️ DOUBLE JUMP: Second jump activated!", Color.MAGENTA);
             hasUsedSecondJump = true;
             decoratedMario.addScore(20);
 
-            ScheduledExecutorService resetTimer = Executors.newScheduledThreadPool(1);
-            resetTimer.schedule(() -> {
-                hasUsedSecondJump = false;
-                SwingUtilities.invokeLater(() -> GameFrame.getInstance().addLogMessage("⬇️ Mario landed - double jump reset", Color.GRAY));
-                resetTimer.shutdown();
-            }, 2, TimeUnit.SECONDS);
+            scheduleLanding(2_000);
         }
-        GameFrame.getInstance().updateDisplay();
+        getOutput().updateDisplay();
     }
 
     @Override
@@ -54,11 +49,6 @@ public class DoubleJumpDecorator extends MarioDecorator {
         return decoratedMario.getStateName() + " [⬆️DoubleJump:" + duration + "s]";
     }
 
-    @Override
-    public boolean hasAbility(String ability) {
-        return ability.equals("Double Jump") || decoratedMario.hasAbility(ability);
-    }
-
     @Override
     public List<String> getAbilities() {
         List<String> abilities = new ArrayList<>(decoratedMario.getAbilities());
@@ -66,23 +56,44 @@ public class DoubleJumpDecorator extends MarioDecorator {
         return abilities;
     }
 
-    @Override
-    public void setLives(int lives) {
-
+    /**
+     * Gives the second jump back after the delay, replacing any landing still due.
+     */
+    private void scheduleLanding(long delayMillis) {
+        if (landing != null) landing.cancel();
+        landing = getSession().getTimers().schedule(() -> {
+            landing = null;
+            hasUsedSecondJump = false;
+            getOutput().addLogMessage("⬇️ Mario landed - double jump reset", Color.GRAY);
+        }, delayMillis, TimeUnit.MILLISECONDS);
     }
 
-    private void startTimer() {
-        timer = Executors.newScheduledThreadPool(1);
-        timer.scheduleAtFixedRate(() -> {
+    @Override
+    protected void startTimer(long firstDelayMillis) {
+        setTimer(getSession().getTimers().scheduleAtFixedRate(() -> {
             duration--;
-            SwingUtilities.invokeLater(() -> GameFrame.getInstance().updateDisplay());
+            core.changed();
+            getOutput().updateDisplay();
             if (duration <= 0) {
-                SwingUtilities.invokeLater(() -> {
-                    GameFrame.getInstance().addLogMessage("⬆️ Double Jump expired!", Color.GRAY);
-                    GameFrame.getInstance().removeDecorator("Double Jump");
-                });
-                timer.shutdown();
+                getOutput().addLogMessage("⬆️ Double Jump expired!", Color.GRAY);
+                expire();
             }
-        }, 1, 1, TimeUnit.SECONDS);
+        }, firstDelayMillis, 1_000, TimeUnit.MILLISECONDS));
+    }
+
+    // Saved as: byte hasUsedSecondJump, int duration, int milliseconds to landing (-1 for none)
+    @Override
+    protected void saveFields(ByteBuffer out) {
+        out.put((byte) (hasUsedSecondJump ? 1 : 0));
+        out.putInt(duration);
+        out.putInt(landing != null ? (int) getSession().getTimers().getRemaining(landing) : -1);
+    }
+
+    @Override
+    protected void loadFields(ByteBuffer in) {
+        hasUsedSecondJump = in.get() != 0;
+        duration = in.getInt();
+        int toLanding = in.getInt();
+        if (toLanding >= 0) scheduleLanding(toLanding);
     }
 }
\ No newline at end of file
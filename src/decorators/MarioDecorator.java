@@ -1,54 +1,283 @@
 package decorators;
 
+import core.Ability;
+import core.GameSession;
+import core.Mario;
+import core.TimerWheel;
+import interfaces.GameOutput;
 import interfaces.MarioComponent;
 
 import java.awt.Point;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
 import java.util.List;
 
 /**
- * Base Decorator class for Decorator Pattern
+ * Base Decorator class for Decorator Pattern.
+ * Each decorator grants one Ability, recorded in the core Mario's capability
+ * mask from construction until it is removed, so ability queries need not walk the chain.
+ *
+ * Decorators know the decorator wrapping them as well as the component they
+ * wrap, and the core Mario indexes the newest decorator of each ability, with
+ * older ones of the same ability linked behind it. Any layer - the outermost,
+ * one in the middle, or the newest of a type - is therefore unlinked in
+ * constant time, and the layers around it are left as they are.
+ *
+ * Calls do not walk the chain either. Score, lives, position and the other
+ * data Mario holds go straight to the core. Each behaviour a decorator may
+ * change ({@link Op}) is forwarded through a table compiled per decorator:
+ * the entry points at the nearest inner decorator whose class overrides that
+ * operation, or at the core, so layers that leave an operation alone cost
+ * nothing for it. Tables are recompiled only when a decorator is added or
+ * removed, and only for the layers outside the change.
  */
 public abstract class MarioDecorator implements MarioComponent {
+    /**
+     * Operations a decorator may override.
+     */
+    enum Op {
+        JUMP("jump"),
+        MOVE("move", int.class),
+        TAKE_DAMAGE("takeDamage"),
+        COLLECT_MUSHROOM("collectMushroom"),
+        COLLECT_FIRE_FLOWER("collectFireFlower"),
+        COLLECT_STAR("collectStar"),
+        GET_STATE_NAME("getStateName"),
+        GET_STATE_EMOJI("getStateEmoji"),
+        CAN_BREAK_BLOCKS("canBreakBlocks"),
+        CAN_SHOOT_FIRE("canShootFire"),
+        GET_ABILITIES("getAbilities"),
+        UPDATE("update");
+
+        private final String method;
+        private final Class<?>[] parameters;
+
+        Op(String method, Class<?>... parameters) {
+            this.method = method;
+            this.parameters = parameters;
+        }
+    }
+
+    private static final Op[] OPS = Op.values();
+
+    // Bit per Op that each decorator class overrides, worked out once per class
+    private static final ClassValue<Long> OVERRIDES = new ClassValue<Long>() {
+        @Override
+        protected Long computeValue(Class<?> type) {
+            long overrides = 0;
+            for (Op op : OPS) {
+                try {
+                    if (type.getMethod(op.method, op.parameters).getDeclaringClass() != MarioDecorator.class) {
+                        overrides |= 1L << op.ordinal();
+                    }
+                } catch (NoSuchMethodException e) {
+                    throw new IllegalStateException(e);
+                }
+            }
+            return overrides;
+        }
+    };
+
     protected MarioComponent decoratedMario;
+    protected final Mario core;
+    private final Ability ability;
+    // The decorator wrapping this one, if any
+    private MarioDecorator outer;
+    // Other active decorators granting the same ability
+    private MarioDecorator olderSame, newerSame;
+    // Where each Op goes when this decorator does not handle it itself
+    private final MarioComponent[] next = new MarioComponent[OPS.length];
+    private TimerWheel.Timeout timer;
+    private boolean removed;
 
-    public MarioDecorator(MarioComponent mario) {
+    public MarioDecorator(MarioComponent mario, Ability ability) {
         this.decoratedMario = mario;
+        this.core = mario.getSession().getCore();
+        this.ability = ability;
+        if (mario instanceof MarioDecorator) {
+            ((MarioDecorator) mario).outer = this;
+        }
+        MarioComponent newest = core.getLayer(ability);
+        if (newest instanceof MarioDecorator) {
+            olderSame = (MarioDecorator) newest;
+            olderSame.newerSame = this;
+        }
+        core.setLayer(ability, this);
+        compile();
+    }
+
+    /**
+     * Points each table entry past the inner layers that do not override its operation.
+     */
+    private void compile() {
+        if (!(decoratedMario instanceof MarioDecorator)) {
+            Arrays.fill(next, decoratedMario);
+            return;
+        }
+        MarioDecorator inner = (MarioDecorator) decoratedMario;
+        long overrides = OVERRIDES.get(inner.getClass());
+        for (int i = 0; i < next.length; i++) {
+            next[i] = (overrides & (1L << i)) != 0 ? inner : inner.next[i];
+        }
+    }
+
+    /**
+     * Unlinks the newest decorator granting {@code ability} from the session's Mario.
+     *
+     * @return false if Mario did not have the ability
+     */
+    public static boolean removeNewest(GameSession session, Ability ability) {
+        MarioComponent layer = session.getCore().getLayer(ability);
+        if (!(layer instanceof MarioDecorator)) return false;
+        ((MarioDecorator) layer).remove();
+        return true;
+    }
+
+    /**
+     * Unlinks this decorator from the chain and takes its ability away, unless
+     * an older decorator of the same type is still active. Cancels its timer.
+     * Safe to call more than once.
+     */
+    public void remove() {
+        if (removed) return;
+        removed = true;
+        if (timer != null) timer.cancel();
+
+        // Out of the chain: whatever wrapped this now wraps what this wrapped
+        if (outer != null) {
+            outer.decoratedMario = decoratedMario;
+        } else if (core.getSession().getMario() == this) {
+            core.getSession().setMario(decoratedMario);
+        }
+        if (decoratedMario instanceof MarioDecorator) {
+            ((MarioDecorator) decoratedMario).outer = outer;
+        }
+        for (MarioDecorator layer = outer; layer != null; layer = layer.outer) {
+            layer.compile();
+        }
+
+        // Out of its ability's stack
+        if (newerSame != null) {
+            newerSame.olderSame = olderSame;
+        } else {
+            core.setLayer(ability, olderSame);
+        }
+        if (olderSame != null) {
+            olderSame.newerSame = newerSame;
+        }
+        outer = olderSame = newerSame = null;
+    }
+
+    /**
+     * Removes this decorator and tells the output it is gone.
+     */
+    protected void expire() {
+        if (removed) return;
+        remove();
+        getOutput().removeDecorator(ability.getDisplayName());
+    }
+
+    /**
+     * Hands this decorator's countdown to the base class, which cancels it on
+     * removal, or when a new countdown replaces it.
+     */
+    protected void setTimer(TimerWheel.Timeout timer) {
+        if (this.timer != null) this.timer.cancel();
+        this.timer = timer;
+    }
+
+    /**
+     * Starts the once-a-second countdown, first running after {@code firstDelayMillis}.
+     */
+    protected abstract void startTimer(long firstDelayMillis);
+
+    /**
+     * Writes this decorator for a saved game: int milliseconds to its next
+     * countdown second, then the subclass's own fields.
+     */
+    public final void save(ByteBuffer out) {
+        out.putInt(timer != null ? (int) getSession().getTimers().getRemaining(timer) : 1_000);
+        saveFields(out);
     }
 
+    /**
+     * Takes back what {@link #save} wrote into a decorator just applied, and
+     * restarts its countdown where the saved one was.
+     */
+    public final void load(ByteBuffer in) {
+        int firstDelay = in.getInt();
+        loadFields(in);
+        startTimer(firstDelay);
+        core.changed();
+    }
+
+    /** Writes the subclass's fields in a fixed order; see each subclass */
+    protected abstract void saveFields(ByteBuffer out);
+
+    protected abstract void loadFields(ByteBuffer in);
+
+    public boolean isRemoved() { return removed; }
+
+    public Ability getAbility() { return ability; }
+
+    /** The component this decorator wraps */
+    public MarioComponent getDecoratedMario() { return decoratedMario; }
+
+    // Behaviour a decorator may change: forwarded through the compiled table
     @Override
-    public void jump() { decoratedMario.jump(); }
+    public void jump() { next[Op.JUMP.ordinal()].jump(); }
     @Override
-    public void move(int direction) { decoratedMario.move(direction); }
+    public void move(int direction) { next[Op.MOVE.ordinal()].move(direction); }
     @Override
-    public void takeDamage() { decoratedMario.takeDamage(); }
+    public void takeDamage() { next[Op.TAKE_DAMAGE.ordinal()].takeDamage(); }
     @Override
-    public void collectMushroom() { decoratedMario.collectMushroom(); }
+    public void collectMushroom() { next[Op.COLLECT_MUSHROOM.ordinal()].collectMushroom(); }
     @Override
-    public void collectFireFlower() { decoratedMario.collectFireFlower(); }
+    public void collectFireFlower() { next[Op.COLLECT_FIRE_FLOWER.ordinal()].collectFireFlower(); }
     @Override
-    public void collectStar() { decoratedMario.collectStar(); }
+    public void collectStar() { next[Op.COLLECT_STAR.ordinal()].collectStar(); }
     @Override
-    public String getStateName() { return decoratedMario.getStateName(); }
+    public String getStateName() { return next[Op.GET_STATE_NAME.ordinal()].getStateName(); }
     @Override
-    public String getStateEmoji() { return decoratedMario.getStateEmoji(); }
+    public String getStateEmoji() { return next[Op.GET_STATE_EMOJI.ordinal()].getStateEmoji(); }
     @Override
-    public boolean canBreakBlocks() { return decoratedMario.canBreakBlocks(); }
+    public boolean canBreakBlocks() { return next[Op.CAN_BREAK_BLOCKS.ordinal()].canBreakBlocks(); }
     @Override
-    public boolean canShootFire() { return decoratedMario.canShootFire(); }
+    public boolean canShootFire() { return next[Op.CAN_SHOOT_FIRE.ordinal()].canShootFire(); }
     @Override
-    public int getScore() { return decoratedMario.getScore(); }
+    public List<String> getAbilities() { return next[Op.GET_ABILITIES.ordinal()].getAbilities(); }
     @Override
-    public void addScore(int points) { decoratedMario.addScore(points); }
+    public void update() { next[Op.UPDATE.ordinal()].update(); }
+
+    // Mario's own data: straight to the core, whatever the depth
     @Override
-    public boolean hasAbility(String ability) { return decoratedMario.hasAbility(ability); }
+    public final int getScore() { return core.getScore(); }
     @Override
-    public List<String> getAbilities() { return decoratedMario.getAbilities(); }
+    public final void addScore(int points) { core.addScore(points); }
     @Override
-    public int getLives() { return decoratedMario.getLives(); }
+    public final boolean hasAbility(Ability ability) { return core.hasAbility(ability); }
     @Override
-    public Point getPosition() { return decoratedMario.getPosition(); }
+    public final long getCapabilities() { return core.getCapabilities(); }
     @Override
-    public void setPosition(Point position) { decoratedMario.setPosition(position); }
+    public final int getLives() { return core.getLives(); }
     @Override
-    public void update() { decoratedMario.update(); }
+    public final void setLives(int lives) { core.setLives(lives); }
+    @Override
+    public final Point getPosition() { return core.getPosition(); }
+    @Override
+    public final void setPosition(Point position) { core.setPosition(position); }
+    @Override
+    public final int getX() { return core.getX(); }
+    @Override
+    public final int getY() { return core.getY(); }
+    @Override
+    public final int getWidth() { return core.getWidth(); }
+    @Override
+    public final int getHeight() { return core.getHeight(); }
+    @Override
+    public final void setPosition(int x, int y) { core.setPosition(x, y); }
+    @Override
+    public final GameSession getSession() { return core.getSession(); }
+
+    protected GameOutput getOutput() { return core.getSession().getOutput(); }
 }
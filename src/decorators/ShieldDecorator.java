@@ -1,15 +1,13 @@
 package decorators;
 
+import core.Ability;
 import interfaces.MarioComponent;
-import ui.GameFrame;
 
 import java.awt.Color;
+import java.nio.ByteBuffer;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.concurrent.Executors;
-import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
-import javax.swing.SwingUtilities;
 
 /**
  * Shield Decorator - Absorbs damage
@@ -17,28 +15,28 @@ import javax.swing.SwingUtilities;
 public class ShieldDecorator extends MarioDecorator {
     private int shieldStrength;
     private int duration;
-    private ScheduledExecutorService timer;
 
     public ShieldDecorator(MarioComponent mario) {
-        super(mario);
+        super(mario, Ability.SHIELD);
         this.shieldStrength = 2;
         this.duration = 12;
-        startTimer();
+        startTimer(1_000);
     }
 
     @Override
     public void takeDamage() {
         if (shieldStrength > 0) {
             shieldStrength--;
-            GameFrame.getInstance().addLogMessage("🛡️ SHIELD: Damage blocked! Strength: " + shieldStrength, Color.CYAN);
+            core.changed();
+            getOutput().addLogMessage("🛡️ SHIELD: Damage blocked! Strength: " + shieldStrength, Color.CYAN);
             if (shieldStrength <= 0) {
-                GameFrame.getInstance().addLogMessage("🛡️ Shield broken!", Color.ORANGE);
-                GameFrame.getInstance().removeDecorator("Shield");
+                getOutput().addLogMessage("🛡️ Shield broken!", Color.ORANGE);
+                expire();
             }
         } else {
             decoratedMario.takeDamage();
         }
-        GameFrame.getInstance().updateDisplay();
+        getOutput().updateDisplay();
     }
 
     @Override
@@ -46,11 +44,6 @@ public class ShieldDecorator extends MarioDecorator {
         return decoratedMario.getStateName() + " [🛡️Shield:" + shieldStrength + "/" + duration + "s]";
     }
 
-    @Override
-    public boolean hasAbility(String ability) {
-        return ability.equals("Shield") || decoratedMario.hasAbility(ability);
-    }
-
     @Override
     public List<String> getAbilities() {
         List<String> abilities = new ArrayList<>(decoratedMario.getAbilities());
@@ -59,23 +52,29 @@ public class ShieldDecorator extends MarioDecorator {
     }
 
     @Override
-    public void setLives(int lives) {
-
-    }
-
-    private void startTimer() {
-        timer = Executors.newScheduledThreadPool(1);
-        timer.scheduleAtFixedRate(() -> {
+    protected void startTimer(long firstDelayMillis) {
+        setTimer(getSession().getTimers().scheduleAtFixedRate(() -> {
             duration--;
-            SwingUtilities.invokeLater(() -> GameFrame.getInstance().updateDisplay());
+            core.changed();
+            getOutput().updateDisplay();
             if (duration <= 0 || shieldStrength <= 0) {
-                SwingUtilities.invokeLater(() -> {
-                    GameFrame.getInstance().addLogMessage("🛡️ Shield expired!", Color.GRAY);
-                    GameFrame.getInstance().removeDecorator("Shield");
-                });
-                timer.shutdown();
+                getOutput().addLogMessage("🛡️ Shield expired!", Color.GRAY);
+                expire();
             }
-        }, 1, 1, TimeUnit.SECONDS);
+        }, firstDelayMillis, 1_000, TimeUnit.MILLISECONDS));
+    }
+
+    // Saved as: int shieldStrength, int duration
+    @Override
+    protected void saveFields(ByteBuffer out) {
+        out.putInt(shieldStrength);
+        out.putInt(duration);
+    }
+
+    @Override
+    protected void loadFields(ByteBuffer in) {
+        shieldStrength = in.getInt();
+        duration = in.getInt();
     }
 
     public boolean isActive() { return duration > 0 && shieldStrength > 0; }
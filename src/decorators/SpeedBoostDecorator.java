@@ -1,45 +1,41 @@
 package decorators;
 
+import core.Ability;
 import interfaces.MarioComponent;
-import ui.GameFrame;
 
 import java.awt.*;
+import java.nio.ByteBuffer;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.concurrent.Executors;
-import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
-import javax.swing.SwingUtilities;
 
 /**
  * Speed Boost Decorator - Increases movement speed temporarily
  */
 public class SpeedBoostDecorator extends MarioDecorator {
     private int duration;
-    private ScheduledExecutorService timer;
 
     public SpeedBoostDecorator(MarioComponent mario) {
-        super(mario);
+        super(mario, Ability.SPEED_BOOST);
         this.duration = 8;
-        startTimer();
+        startTimer(1_000);
     }
 
     @Override
     public void move(int direction) {
         // Apply speed boost (move further)
-        Point pos = decoratedMario.getPosition();
-        pos.x += direction * 12; // Even faster movement
+        int x = decoratedMario.getX() + direction * 12; // Even faster movement
 
         // Boundary checking
-        if (pos.x < 0) pos.x = 0;
-        if (pos.x > GameFrame.getInstance().getGamePanel().getWidth() - 40)
-            pos.x = GameFrame.getInstance().getGamePanel().getWidth() - 40;
+        if (x < 0) x = 0;
+        if (x > getSession().getWorldWidth() - 40)
+            x = getSession().getWorldWidth() - 40;
 
-        decoratedMario.setPosition(pos);
+        decoratedMario.setPosition(x, decoratedMario.getY());
 
-        GameFrame.getInstance().addLogMessage("🚀 SPEED BOOST: Moving at 2x speed!", Color.MAGENTA);
+        getOutput().addLogMessage("🚀 SPEED BOOST: Moving at 2x speed!", Color.MAGENTA);
         decoratedMario.addScore(5);
-        GameFrame.getInstance().updateDisplay();
+        getOutput().updateDisplay();
     }
 
     @Override
@@ -47,11 +43,6 @@ public class SpeedBoostDecorator extends MarioDecorator {
         return decoratedMario.getStateName() + " [🚀Speed:" + duration + "s]";
     }
 
-    @Override
-    public boolean hasAbility(String ability) {
-        return ability.equals("Speed Boost") || decoratedMario.hasAbility(ability);
-    }
-
     @Override
     public List<String> getAbilities() {
         List<String> abilities = new ArrayList<>(decoratedMario.getAbilities());
@@ -60,22 +51,26 @@ public class SpeedBoostDecorator extends MarioDecorator {
     }
 
     @Override
-    public void setLives(int lives) {
-
-    }
-
-    private void startTimer() {
-        timer = Executors.newScheduledThreadPool(1);
-        timer.scheduleAtFixedRate(() -> {
+    protected void startTimer(long firstDelayMillis) {
+        setTimer(getSession().getTimers().scheduleAtFixedRate(() -> {
             duration--;
-            SwingUtilities.invokeLater(() -> GameFrame.getInstance().updateDisplay());
+            core.changed();
+            getOutput().updateDisplay();
             if (duration <= 0) {
-                SwingUtilities.invokeLater(() -> {
-                    GameFrame.getInstance().addLogMessage("🚀 Speed Boost expired!", Color.GRAY);
-                    GameFrame.getInstance().removeDecorator("Speed Boost");
-                });
-                timer.shutdown();
+                getOutput().addLogMessage("🚀 Speed Boost expired!", Color.GRAY);
+                expire();
             }
-        }, 1, 1, TimeUnit.SECONDS);
+        }, firstDelayMillis, 1_000, TimeUnit.MILLISECONDS));
+    }
+
+    // Saved as: int duration
+    @Override
+    protected void saveFields(ByteBuffer out) {
+        out.putInt(duration);
+    }
+
+    @Override
+    protected void loadFields(ByteBuffer in) {
+        duration = in.getInt();
     }
 }
@@ -1,27 +1,24 @@
 package decorators;
 
+import core.Ability;
 import interfaces.MarioComponent;
-import ui.GameFrame;
 
 import java.awt.Color;
+import java.nio.ByteBuffer;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.concurrent.Executors;
-import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
-import javax.swing.SwingUtilities;
 
 /**
  * Super Strength Decorator - Enhanced block breaking ability
  */
 public class SuperStrengthDecorator extends MarioDecorator {
     private int duration;
-    private ScheduledExecutorService timer;
 
     public SuperStrengthDecorator(MarioComponent mario) {
-        super(mario);
+        super(mario, Ability.SUPER_STRENGTH);
         this.duration = 6;
-        startTimer();
+        startTimer(1_000);
     }
 
     @Override
@@ -34,11 +31,6 @@ public class SuperStrengthDecorator extends MarioDecorator {
         return decoratedMario.getStateName() + " [💪Strength:" + duration + "s]";
     }
 
-    @Override
-    public boolean hasAbility(String ability) {
-        return ability.equals("Super Strength") || decoratedMario.hasAbility(ability);
-    }
-
     @Override
     public List<String> getAbilities() {
         List<String> abilities = new ArrayList<>(decoratedMario.getAbilities());
@@ -46,30 +38,34 @@ public class SuperStrengthDecorator extends MarioDecorator {
         return abilities;
     }
 
-    @Override
-    public void setLives(int lives) {
-
-    }
-
     public void breakSpecialBlock() {
-        GameFrame.getInstance().addLogMessage("💪 SUPER STRENGTH: Breaking reinforced block!", Color.MAGENTA);
+        getOutput().addLogMessage("💪 SUPER STRENGTH: Breaking reinforced block!", Color.MAGENTA);
         decoratedMario.addScore(100);
-        GameFrame.getInstance().updateDisplay();
+        getOutput().updateDisplay();
     }
 
-    private void startTimer() {
-        timer = Executors.newScheduledThreadPool(1);
-        timer.scheduleAtFixedRate(() -> {
+    @Override
+    protected void startTimer(long firstDelayMillis) {
+        setTimer(getSession().getTimers().scheduleAtFixedRate(() -> {
             duration--;
-            SwingUtilities.invokeLater(() -> GameFrame.getInstance().updateDisplay());
+            core.changed();
+            getOutput().updateDisplay();
             if (duration <= 0) {
-                SwingUtilities.invokeLater(() -> {
-                    GameFrame.getInstance().addLogMessage("💪 Super Strength expired!", Color.GRAY);
-                    GameFrame.getInstance().removeDecorator("Super Strength");
-                });
-                timer.shutdown();
+                getOutput().addLogMessage("💪 Super Strength expired!", Color.GRAY);
+                expire();
             }
-        }, 1, 1, TimeUnit.SECONDS);
+        }, firstDelayMillis, 1_000, TimeUnit.MILLISECONDS));
+    }
+
+    // Saved as: int duration
+    @Override
+    protected void saveFields(ByteBuffer out) {
+        out.putInt(duration);
+    }
+
+    @Override
+    protected void loadFields(ByteBuffer in) {
+        duration = in.getInt();
     }
 
     public boolean isActive() { return duration > 0; }
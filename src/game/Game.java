@@ -1,7 +1,10 @@
 package game;
 import interfaces.MarioComponent;
+import core.Ability;
+import core.GameSession;
 import core.Mario;
 import decorators.*;
+import ui.ConsoleOutput;
 import ui.GameUI;
 import java.util.Scanner;
 
@@ -9,11 +12,13 @@ import java.util.Scanner;
  * Main Game class for demonstration and testing
  */
 public class Game {
-    private static MarioComponent mario;
+    private static GameSession session;
     private static Scanner scanner;
 
     public static void main(String[] args) {
-        mario = new Mario();
+        session = new GameSession(new ConsoleOutput());
+        // No game loop on the console - power-up timers run in real time
+        session.getTimers().start();
         scanner = new Scanner(System.in);
 
         GameUI.printHeader();
@@ -25,7 +30,7 @@ public class Game {
 
     private static void gameLoop() {
         while (true) {
-            GameUI.printMarioStatus(mario);
+            GameUI.printMarioStatus(session.getMario());
             GameUI.printMenu();
 
             try {
@@ -49,16 +54,16 @@ public class Game {
 
     private static void executeAction(int choice) throws InterruptedException {
         switch (choice) {
-            case 1: mario.jump(); break;
+            case 1: session.getMario().jump(); break;
             case 2:
                 int direction =  1;
-                mario.move(direction); break;
+                session.getMario().move(direction); break;
             case 3: shootFire(); break;
             case 4: breakBlock(); break;
-            case 5: mario.collectMushroom(); break;
-            case 6: mario.collectFireFlower(); break;
-            case 7: mario.collectStar(); break;
-            case 8: mario.takeDamage(); break;
+            case 5: session.getMario().collectMushroom(); break;
+            case 6: session.getMario().collectFireFlower(); break;
+            case 7: session.getMario().collectStar(); break;
+            case 8: session.getMario().takeDamage(); break;
             case 9: addSpeedBoost(); break;
             case 10: addDoubleJump(); break;
             case 11: addShield(); break;
@@ -71,6 +76,7 @@ public class Game {
     }
 
     private static void shootFire() {
+        MarioComponent mario = session.getMario();
         if (mario.canShootFire()) {
             if (mario instanceof Mario) {
                 ((Mario) mario).shootFire();
@@ -85,11 +91,12 @@ public class Game {
     }
 
     private static void breakBlock() {
+        MarioComponent mario = session.getMario();
         if (mario.canBreakBlocks()) {
             GameUI.printAction("🧱💥 Breaking block!");
             mario.addScore(25);
 
-            if (mario.hasAbility("Super Strength")) {
+            if (mario.hasAbility(Ability.SUPER_STRENGTH)) {
                 GameUI.printDecorator("💪 SUPER STRENGTH: Breaking extra blocks!");
                 mario.addScore(75); // Bonus with super strength
             }
@@ -99,8 +106,8 @@ public class Game {
     }
 
     private static void addSpeedBoost() {
-        if (!mario.hasAbility("Speed Boost")) {
-            mario = new SpeedBoostDecorator(mario);
+        if (!session.getMario().hasAbility(Ability.SPEED_BOOST)) {
+            session.setMario(new SpeedBoostDecorator(session.getMario()));
             GameUI.printDecorator("🚀 Speed Boost activated!");
         } else {
             GameUI.printError("❌ Speed Boost already active!");
@@ -108,8 +115,8 @@ public class Game {
     }
 
     private static void addDoubleJump() {
-        if (!mario.hasAbility("Double Jump")) {
-            mario = new DoubleJumpDecorator(mario);
+        if (!session.getMario().hasAbility(Ability.DOUBLE_JUMP)) {
+            session.setMario(new DoubleJumpDecorator(session.getMario()));
             GameUI.printDecorator("⬆️ Double Jump activated!");
         } else {
             GameUI.printError("❌ Double Jump already active!");
@@ -117,8 +124,8 @@ public class Game {
     }
 
     private static void addShield() {
-        if (!mario.hasAbility("Shield")) {
-            mario = new ShieldDecorator(mario);
+        if (!session.getMario().hasAbility(Ability.SHIELD)) {
+            session.setMario(new ShieldDecorator(session.getMario()));
             GameUI.printDecorator("🛡️ Shield activated!");
         } else {
             GameUI.printError("❌ Shield already active!");
@@ -126,8 +133,8 @@ public class Game {
     }
 
     private static void addSuperStrength() {
-        if (!mario.hasAbility("Super Strength")) {
-            mario = new SuperStrengthDecorator(mario);
+        if (!session.getMario().hasAbility(Ability.SUPER_STRENGTH)) {
+            session.setMario(new SuperStrengthDecorator(session.getMario()));
             GameUI.printDecorator("💪 Super Strength activated!");
         } else {
             GameUI.printError("❌ Super Strength already active!");
@@ -135,7 +142,8 @@ public class Game {
     }
 
     private static void resetGame() {
-        mario = new Mario();
+        session.reset();
+        session.getTimers().start();
         GameUI.printInfo("🔄 Game reset! Mario is back to Small Mario state.");
     }
 
@@ -147,23 +155,24 @@ public class Game {
         GameUI.printInfo("🎭 Starting Design Patterns Demonstration...\n");
 
         // Reset for clean demo
-        mario = new Mario();
+        session.reset();
+        session.getTimers().start();
 
         GameUI.printInfo("📖 PART 1: STATE PATTERN DEMONSTRATION");
         GameUI.printInfo("Showing how Mario's behavior changes based on his state...\n");
 
         // Demonstrate state transitions
-        GameUI.printMarioStatus(mario);
+        GameUI.printMarioStatus(session.getMario());
         Thread.sleep(2000);
 
         GameUI.printInfo("🍄 Mario collects a mushroom...");
-        mario.collectMushroom();
-        GameUI.printMarioStatus(mario);
+        session.getMario().collectMushroom();
+        GameUI.printMarioStatus(session.getMario());
         Thread.sleep(2000);
 
         GameUI.printInfo("🌸 Mario collects a fire flower...");
-        mario.collectFireFlower();
-        GameUI.printMarioStatus(mario);
+        session.getMario().collectFireFlower();
+        GameUI.printMarioStatus(session.getMario());
         Thread.sleep(2000);
 
         GameUI.printInfo("🔥 Testing fire shooting ability...");
@@ -171,8 +180,8 @@ public class Game {
         Thread.sleep(2000);
 
         GameUI.printInfo("💥 Mario takes damage...");
-        mario.takeDamage();
-        GameUI.printMarioStatus(mario);
+        session.getMario().takeDamage();
+        GameUI.printMarioStatus(session.getMario());
         Thread.sleep(2000);
 
         GameUI.printInfo("\n📖 PART 2: DECORATOR PATTERN DEMONSTRATION");
@@ -195,19 +204,19 @@ public class Game {
         addSuperStrength();
         Thread.sleep(1000);
 
-        GameUI.printMarioStatus(mario);
+        GameUI.printMarioStatus(session.getMario());
 
         GameUI.printInfo("\n📖 PART 3: INTEGRATION DEMONSTRATION");
         GameUI.printInfo("Showing how state changes work through decorators...\n");
 
         GameUI.printInfo("🍄 Mario (with all abilities) collects mushroom...");
-        mario.collectMushroom();
-        GameUI.printMarioStatus(mario);
+        session.getMario().collectMushroom();
+        GameUI.printMarioStatus(session.getMario());
         Thread.sleep(2000);
 
         GameUI.printInfo("🌸 Mario collects fire flower...");
-        mario.collectFireFlower();
-        GameUI.printMarioStatus(mario);
+        session.getMario().collectFireFlower();
+        GameUI.printMarioStatus(session.getMario());
         Thread.sleep(2000);
 
         GameUI.printInfo("🔥 Testing enhanced fire shooting...");
@@ -219,17 +228,17 @@ public class Game {
         Thread.sleep(1000);
 
         GameUI.printInfo("💥 Testing shield protection...");
-        mario.takeDamage();
+        session.getMario().takeDamage();
         Thread.sleep(1000);
 
         GameUI.printInfo("💥 Testing shield again...");
-        mario.takeDamage();
+        session.getMario().takeDamage();
         Thread.sleep(1000);
 
         GameUI.printInfo("💥 Testing after shield is gone...");
-        mario.takeDamage();
+        session.getMario().takeDamage();
 
-        GameUI.printMarioStatus(mario);
+        GameUI.printMarioStatus(session.getMario());
 
         GameUI.printInfo("\n🎉 DEMONSTRATION COMPLETE!");
         GameUI.printInfo("You've seen both patterns working together seamlessly!");
@@ -1,9 +1,11 @@
 package game;
 
+import core.GameSession;
 import core.Mario;
 import decorators.ShieldDecorator;
 import decorators.SpeedBoostDecorator;
 import interfaces.MarioComponent;
+import ui.ConsoleOutput;
 import ui.GameFrame;
 
 import javax.swing.*;
@@ -83,8 +85,8 @@ public class SuperMarioSwingGame {
     public static void runConsoleDemo() {
         System.out.println("🍄 CONSOLE DEMO - Super Mario Design Patterns 🍄\n");
 
-        // Create Mario instance
-        Mario mario = new Mario();
+        // Create Mario instance - no window needed, output goes to the console
+        Mario mario = new GameSession(new ConsoleOutput()).getCore();
         System.out.println("Initial state: " + mario.getStateName());
         System.out.println("Can break blocks: " + mario.canBreakBlocks());
         System.out.println("Can shoot fire: " + mario.canShootFire());
@@ -0,0 +1,37 @@
+package interfaces;
+
+import java.awt.Color;
+
+/**
+ * Output sink for the simulation.
+ * Mario, his states and decorators report everything the player should see through
+ * this interface, so the game logic runs the same with the Swing window, the
+ * console or no UI at all.
+ */
+public interface GameOutput {
+    void addLogMessage(String message, Color color);
+    void updateDisplay();
+    void updateInvincibilityTimer(int timer);
+    // Called after a decorator expired and unlinked itself from the chain
+    void removeDecorator(String decoratorType);
+    void showGameOver();
+    void createFireEffect(int x, int y, int size);
+
+    /**
+     * Discards all output - for headless runs and batch simulations.
+     */
+    GameOutput NONE = new GameOutput() {
+        @Override
+        public void addLogMessage(String message, Color color) { }
+        @Override
+        public void updateDisplay() { }
+        @Override
+        public void updateInvincibilityTimer(int timer) { }
+        @Override
+        public void removeDecorator(String decoratorType) { }
+        @Override
+        public void showGameOver() { }
+        @Override
+        public void createFireEffect(int x, int y, int size) { }
+    };
+}
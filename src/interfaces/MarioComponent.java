@@ -1,5 +1,8 @@
 package interfaces;
 
+import core.Ability;
+import core.GameSession;
+
 import java.awt.Point;
 import java.util.List;
 
@@ -19,7 +22,18 @@ public interface MarioComponent {
     boolean canShootFire();
     int getScore();
     void addScore(int points);
-    boolean hasAbility(String ability);
+    boolean hasAbility(Ability ability);
+    // Bits of every Ability currently held (see Ability.mask())
+    long getCapabilities();
+
+    /**
+     * Compatibility shim for callers that name abilities by display name.
+     */
+    default boolean hasAbility(String ability) {
+        Ability typed = Ability.fromDisplayName(ability);
+        return typed != null && hasAbility(typed);
+    }
+
     List<String> getAbilities();
     int getLives();
 
@@ -27,7 +41,14 @@ public interface MarioComponent {
 
     Point getPosition();
     void setPosition(Point position);
+    // Allocation-free position access for per-tick code
+    int getX();
+    int getY();
+    int getWidth();
+    int getHeight();
+    void setPosition(int x, int y);
     String getStateEmoji();
+    GameSession getSession();
     void update();
     void move(int direction);
 }
\ No newline at end of file
@@ -0,0 +1,51 @@
+package level;
+
+import java.awt.*;
+
+/**
+ * Breakable brick block
+ */
+public class Block extends GameObject {
+    // As GameObject's collected stamp: broken only in the level epoch it was broken in
+    int brokenEpoch = Level.NEVER;
+
+    public Block(Point position) {
+        super(position, 40, 40, new Color(139, 69, 19));
+    }
+
+    @Override
+    public void render(Graphics2D g2d, int x, int y, int frame) {
+        // Draw brick texture
+        g2d.setColor(new Color(139, 69, 19));
+        g2d.fillRect(x, y, width, height);
+
+        // Add brick lines
+        g2d.setColor(new Color(101, 67, 33));
+        for (int i = 0; i < height; i += 10) {
+            g2d.drawLine(x, y + i, x + width, y + i);
+        }
+        for (int i = 0; i < width; i += 20) {
+            g2d.drawLine(x + i, y, x + i, y + height);
+        }
+
+        g2d.setColor(Color.BLACK);
+        g2d.drawRect(x, y, width, height);
+
+        // Draw label
+        g2d.setFont(new Font("Arial", Font.BOLD, 10));
+        g2d.drawString("🧱", x + 12, y - 5);
+    }
+
+    @Override
+    public boolean isVisible() {
+        return !isBroken();
+    }
+
+    public void breakBlock() {
+        brokenEpoch = epoch();
+    }
+
+    public boolean isBroken() {
+        return brokenEpoch == epoch();
+    }
+}
@@ -1,4 +1,4 @@
-package ui;
+package level;
 
 import java.awt.Color;
 import java.awt.Point;
@@ -6,58 +6,16 @@ import java.util.ArrayList;
 import java.util.List;
 
 /**
- * Individual level class
+ * The five levels the game ships with, built in code. LevelConverter writes
+ * them out as a level file, and LevelManager falls back to them when there
+ * is no level file to read.
  */
-class Level {
-    private List<GameObject> items;
-    private List<Block> blocks;
-    private String name;
-    private String description;
-    private Color backgroundColor;
+public final class BuiltInLevels {
+    private BuiltInLevels() { }
 
-    public Level(String name, String description, Color backgroundColor) {
-        this.name = name;
-        this.description = description;
-        this.backgroundColor = backgroundColor;
-        this.items = new ArrayList<>();
-        this.blocks = new ArrayList<>();
-    }
-
-    public void addItem(GameObject item) {
-        items.add(item);
-    }
-
-    public void addBlock(Block block) {
-        blocks.add(block);
-    }
-
-    public List<GameObject> getItems() { return items; }
-    public List<Block> getBlocks() { return blocks; }
-    public String getName() { return name; }
-    public String getDescription() { return description; }
-    public Color getBackgroundColor() { return backgroundColor; }
+    public static List<Level> create() {
+        List<Level> levels = new ArrayList<>();
 
-    public void reset() {
-        for (GameObject item : items) {
-            item.collected = false;
-        }
-        for (Block block : blocks) {
-            block.broken = false;
-        }
-    }
-}
-
-class LevelManager {
-    private List<Level> levels;
-    private int currentLevelIndex;
-
-    public LevelManager() {
-        levels = new ArrayList<>();
-        currentLevelIndex = 0;
-        createLevels();
-    }
-
-    private void createLevels() {
         // Level 1: Tutorial
         Level level1 = new Level("Level 1: Tutorial", "Learn the basics of Mario!", new Color(135, 206, 250));
         level1.addItem(new Mushroom(new Point(200, 400)));
@@ -116,37 +74,6 @@ class LevelManager {
             level5.addBlock(new Block(new Point(280 + i * 40, 400)));
         }
         levels.add(level5);
-    }
-
-    public Level getCurrentLevel() {
-        return levels.get(currentLevelIndex);
-    }
-
-    public void nextLevel() {
-        if (currentLevelIndex < levels.size() - 1) {
-            currentLevelIndex++;
-        }
-    }
-
-    public void previousLevel() {
-        if (currentLevelIndex > 0) {
-            currentLevelIndex--;
-        }
-    }
-
-    public void resetCurrentLevel() {
-        getCurrentLevel().reset();
-    }
-
-    public int getCurrentLevelNumber() {
-        return currentLevelIndex + 1;
-    }
-
-    public int getTotalLevels() {
-        return levels.size();
-    }
-
-    public boolean isLastLevel() {
-        return currentLevelIndex == levels.size() - 1;
+        return levels;
     }
 }
@@ -0,0 +1,61 @@
+package level;
+
+import java.util.List;
+
+/**
+ * One fixed-width slice of a {@link StreamingLevel}: the items and blocks
+ * whose left edge falls inside it, with their collision indexes. A chunk is
+ * built whole on a generator thread and only read and changed by the game
+ * thread once handed over.
+ */
+public final class Chunk {
+    // Rough heap cost of one object with its Point and its index entries
+    private static final int OBJECT_BYTES = 96;
+    // Rough heap cost of the chunk, its lists and two empty grids
+    private static final int CHUNK_BYTES = 2_400;
+
+    private final int index;
+    private final List<GameObject> items;
+    private final List<Block> blocks;
+    private final SpatialGrid<GameObject> itemGrid = new SpatialGrid<>();
+    private final SpatialGrid<Block> blockGrid = new SpatialGrid<>();
+
+    Chunk(int index, List<GameObject> items, List<Block> blocks) {
+        this.index = index;
+        this.items = items;
+        this.blocks = blocks;
+        for (GameObject item : items) {
+            itemGrid.insert(item);
+        }
+        for (Block block : blocks) {
+            blockGrid.insert(block);
+        }
+    }
+
+    void collectItem(GameObject item) {
+        item.collect();
+    }
+
+    void breakBlock(Block block) {
+        block.breakBlock();
+    }
+
+    void collectItems(int x, int y, int width, int height, List<GameObject> out) {
+        itemGrid.collect(x, y, width, height, out);
+    }
+
+    void collectBlocks(int x, int y, int width, int height, List<Block> out) {
+        blockGrid.collect(x, y, width, height, out);
+    }
+
+    public int getIndex() { return index; }
+    public List<GameObject> getItems() { return items; }
+    public List<Block> getBlocks() { return blocks; }
+
+    /**
+     * Estimated bytes this chunk keeps alive, for the streaming memory budget.
+     */
+    public long getFootprint() {
+        return CHUNK_BYTES + (long) (items.size() + blocks.size()) * OBJECT_BYTES;
+    }
+}
@@ -0,0 +1,32 @@
+package level;
+
+import java.awt.*;
+
+/**
+ * Fire Flower item - gives Mario fire power
+ */
+public class FireFlower extends GameObject {
+    public FireFlower(Point position) {
+        super(position, 30, 30, new Color(255, 150, 50));
+    }
+
+    @Override
+    public void render(Graphics2D g2d, int x, int y, int frame) {
+        // Draw fire flower
+        g2d.setColor(Color.ORANGE);
+        g2d.fillOval(x + 5, y, 20, 20);
+        g2d.setColor(Color.RED);
+        g2d.fillOval(x + 8, y + 3, 14, 14);
+        g2d.setColor(Color.YELLOW);
+        g2d.fillOval(x + 11, y + 6, 8, 8);
+
+        // Draw stem
+        g2d.setColor(Color.GREEN);
+        g2d.fillRect(x + 14, y + 15, 2, 10);
+
+        // Draw label
+        g2d.setColor(Color.BLACK);
+        g2d.setFont(new Font("Arial", Font.BOLD, 10));
+        g2d.drawString("🌸", x + 8, y - 5);
+    }
+}
@@ -0,0 +1,83 @@
+package level;
+
+import java.awt.*;
+
+/**
+ * Base class for all game objects
+ */
+public class GameObject {
+    protected Point position;
+    protected int width, height;
+    protected Color color;
+    // The level's epoch when collected; collected only while the level is still in that epoch
+    int collectedEpoch = Level.NEVER;
+    // Level the object was added to, whose epoch it is stamped with
+    Level level;
+
+    public GameObject(Point position, int width, int height, Color color) {
+        this.position = position;
+        this.width = width;
+        this.height = height;
+        this.color = color;
+    }
+
+    /**
+     * Current epoch of the object's level; objects outside a level are never reset.
+     */
+    final int epoch() {
+        return level != null ? level.getEpoch() : Level.FIRST_EPOCH;
+    }
+
+    public boolean checkCollision(Point marioPos) {
+        return checkCollision(marioPos.x, marioPos.y, 40, 40);
+    }
+
+    public boolean checkCollision(int x, int y, int width, int height) {
+        return !isCollected() && width > 0 && height > 0 && intersects(x, y, width, height);
+    }
+
+    public void draw(Graphics2D g2d) {
+        if (isVisible()) {
+            render(g2d, position.x, position.y, 0);
+        }
+    }
+
+    /**
+     * Draws the object with its top-left corner at (x, y) in the given animation
+     * frame. Anything drawn here may be rasterized once and reused, so it must
+     * depend on nothing but the arguments.
+     */
+    public void render(Graphics2D g2d, int x, int y, int frame) {
+        g2d.setColor(color);
+        g2d.fillRoundRect(x, y, width, height, 10, 10);
+        g2d.setColor(Color.BLACK);
+        g2d.drawRoundRect(x, y, width, height, 10, 10);
+    }
+
+    /**
+     * The animation frame to show at the given animation time.
+     */
+    public int getFrame(long time) {
+        return 0;
+    }
+
+    public boolean isVisible() {
+        return !isCollected();
+    }
+
+    /**
+     * Axis-aligned bounding box overlap test against the given box.
+     */
+    public boolean intersects(int x, int y, int width, int height) {
+        return x < position.x + this.width && position.x < x + width
+                && y < position.y + this.height && position.y < y + height;
+    }
+
+    public void collect() { collectedEpoch = epoch(); }
+    public boolean isCollected() { return collectedEpoch == epoch(); }
+    public Point getPosition() { return position; }
+    public int getX() { return position.x; }
+    public int getY() { return position.y; }
+    public int getWidth() { return width; }
+    public int getHeight() { return height; }
+}
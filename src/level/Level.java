@@ -0,0 +1,195 @@
+package level;
+
+import java.awt.Color;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Individual level class
+ */
+public class Level {
+    /** Stamp of an object never collected or broken */
+    static final int NEVER = 0;
+    static final int FIRST_EPOCH = 1;
+
+    private List<GameObject> items;
+    private List<Block> blocks;
+    // Collision indexes over every item and block; queries skip the collected and broken
+    private SpatialGrid<GameObject> itemGrid;
+    private SpatialGrid<Block> blockGrid;
+    private String name;
+    private String description;
+    private Color backgroundColor;
+    // Bumped whenever an item or block disappears or comes back, so renderers know to look
+    private int modCount;
+    // Bumped whenever objects join or leave the item and block lists
+    private int contentVersion;
+    // Right edge of the rightmost object
+    private int width;
+    // Objects count as collected or broken only if stamped with the current epoch,
+    // so moving to the next epoch brings everything back at once
+    private int epoch = FIRST_EPOCH;
+
+    public Level(String name, String description, Color backgroundColor) {
+        this.name = name;
+        this.description = description;
+        this.backgroundColor = backgroundColor;
+        this.items = new ArrayList<>();
+        this.blocks = new ArrayList<>();
+        this.itemGrid = new SpatialGrid<>();
+        this.blockGrid = new SpatialGrid<>();
+    }
+
+    public void addItem(GameObject item) {
+        boolean collected = item.isCollected();
+        item.level = this;
+        item.collectedEpoch = collected ? epoch : NEVER;
+        items.add(item);
+        itemGrid.insert(item);
+        added(item);
+    }
+
+    public void addBlock(Block block) {
+        boolean broken = block.isBroken();
+        block.level = this;
+        block.brokenEpoch = broken ? epoch : NEVER;
+        blocks.add(block);
+        blockGrid.insert(block);
+        added(block);
+    }
+
+    private void added(GameObject object) {
+        width = Math.max(width, object.getX() + object.getWidth());
+        contentVersion++;
+    }
+
+    /**
+     * Called once per tick with Mario's x. Levels that stream their contents
+     * load what is coming up and drop what is far behind; the rest ignore it.
+     */
+    public void update(int focusX) { }
+
+    public void collectItem(GameObject item) {
+        item.collect();
+        modCount++;
+    }
+
+    public void breakBlock(Block block) {
+        block.breakBlock();
+        modCount++;
+    }
+
+    /**
+     * Fills {@code out} with the uncollected items overlapping the box.
+     */
+    public void findItems(int x, int y, int width, int height, List<GameObject> out) {
+        itemGrid.query(x, y, width, height, out);
+    }
+
+    /**
+     * Fills {@code out} with the unbroken blocks overlapping the box.
+     */
+    public void findBlocks(int x, int y, int width, int height, List<Block> out) {
+        blockGrid.query(x, y, width, height, out);
+    }
+
+    public List<GameObject> getItems() { return items; }
+    public List<Block> getBlocks() { return blocks; }
+    public String getName() { return name; }
+    public String getDescription() { return description; }
+    public Color getBackgroundColor() { return backgroundColor; }
+    public int getModCount() { return modCount; }
+    public int getEpoch() { return epoch; }
+    public int getContentVersion() { return contentVersion; }
+    /** How far right the level reaches; Mario may walk up to here even past the window */
+    public int getWidth() { return width; }
+
+    /** For subclasses: an object disappeared or came back */
+    protected void changed() { modCount++; }
+
+    /** For subclasses: objects joined or left the item and block lists */
+    protected void contentChanged() {
+        contentVersion++;
+        modCount++;
+    }
+
+    /**
+     * Writes which items are collected and which blocks broken, as a bitset
+     * over each list: int itemCount, its bits in longs, int blockCount, its bits.
+     */
+    public void saveProgress(ByteBuffer out) {
+        putProgress(out, items, blocks);
+    }
+
+    /**
+     * Resets the level, then collects and breaks what {@link #saveProgress} wrote down.
+     *
+     * @return false if the saved lists do not have this level's sizes
+     */
+    public boolean loadProgress(ByteBuffer in) {
+        reset();
+        return getProgress(in, items, blocks);
+    }
+
+    static void putProgress(ByteBuffer out, List<GameObject> items, List<Block> blocks) {
+        out.putInt(items.size());
+        long bits = 0;
+        for (int i = 0; i < items.size(); i++) {
+            if (items.get(i).isCollected()) bits |= 1L << i;
+            if ((i & 63) == 63) {
+                out.putLong(bits);
+                bits = 0;
+            }
+        }
+        if ((items.size() & 63) != 0) out.putLong(bits);
+        out.putInt(blocks.size());
+        bits = 0;
+        for (int i = 0; i < blocks.size(); i++) {
+            if (blocks.get(i).isBroken()) bits |= 1L << i;
+            if ((i & 63) == 63) {
+                out.putLong(bits);
+                bits = 0;
+            }
+        }
+        if ((blocks.size() & 63) != 0) out.putLong(bits);
+    }
+
+    /**
+     * Collects and breaks the objects whose bits are set; the rest are left as they are.
+     */
+    static boolean getProgress(ByteBuffer in, List<GameObject> items, List<Block> blocks) {
+        if (in.getInt() != items.size()) return false;
+        long bits = 0;
+        for (int i = 0; i < items.size(); i++) {
+            if ((i & 63) == 0) bits = in.getLong();
+            if ((bits & 1L << i) != 0) items.get(i).collect();
+        }
+        if (in.getInt() != blocks.size()) return false;
+        for (int i = 0; i < blocks.size(); i++) {
+            if ((i & 63) == 0) bits = in.getLong();
+            if ((bits & 1L << i) != 0) blocks.get(i).breakBlock();
+        }
+        return true;
+    }
+
+    /**
+     * Brings back every collected item and broken block by starting a new
+     * epoch, whatever the size of the level.
+     */
+    public void reset() {
+        modCount++;
+        if (epoch == Integer.MAX_VALUE) {
+            // Once in four billion resets: clear the stamps so old ones cannot match again
+            for (GameObject item : items) {
+                item.collectedEpoch = NEVER;
+            }
+            for (Block block : blocks) {
+                block.brokenEpoch = NEVER;
+            }
+            epoch = FIRST_EPOCH;
+        } else {
+            epoch++;
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package level;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+
+/**
+ * Exports the built-in levels as a level file and reads it back to check it.
+ *
+ * Usage: java level.LevelConverter [output]   (default levels/levels.dat)
+ */
+public final class LevelConverter {
+    private LevelConverter() { }
+
+    public static void main(String[] args) throws IOException {
+        Path path = Paths.get(args.length > 0 ? args[0] : LevelFile.DEFAULT_PATH);
+        List<Level> levels = BuiltInLevels.create();
+        LevelFile.write(path, levels);
+
+        LevelFile file = LevelFile.open(path);
+        for (int i = 0; i < levels.size(); i++) {
+            Level expected = levels.get(i);
+            Level actual = file.load(i);
+            if (!sameLevel(expected, actual)) {
+                System.err.println("Level " + (i + 1) + " did not survive the round trip");
+                System.exit(1);
+            }
+            System.out.printf("%-32s %3d items %3d blocks%n",
+                    actual.getName(), actual.getItems().size(), actual.getBlocks().size());
+        }
+        System.out.printf("Wrote %d levels, %,d bytes, to %s%n", levels.size(), Files.size(path), path);
+    }
+
+    /**
+     * Same text, colour, and items and blocks of the same kinds in the same places.
+     */
+    public static boolean sameLevel(Level a, Level b) {
+        if (!a.getName().equals(b.getName())
+                || !a.getDescription().equals(b.getDescription())
+                || a.getBackgroundColor().getRGB() != b.getBackgroundColor().getRGB()
+                || a.getItems().size() != b.getItems().size()
+                || a.getBlocks().size() != b.getBlocks().size()) {
+            return false;
+        }
+        for (int i = 0; i < a.getItems().size(); i++) {
+            if (!samePlace(a.getItems().get(i), b.getItems().get(i))) return false;
+        }
+        for (int i = 0; i < a.getBlocks().size(); i++) {
+            if (!samePlace(a.getBlocks().get(i), b.getBlocks().get(i))) return false;
+        }
+        return true;
+    }
+
+    private static boolean samePlace(GameObject a, GameObject b) {
+        return a.getClass() == b.getClass() && a.getPosition().equals(b.getPosition());
+    }
+}
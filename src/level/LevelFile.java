@@ -0,0 +1,226 @@
+package level;
+
+import java.awt.Color;
+import java.awt.Point;
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+/**
+ * A pack of levels in a compact binary file, mapped into memory when opened.
+ * Opening reads only the header and the level directory; a level's name,
+ * items and blocks are decoded into a {@link Level} only when {@link #load}
+ * asks for it, so a pack of hundreds of levels costs next to nothing until
+ * they are played.
+ *
+ * Layout, big-endian:
+ * <pre>
+ * header     int magic "MLVL", short version, short reserved, int levelCount
+ * directory  levelCount x int offset of the level record
+ * level      short nameLength, name (UTF-8), short descriptionLength, description (UTF-8),
+ *            int backgroundRgb, int itemCount, int blockCount,
+ *            item table  itemCount x (byte type, int x, int y),
+ *            block table blockCount x (int x, int y)
+ * </pre>
+ *
+ * The mapped buffer is only ever read with absolute gets, so one open file can
+ * be shared by any number of LevelManagers on any number of threads.
+ */
+public final class LevelFile {
+    public static final int MAGIC = 0x4D4C564C; // "MLVL"
+    public static final short VERSION = 1;
+    /** Where the game looks for its levels unless the mario.levels property says otherwise */
+    public static final String DEFAULT_PATH = "levels/levels.dat";
+
+    static final byte MUSHROOM = 1;
+    static final byte FIRE_FLOWER = 2;
+    static final byte STAR = 3;
+
+    private static final int HEADER_BYTES = 12;
+    private static final int ITEM_BYTES = 9;
+    private static final int BLOCK_BYTES = 8;
+
+    private final ByteBuffer buffer;
+    private final int levelCount;
+
+    private LevelFile(ByteBuffer buffer) throws IOException {
+        this.buffer = buffer;
+        if (buffer.limit() < HEADER_BYTES || buffer.getInt(0) != MAGIC) {
+            throw new IOException("Not a level file");
+        }
+        short version = buffer.getShort(4);
+        if (version != VERSION) {
+            throw new IOException("Unsupported level file version " + version);
+        }
+        this.levelCount = buffer.getInt(8);
+        if (levelCount < 0 || HEADER_BYTES + (long) levelCount * 4 > buffer.limit()) {
+            throw new IOException("Level directory runs past the end of the file");
+        }
+        for (int i = 0; i < levelCount; i++) {
+            int offset = offsetOf(i);
+            if (offset < HEADER_BYTES || offset >= buffer.limit()) {
+                throw new IOException("Level " + (i + 1) + " starts outside the file");
+            }
+        }
+    }
+
+    /**
+     * Maps the file read-only; the mapping outlives the channel, which is closed here.
+     */
+    public static LevelFile open(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            return new LevelFile(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        }
+    }
+
+    /**
+     * The game's level file, opened once and shared, or null if there is none
+     * (or it cannot be read) and the built-in levels should be used instead.
+     */
+    public static LevelFile getDefault() {
+        return DefaultHolder.FILE;
+    }
+
+    private static final class DefaultHolder {
+        static final LevelFile FILE = openDefault();
+
+        private static LevelFile openDefault() {
+            Path path = Paths.get(System.getProperty("mario.levels", DEFAULT_PATH));
+            if (!Files.isRegularFile(path)) return null;
+            try {
+                return open(path);
+            } catch (IOException e) {
+                System.err.println("Ignoring level file " + path + ": " + e.getMessage());
+                return null;
+            }
+        }
+    }
+
+    public int getLevelCount() {
+        return levelCount;
+    }
+
+    /**
+     * Decodes level {@code index} (0-based) into a new Level.
+     */
+    public Level load(int index) {
+        if (index < 0 || index >= levelCount) {
+            throw new IndexOutOfBoundsException("Level " + index + " of " + levelCount);
+        }
+        int at = offsetOf(index);
+        String name = readString(at);
+        at += 2 + buffer.getShort(at);
+        String description = readString(at);
+        at += 2 + buffer.getShort(at);
+        Color background = new Color(buffer.getInt(at));
+        int itemCount = buffer.getInt(at + 4);
+        int blockCount = buffer.getInt(at + 8);
+        at += 12;
+
+        Level level = new Level(name, description, background);
+        for (int i = 0; i < itemCount; i++, at += ITEM_BYTES) {
+            Point position = new Point(buffer.getInt(at + 1), buffer.getInt(at + 5));
+            level.addItem(createItem(buffer.get(at), position));
+        }
+        for (int i = 0; i < blockCount; i++, at += BLOCK_BYTES) {
+            level.addBlock(new Block(new Point(buffer.getInt(at), buffer.getInt(at + 4))));
+        }
+        return level;
+    }
+
+    /**
+     * Name of level {@code index} without decoding the rest of it.
+     */
+    public String getName(int index) {
+        return readString(offsetOf(index));
+    }
+
+    private int offsetOf(int index) {
+        return buffer.getInt(HEADER_BYTES + index * 4);
+    }
+
+    private String readString(int at) {
+        byte[] bytes = new byte[buffer.getShort(at)];
+        buffer.get(at + 2, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static GameObject createItem(byte type, Point position) {
+        switch (type) {
+            case MUSHROOM: return new Mushroom(position);
+            case FIRE_FLOWER: return new FireFlower(position);
+            case STAR: return new Star(position);
+            default: throw new IllegalStateException("Unknown item type " + type);
+        }
+    }
+
+    private static byte typeOf(GameObject item) {
+        if (item instanceof Mushroom) return MUSHROOM;
+        if (item instanceof FireFlower) return FIRE_FLOWER;
+        if (item instanceof Star) return STAR;
+        throw new IllegalArgumentException("No item type for " + item.getClass().getSimpleName());
+    }
+
+    /**
+     * Writes {@code levels} as a level file, replacing whatever is at {@code path}.
+     * Items and blocks are written where they start, collected or not.
+     */
+    public static void write(Path path, List<Level> levels) throws IOException {
+        byte[][] records = new byte[levels.size()][];
+        for (int i = 0; i < records.length; i++) {
+            records[i] = encode(levels.get(i));
+        }
+
+        Path parent = path.toAbsolutePath().getParent();
+        if (parent != null) Files.createDirectories(parent);
+        try (OutputStream file = Files.newOutputStream(path);
+             DataOutputStream out = new DataOutputStream(new BufferedOutputStream(file))) {
+            out.writeInt(MAGIC);
+            out.writeShort(VERSION);
+            out.writeShort(0);
+            out.writeInt(records.length);
+            int offset = HEADER_BYTES + records.length * 4;
+            for (byte[] record : records) {
+                out.writeInt(offset);
+                offset += record.length;
+            }
+            for (byte[] record : records) {
+                out.write(record);
+            }
+        }
+    }
+
+    private static byte[] encode(Level level) {
+        byte[] name = level.getName().getBytes(StandardCharsets.UTF_8);
+        byte[] description = level.getDescription().getBytes(StandardCharsets.UTF_8);
+        if (name.length > Short.MAX_VALUE || description.length > Short.MAX_VALUE) {
+            throw new IllegalArgumentException("Level text too long: " + level.getName());
+        }
+        List<GameObject> items = level.getItems();
+        List<Block> blocks = level.getBlocks();
+
+        ByteBuffer record = ByteBuffer.allocate(4 + name.length + description.length + 12
+                + items.size() * ITEM_BYTES + blocks.size() * BLOCK_BYTES);
+        record.putShort((short) name.length).put(name);
+        record.putShort((short) description.length).put(description);
+        record.putInt(level.getBackgroundColor().getRGB());
+        record.putInt(items.size());
+        record.putInt(blocks.size());
+        for (GameObject item : items) {
+            record.put(typeOf(item)).putInt(item.getX()).putInt(item.getY());
+        }
+        for (Block block : blocks) {
+            record.putInt(block.getX()).putInt(block.getY());
+        }
+        return record.array();
+    }
+}
@@ -0,0 +1,127 @@
+package level;
+
+import java.awt.Color;
+import java.util.List;
+
+/**
+ * Holds the game's levels and tracks which one is current.
+ * After the fixed levels comes an endless, generated one.
+ */
+public class LevelManager {
+    // The endless level is the same world every game
+    public static final long ENDLESS_SEED = 1985;
+
+    // Null when the levels are the built-in ones, all made up front
+    private final LevelFile file;
+    // Levels from the file, and the endless one, are made the first time they become current
+    private final Level[] levels;
+    private int currentLevelIndex;
+
+    /**
+     * Uses the game's level file if there is one, the built-in levels otherwise.
+     */
+    public LevelManager() {
+        this(LevelFile.getDefault());
+    }
+
+    /**
+     * Plays the levels in {@code file}, or the built-in levels if it is null.
+     */
+    public LevelManager(LevelFile file) {
+        this.file = file;
+        if (file != null) {
+            this.levels = new Level[file.getLevelCount() + 1];
+        } else {
+            List<Level> builtIn = BuiltInLevels.create();
+            this.levels = builtIn.toArray(new Level[builtIn.size() + 1]);
+        }
+        currentLevelIndex = 0;
+    }
+
+    /**
+     * Plays {@code levels}, then the endless level.
+     */
+    public LevelManager(List<Level> levels) {
+        this.file = null;
+        this.levels = levels.toArray(new Level[levels.size() + 1]);
+        currentLevelIndex = 0;
+    }
+
+    public Level getCurrentLevel() {
+        return getLevel(currentLevelIndex);
+    }
+
+    /**
+     * Level {@code index} (0-based), made now if it has not been yet.
+     */
+    public Level getLevel(int index) {
+        Level level = levels[index];
+        if (level == null) {
+            level = index == levels.length - 1 ? createEndless() : file.load(index);
+            levels[index] = level;
+        }
+        return level;
+    }
+
+    /**
+     * Level {@code index} (0-based), or null if it has not been played yet and
+     * so is still as new.
+     */
+    public Level getLoadedLevel(int index) {
+        return levels[index];
+    }
+
+    private Level createEndless() {
+        return new StreamingLevel("Level " + levels.length + ": Endless Run",
+                "How far can you go?", new Color(100, 149, 237), ENDLESS_SEED);
+    }
+
+    public void nextLevel() {
+        if (currentLevelIndex < levels.length - 1) {
+            currentLevelIndex++;
+        }
+    }
+
+    public void previousLevel() {
+        if (currentLevelIndex > 0) {
+            currentLevelIndex--;
+        }
+    }
+
+    public void resetCurrentLevel() {
+        getCurrentLevel().reset();
+    }
+
+    /**
+     * Back to the first level with every level as new. Only levels that were
+     * ever played need resetting, and each reset is one epoch bump.
+     */
+    public void restart() {
+        for (Level level : levels) {
+            if (level != null) level.reset();
+        }
+        currentLevelIndex = 0;
+    }
+
+    public int getCurrentLevelNumber() {
+        return currentLevelIndex + 1;
+    }
+
+    /**
+     * Makes level {@code number} (1-based) the current one.
+     */
+    public void setCurrentLevelNumber(int number) {
+        if (number < 1 || number > levels.length) {
+            throw new IllegalArgumentException("No level " + number);
+        }
+        currentLevelIndex = number - 1;
+    }
+
+    public int getTotalLevels() {
+        return levels.length;
+    }
+
+    public boolean isLastLevel() {
+        return currentLevelIndex == levels.length - 1;
+    }
+}
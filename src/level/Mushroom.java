@@ -0,0 +1,29 @@
+package level;
+
+import java.awt.*;
+
+/**
+ * Mushroom item - powers Mario up
+ */
+public class Mushroom extends GameObject {
+    public Mushroom(Point position) {
+        super(position, 30, 30, new Color(255, 100, 100));
+    }
+
+    @Override
+    public void render(Graphics2D g2d, int x, int y, int frame) {
+        // Draw mushroom
+        g2d.setColor(new Color(255, 200, 200));
+        g2d.fillOval(x, y, width, height);
+        g2d.setColor(Color.RED);
+        g2d.fillOval(x + 5, y + 5, width - 10, height - 15);
+        g2d.setColor(Color.WHITE);
+        g2d.fillOval(x + 8, y + 8, 6, 6);
+        g2d.fillOval(x + 16, y + 8, 6, 6);
+
+        // Draw label
+        g2d.setColor(Color.BLACK);
+        g2d.setFont(new Font("Arial", Font.BOLD, 10));
+        g2d.drawString("🍄", x + 8, y - 5);
+    }
+}
@@ -0,0 +1,141 @@
+package level;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Uniform grid over world space for collision queries.
+ * Each object is filed under the cell that holds its top-left corner, and queries
+ * widen their search by the largest object size so nothing overlapping is missed.
+ * Cells live in an open-addressing table keyed by cell coordinates, so the world
+ * needs no fixed bounds and lookups do not box their keys.
+ * Collected and broken objects may stay filed; queries pass over them.
+ */
+public class SpatialGrid<T extends GameObject> {
+    public static final int CELL_SIZE = 64;
+
+    private long[] keys;
+    private List<T>[] cells;
+    private int cellCount;
+    private int size;
+    private int maxObjectSize;
+
+    public SpatialGrid() {
+        allocate(64);
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private void allocate(int capacity) {
+        keys = new long[capacity];
+        cells = new List[capacity];
+        cellCount = 0;
+    }
+
+    public void insert(T object) {
+        maxObjectSize = Math.max(maxObjectSize, Math.max(object.getWidth(), object.getHeight()));
+        cellFor(object.getX(), object.getY(), true).add(object);
+        size++;
+    }
+
+    public void remove(T object) {
+        List<T> cell = cellFor(object.getX(), object.getY(), false);
+        if (cell != null && cell.remove(object)) {
+            size--;
+        }
+    }
+
+    public void clear() {
+        allocate(64);
+        size = 0;
+        maxObjectSize = 0;
+    }
+
+    /**
+     * Replaces the contents of {@code out} with every visible object whose bounds intersect the box.
+     * Only the cells the box (widened by the largest object) covers are visited.
+     */
+    public void query(int x, int y, int width, int height, List<T> out) {
+        out.clear();
+        collect(x, y, width, height, out);
+    }
+
+    /**
+     * Same as {@link #query} but adds to {@code out} instead of replacing it,
+     * for gathering results from several grids.
+     */
+    public void collect(int x, int y, int width, int height, List<T> out) {
+        if (size == 0) return;
+        int minCellX = Math.floorDiv(x - maxObjectSize, CELL_SIZE);
+        int minCellY = Math.floorDiv(y - maxObjectSize, CELL_SIZE);
+        int maxCellX = Math.floorDiv(x + width - 1, CELL_SIZE);
+        int maxCellY = Math.floorDiv(y + height - 1, CELL_SIZE);
+        for (int cx = minCellX; cx <= maxCellX; cx++) {
+            for (int cy = minCellY; cy <= maxCellY; cy++) {
+                List<T> cell = find(key(cx, cy));
+                if (cell == null) continue;
+                for (int i = 0; i < cell.size(); i++) {
+                    T object = cell.get(i);
+                    if (object.isVisible() && object.intersects(x, y, width, height)) {
+                        out.add(object);
+                    }
+                }
+            }
+        }
+    }
+
+    public int size() {
+        return size;
+    }
+
+    private List<T> cellFor(int x, int y, boolean create) {
+        long key = key(Math.floorDiv(x, CELL_SIZE), Math.floorDiv(y, CELL_SIZE));
+        List<T> cell = find(key);
+        if (cell == null && create) {
+            if ((cellCount + 1) * 2 > keys.length) {
+                grow();
+            }
+            cell = new ArrayList<>(4);
+            put(key, cell);
+        }
+        return cell;
+    }
+
+    private List<T> find(long key) {
+        int mask = keys.length - 1;
+        for (int i = hash(key) & mask; cells[i] != null; i = (i + 1) & mask) {
+            if (keys[i] == key) return cells[i];
+        }
+        return null;
+    }
+
+    private void put(long key, List<T> cell) {
+        int mask = keys.length - 1;
+        int i = hash(key) & mask;
+        while (cells[i] != null) {
+            i = (i + 1) & mask;
+        }
+        keys[i] = key;
+        cells[i] = cell;
+        cellCount++;
+    }
+
+    private void grow() {
+        long[] oldKeys = keys;
+        List<T>[] oldCells = cells;
+        allocate(oldKeys.length * 2);
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldCells[i] != null) {
+                put(oldKeys[i], oldCells[i]);
+            }
+        }
+    }
+
+    private static long key(int cellX, int cellY) {
+        return ((long) cellX << 32) | (cellY & 0xFFFFFFFFL);
+    }
+
+    private static int hash(long key) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+}
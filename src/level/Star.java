@@ -0,0 +1,52 @@
+package level;
+
+import java.awt.*;
+
+/**
+ * Star item - makes Mario temporarily invincible
+ */
+public class Star extends GameObject {
+    // Pulse offsets run from -PULSE to PULSE
+    private static final int PULSE = 5;
+
+    private int animationFrame = 0;
+
+    public Star(Point position) {
+        super(position, 30, 30, Color.YELLOW);
+    }
+
+    @Override
+    public void draw(Graphics2D g2d) {
+        if (!isCollected()) {
+            // Animated star
+            animationFrame++;
+            render(g2d, position.x, position.y, getFrame(animationFrame));
+        }
+    }
+
+    @Override
+    public void render(Graphics2D g2d, int x, int y, int frame) {
+        int pulse = frame - PULSE;
+
+        g2d.setColor(Color.YELLOW);
+        int[] xPoints = {x + 15, x + 18, x + 25, x + 20, x + 22,
+                x + 15, x + 8, x + 10, x + 5, x + 12};
+        int[] yPoints = {y + pulse, y + 8 + pulse, y + 8 + pulse, y + 15 + pulse,
+                y + 25 + pulse, y + 20 + pulse, y + 25 + pulse, y + 15 + pulse,
+                y + 8 + pulse, y + 8 + pulse};
+        g2d.fillPolygon(xPoints, yPoints, 10);
+
+        g2d.setColor(Color.ORANGE);
+        g2d.drawPolygon(xPoints, yPoints, 10);
+
+        // Draw label
+        g2d.setColor(Color.BLACK);
+        g2d.setFont(new Font("Arial", Font.BOLD, 10));
+        g2d.drawString("⭐", x + 8, y - 5);
+    }
+
+    @Override
+    public int getFrame(long time) {
+        return (int)(Math.sin(time * 0.3) * PULSE) + PULSE;
+    }
+}
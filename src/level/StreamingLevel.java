@@ -0,0 +1,355 @@
+package level;
+
+import java.awt.Color;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * An endless level built chunk by chunk as Mario travels. Chunks ahead of him
+ * are generated on background threads; chunks he has left behind stay around
+ * while they fit in the memory budget and are then dropped, farthest first.
+ * However far he goes, the level holds about a budget's worth of chunks.
+ *
+ * A dropped chunk is rebuilt from the seed if Mario walks back to it, with
+ * everything on it back in place, like a screen scrolled back into view.
+ *
+ * Which chunks are in memory depends only on where Mario has been, never on
+ * how fast the generator threads are: {@link #update(int)} alone installs
+ * chunks, all those around Mario each tick, building any not ready yet on
+ * the game thread, and the queries see only installed chunks. So a replay
+ * collides, saves and evicts the same way however the threads run.
+ *
+ * All methods are for the game thread; generator threads only ever build a
+ * chunk and hand it over through its future.
+ */
+public class StreamingLevel extends Level {
+    public static final int CHUNK_WIDTH = WorldGenerator.CHUNK_WIDTH;
+    public static final long DEFAULT_BUDGET_BYTES = 1L << 20;
+    // Chunks installed ahead of Mario, and never dropped behind him
+    private static final int AHEAD = 3;
+    private static final int BEHIND = 1;
+    // Chunks generated beyond those installed ahead, so they are built by the time he gets near
+    private static final int PREFETCH = 2;
+    // Wider than any object, so queries also look at the chunk an object may overhang from
+    private static final int MAX_OBJECT_SIZE = 64;
+
+    private final WorldGenerator generator;
+    private final long budgetBytes;
+
+    // Chunks [first, first + count) in a ring: each is generating, or done and installed
+    private CompletableFuture<Chunk>[] futures;
+    private Chunk[] chunks;
+    private int head;
+    private int first;
+    private int count;
+    private long residentBytes;
+    private long generated;
+    private long stalls;
+
+    // Every object of the installed chunks, rebuilt when the set of chunks changes
+    private final List<GameObject> items = new ArrayList<>();
+    private final List<Block> blocks = new ArrayList<>();
+    private int listedVersion = -1;
+
+    public StreamingLevel(String name, String description, Color backgroundColor, long seed) {
+        this(name, description, backgroundColor, new WorldGenerator(seed), DEFAULT_BUDGET_BYTES);
+    }
+
+    public StreamingLevel(String name, String description, Color backgroundColor,
+                          WorldGenerator generator, long budgetBytes) {
+        super(name, description, backgroundColor);
+        this.generator = generator;
+        this.budgetBytes = budgetBytes;
+        allocate(16);
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private void allocate(int capacity) {
+        futures = new CompletableFuture[capacity];
+        chunks = new Chunk[capacity];
+        head = 0;
+    }
+
+    private static final class Workers {
+        static final ExecutorService POOL = Executors.newFixedThreadPool(
+                Math.max(1, Runtime.getRuntime().availableProcessors() - 1), task -> {
+                    Thread thread = new Thread(task, "chunk-generator");
+                    thread.setDaemon(true);
+                    return thread;
+                });
+    }
+
+    @Override
+    public void update(int focusX) {
+        int focus = Math.floorDiv(focusX, CHUNK_WIDTH);
+        int from = Math.max(0, focus - BEHIND);
+        require(from, focus + AHEAD + PREFETCH);
+        for (int i = from; i <= focus + AHEAD; i++) {
+            ready(i);
+        }
+        evict(focus);
+    }
+
+    /**
+     * Makes chunks {@code from} to {@code to} part of the resident run, starting
+     * generation for any that are new. A run that would not touch the current
+     * one replaces it.
+     */
+    private void require(int from, int to) {
+        if (count == 0 || to < first - 1 || from > first + count) {
+            clear();
+            first = from;
+        }
+        while (first > from) {
+            if (count == futures.length) grow();
+            head = (head - 1) & (futures.length - 1);
+            first--;
+            count++;
+            start(head, first);
+        }
+        while (first + count - 1 < to) {
+            if (count == futures.length) grow();
+            count++;
+            int index = first + count - 1;
+            start(slot(index), index);
+        }
+    }
+
+    private void start(int slot, int index) {
+        CompletableFuture<Chunk> future = new CompletableFuture<>();
+        futures[slot] = future;
+        chunks[slot] = null;
+        Workers.POOL.execute(() -> {
+            // Skip chunks dropped, or built by the game thread, while queued
+            if (!future.isDone()) future.complete(generator.generate(index));
+        });
+    }
+
+    private void install(int slot, Chunk chunk) {
+        chunks[slot] = chunk;
+        residentBytes += chunk.getFootprint();
+        generated++;
+        contentChanged();
+    }
+
+    /**
+     * Drops chunks from whichever end of the run is farther from {@code focus}
+     * until the installed ones fit the budget, keeping those Mario needs.
+     */
+    private void evict(int focus) {
+        while (residentBytes > budgetBytes && count > 0) {
+            int last = first + count - 1;
+            boolean dropFirst = focus - first >= last - focus;
+            if (dropFirst ? focus - first <= BEHIND : last - focus <= AHEAD + PREFETCH) break;
+            int slot = dropFirst ? head : slot(last);
+            drop(slot);
+            if (dropFirst) {
+                head = (head + 1) & (futures.length - 1);
+                first++;
+            }
+            count--;
+        }
+    }
+
+    private void drop(int slot) {
+        futures[slot].cancel(false);
+        futures[slot] = null;
+        if (chunks[slot] != null) {
+            residentBytes -= chunks[slot].getFootprint();
+            chunks[slot] = null;
+            contentChanged();
+        }
+    }
+
+    private void clear() {
+        for (int i = 0; i < count; i++) {
+            drop(slot(first + i));
+        }
+        count = 0;
+        head = 0;
+    }
+
+    private void grow() {
+        CompletableFuture<Chunk>[] oldFutures = futures;
+        Chunk[] oldChunks = chunks;
+        int oldHead = head;
+        allocate(oldFutures.length * 2);
+        for (int i = 0; i < count; i++) {
+            int from = (oldHead + i) & (oldFutures.length - 1);
+            futures[i] = oldFutures[from];
+            chunks[i] = oldChunks[from];
+        }
+    }
+
+    private int slot(int index) {
+        return (head + index - first) & (futures.length - 1);
+    }
+
+    /**
+     * The chunk at {@code index} in the resident run, installed: waiting for
+     * it - or building it here, if no generator thread has got to it yet -
+     * when it is not ready.
+     */
+    private Chunk ready(int index) {
+        int slot = slot(index);
+        Chunk chunk = chunks[slot];
+        if (chunk == null) {
+            CompletableFuture<Chunk> future = futures[slot];
+            if (!future.isDone()) {
+                stalls++;
+                future.complete(generator.generate(index));
+            }
+            chunk = future.join();
+            install(slot, chunk);
+        }
+        return chunk;
+    }
+
+    /**
+     * The chunk at {@code index} if it is installed, else null. Queries go
+     * through here, so they never change what is in memory.
+     */
+    private Chunk installed(int index) {
+        if (index < first || index >= first + count) return null;
+        return chunks[slot(index)];
+    }
+
+    @Override
+    public void findItems(int x, int y, int width, int height, List<GameObject> out) {
+        out.clear();
+        int last = Math.floorDiv(x + width - 1, CHUNK_WIDTH);
+        for (int i = Math.max(0, Math.floorDiv(x - MAX_OBJECT_SIZE, CHUNK_WIDTH)); i <= last; i++) {
+            Chunk chunk = installed(i);
+            if (chunk != null) chunk.collectItems(x, y, width, height, out);
+        }
+    }
+
+    @Override
+    public void findBlocks(int x, int y, int width, int height, List<Block> out) {
+        out.clear();
+        int last = Math.floorDiv(x + width - 1, CHUNK_WIDTH);
+        for (int i = Math.max(0, Math.floorDiv(x - MAX_OBJECT_SIZE, CHUNK_WIDTH)); i <= last; i++) {
+            Chunk chunk = installed(i);
+            if (chunk != null) chunk.collectBlocks(x, y, width, height, out);
+        }
+    }
+
+    @Override
+    public void collectItem(GameObject item) {
+        Chunk chunk = installed(Math.floorDiv(item.getX(), CHUNK_WIDTH));
+        // An item of a chunk dropped since it was found comes back as new anyway
+        if (chunk == null) return;
+        chunk.collectItem(item);
+        changed();
+    }
+
+    @Override
+    public void breakBlock(Block block) {
+        Chunk chunk = installed(Math.floorDiv(block.getX(), CHUNK_WIDTH));
+        if (chunk == null) return;
+        chunk.breakBlock(block);
+        changed();
+    }
+
+    /**
+     * Items of the chunks currently in memory.
+     */
+    @Override
+    public List<GameObject> getItems() {
+        list();
+        return items;
+    }
+
+    /**
+     * Blocks of the chunks currently in memory.
+     */
+    @Override
+    public List<Block> getBlocks() {
+        list();
+        return blocks;
+    }
+
+    private void list() {
+        if (listedVersion == getContentVersion()) return;
+        items.clear();
+        blocks.clear();
+        for (int i = 0; i < count; i++) {
+            Chunk chunk = chunks[slot(first + i)];
+            if (chunk != null) {
+                items.addAll(chunk.getItems());
+                blocks.addAll(chunk.getBlocks());
+            }
+        }
+        listedVersion = getContentVersion();
+    }
+
+    /**
+     * Starts the world over: every chunk is dropped and built fresh as Mario
+     * gets near it again.
+     */
+    @Override
+    public void reset() {
+        super.reset();
+        clear();
+        contentChanged();
+    }
+
+    /**
+     * Writes the progress on each chunk in memory: int chunkCount, then per
+     * chunk its int index and its bitsets. Dropped chunks come back as new anyway.
+     */
+    @Override
+    public void saveProgress(ByteBuffer out) {
+        int countAt = out.position();
+        out.putInt(0);
+        int saved = 0;
+        for (int i = 0; i < count; i++) {
+            Chunk chunk = chunks[slot(first + i)];
+            if (chunk != null) {
+                out.putInt(chunk.getIndex());
+                putProgress(out, chunk.getItems(), chunk.getBlocks());
+                saved++;
+            }
+        }
+        out.putInt(countAt, saved);
+    }
+
+    /**
+     * Starts the world over, then builds the saved chunks here and now and
+     * restores their progress.
+     */
+    @Override
+    public boolean loadProgress(ByteBuffer in) {
+        reset();
+        int saved = in.getInt();
+        for (int i = 0; i < saved; i++) {
+            int index = in.getInt();
+            if (index < 0) return false;
+            require(index, index);
+            Chunk chunk = ready(index);
+            if (!getProgress(in, chunk.getItems(), chunk.getBlocks())) return false;
+        }
+        changed();
+        return true;
+    }
+
+    @Override
+    public int getWidth() {
+        return Integer.MAX_VALUE;
+    }
+
+    public WorldGenerator getGenerator() { return generator; }
+    public long getBudgetBytes() { return budgetBytes; }
+    /** Chunks in memory or being generated */
+    public int getResidentChunks() { return count; }
+    /** Estimated bytes held by the chunks in memory */
+    public long getResidentBytes() { return residentBytes; }
+    /** Chunks installed so far, including ones built again after being dropped */
+    public long getGeneratedChunks() { return generated; }
+    /** Chunks the game thread had to build itself because no generator thread had yet */
+    public long getStalls() { return stalls; }
+}
@@ -0,0 +1,66 @@
+package level;
+
+import java.awt.Point;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * Builds the chunks of an endless world from a seed. Each chunk gets its own
+ * random stream derived from the seed and its index, so the same chunk comes
+ * out the same whichever thread builds it, in whatever order, and however
+ * often it is dropped and built again. Immutable, so shared by every thread.
+ */
+public final class WorldGenerator {
+    public static final int CHUNK_WIDTH = 1024;
+    // Leave room around Mario's starting point
+    private static final int START_CLEARANCE = 240;
+    private static final long GOLDEN_GAMMA = 0x9E3779B97F4A7C15L;
+
+    private final long seed;
+
+    public WorldGenerator(long seed) {
+        this.seed = seed;
+    }
+
+    public long getSeed() {
+        return seed;
+    }
+
+    /**
+     * Builds chunk {@code index}, covering x from {@code index * CHUNK_WIDTH}.
+     * Heights follow the built-in levels: blocks in rows from 400 to 440,
+     * power-ups floating between 340 and 400.
+     */
+    public Chunk generate(int index) {
+        SplittableRandom random = new SplittableRandom(seed + (index + 1) * GOLDEN_GAMMA);
+        List<GameObject> items = new ArrayList<>();
+        List<Block> blocks = new ArrayList<>();
+
+        int start = index * CHUNK_WIDTH;
+        int end = start + CHUNK_WIDTH - 40;
+        int x = index == 0 ? START_CLEARANCE : start;
+        while (x < end) {
+            int roll = random.nextInt(10);
+            if (roll < 4) {
+                // A run of bricks
+                int y = 400 + 20 * random.nextInt(3);
+                for (int length = 1 + random.nextInt(6); length > 0 && x < end; length--) {
+                    blocks.add(new Block(new Point(x, y)));
+                    x += 40;
+                }
+            } else if (roll < 7) {
+                items.add(createItem(random.nextInt(10), new Point(x, 340 + random.nextInt(61))));
+                x += 40;
+            }
+            x += 40 + random.nextInt(120);
+        }
+        return new Chunk(index, items, blocks);
+    }
+
+    private static GameObject createItem(int roll, Point position) {
+        if (roll < 5) return new Mushroom(position);
+        if (roll < 8) return new FireFlower(position);
+        return new Star(position);
+    }
+}
@@ -0,0 +1,169 @@
+package replay;
+
+import core.Ability;
+import core.GameSession;
+import core.Mario;
+import decorators.DoubleJumpDecorator;
+import decorators.ShieldDecorator;
+import decorators.SpeedBoostDecorator;
+import decorators.SuperStrengthDecorator;
+import interfaces.GameOutput;
+import interfaces.MarioComponent;
+import level.LevelManager;
+
+import java.awt.Color;
+
+/**
+ * Everything from outside the simulation that changes a game: the player's
+ * actions from the window's buttons and keys, and what the window itself
+ * does to the session - resizing the view, restarting after game over.
+ * Applying the same inputs at the same ticks to a new session plays the same
+ * game, which is what recording and replay rely on.
+ */
+public enum Input {
+    JUMP,
+    MOVE_LEFT,
+    MOVE_RIGHT,
+    FIRE,
+    BREAK,
+    MUSHROOM,
+    FIRE_FLOWER,
+    STAR,
+    DAMAGE,
+    SPEED_BOOST,
+    DOUBLE_JUMP,
+    SHIELD,
+    SUPER_STRENGTH,
+    PREVIOUS_LEVEL,
+    NEXT_LEVEL,
+    RESET,
+    RESTART,
+    // The argument is the new width of the view
+    RESIZE;
+
+    private static final Input[] VALUES = values();
+
+    /** Whether this input carries an argument */
+    public boolean hasArgument() {
+        return this == RESIZE;
+    }
+
+    /**
+     * The input with the given ordinal, or null if there is none.
+     */
+    public static Input fromOrdinal(int ordinal) {
+        return ordinal >= 0 && ordinal < VALUES.length ? VALUES[ordinal] : null;
+    }
+
+    public void apply(GameSession session) {
+        apply(session, 0);
+    }
+
+    /**
+     * Carries out this input on {@code session}, reporting to its output.
+     */
+    public void apply(GameSession session, int argument) {
+        GameOutput output = session.getOutput();
+        switch (this) {
+            case JUMP: session.getMario().jump(); break;
+            case MOVE_LEFT: session.getMario().move(-1); break;
+            case MOVE_RIGHT: session.getMario().move(1); break;
+            case FIRE: shootFire(session, output); break;
+            case BREAK: breakBlock(session, output); break;
+            case MUSHROOM: session.getMario().collectMushroom(); break;
+            case FIRE_FLOWER: session.getMario().collectFireFlower(); break;
+            case STAR: session.getMario().collectStar(); break;
+            case DAMAGE: session.getMario().takeDamage(); break;
+            case SPEED_BOOST:
+                if (addAbility(session, Ability.SPEED_BOOST)) {
+                    session.setMario(new SpeedBoostDecorator(session.getMario()));
+                    output.addLogMessage("🚀 Speed Boost activated!", Color.MAGENTA);
+                }
+                break;
+            case DOUBLE_JUMP:
+                if (addAbility(session, Ability.DOUBLE_JUMP)) {
+                    session.setMario(new DoubleJumpDecorator(session.getMario()));
+                    output.addLogMessage("⬆️ Double Jump activated!", Color.MAGENTA);
+                }
+                break;
+            case SHIELD:
+                if (addAbility(session, Ability.SHIELD)) {
+                    session.setMario(new ShieldDecorator(session.getMario()));
+                    output.addLogMessage("🛡️ Shield activated!", Color.CYAN);
+                }
+                break;
+            case SUPER_STRENGTH:
+                if (addAbility(session, Ability.SUPER_STRENGTH)) {
+                    session.setMario(new SuperStrengthDecorator(session.getMario()));
+                    output.addLogMessage("💪 Super Strength activated!", Color.ORANGE);
+                }
+                break;
+            case PREVIOUS_LEVEL: previousLevel(session, output); break;
+            case NEXT_LEVEL: nextLevel(session, output); break;
+            case RESET:
+                session.reset();
+                output.addLogMessage("🔄 Game reset! Mario is back to Small Mario state.", Color.BLUE);
+                break;
+            case RESTART: session.restart(); break;
+            case RESIZE: session.setWorldWidth(argument); return;
+        }
+        output.updateDisplay();
+    }
+
+    private static void shootFire(GameSession session, GameOutput output) {
+        MarioComponent mario = session.getMario();
+        if (mario.canShootFire()) {
+            if (mario instanceof Mario) {
+                ((Mario) mario).shootFire();
+            } else {
+                output.addLogMessage("🔥💥 Shooting fireball through decorators!", Color.MAGENTA);
+                mario.addScore(50);
+            }
+        } else {
+            output.addLogMessage("❌ Cannot shoot fire in current state!", Color.RED);
+        }
+    }
+
+    private static void breakBlock(GameSession session, GameOutput output) {
+        MarioComponent mario = session.getMario();
+        if (mario.canBreakBlocks()) {
+            output.addLogMessage("🧱💥 Breaking block!", Color.ORANGE);
+            mario.addScore(25);
+            if (mario.hasAbility(Ability.SUPER_STRENGTH)) {
+                output.addLogMessage("💪 SUPER STRENGTH: Breaking extra blocks!", Color.MAGENTA);
+                mario.addScore(75);
+            }
+        } else {
+            output.addLogMessage("❌ Cannot break blocks in current state!", Color.RED);
+        }
+    }
+
+    /**
+     * Whether Mario can take {@code ability}; says so if he already has it.
+     */
+    private static boolean addAbility(GameSession session, Ability ability) {
+        if (!session.getMario().hasAbility(ability)) return true;
+        session.getOutput().addLogMessage("❌ " + ability.getDisplayName() + " already active!", Color.RED);
+        return false;
+    }
+
+    private static void nextLevel(GameSession session, GameOutput output) {
+        LevelManager levels = session.getLevelManager();
+        if (!levels.isLastLevel()) {
+            levels.nextLevel();
+            output.addLogMessage("▶️ Advanced to " + levels.getCurrentLevel().getName(), Color.GREEN);
+        } else {
+            output.addLogMessage("🎉 You've completed all levels!", Color.ORANGE);
+        }
+    }
+
+    private static void previousLevel(GameSession session, GameOutput output) {
+        LevelManager levels = session.getLevelManager();
+        if (levels.getCurrentLevelNumber() > 1) {
+            levels.previousLevel();
+            output.addLogMessage("◀️ Returned to " + levels.getCurrentLevel().getName(), Color.BLUE);
+        } else {
+            output.addLogMessage("❌ Already at first level!", Color.RED);
+        }
+    }
+}
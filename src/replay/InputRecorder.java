@@ -0,0 +1,186 @@
+package replay;
+
+import core.GameSession;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Records a game's inputs, each with the tick it was applied after, to a
+ * compact binary file that {@link Replay} plays back.
+ *
+ * Inputs are rare next to ticks, so each is stored as one varint holding the
+ * ticks since the previous input shifted over the input's code; an input
+ * within a second of the last takes two bytes. Layout:
+ * <pre>
+ * header  int magic "MREC" (big-endian), byte version,
+ *         varint worldWidth, varint levelCount
+ * input   varint (tickDelta &lt;&lt; CODE_BITS | ordinal), [zigzag varint argument]
+ * end     varint (tickDelta &lt;&lt; CODE_BITS | END), zigzag varint score,
+ *         varint lives, byte kind, varint capabilities, varint level
+ * </pre>
+ * The end record is the {@link Outcome} the game reached, for a replay to
+ * check itself against.
+ *
+ * Recording costs the game thread a few byte writes per input. Full buffers
+ * go to a writer thread, which writes them to disk and hands them back; a
+ * write that fails is reported by {@link #close}, never to the game.
+ */
+public final class InputRecorder {
+    public static final int MAGIC = 0x4D524543; // "MREC"
+    public static final byte VERSION = 1;
+    static final int CODE_BITS = 5;
+    static final int END = (1 << CODE_BITS) - 1;
+
+    private static final int BUFFER_BYTES = 4_096;
+    private static final int SPARE_BUFFERS = 4;
+    // Room for the largest record: the end record
+    private static final int MAX_RECORD_BYTES = 64;
+
+    private final FileChannel channel;
+    private final ExecutorService writer = Executors.newSingleThreadExecutor(task -> {
+        Thread thread = new Thread(task, "input-recorder");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final BlockingQueue<ByteBuffer> spare = new ArrayBlockingQueue<>(SPARE_BUFFERS);
+    private volatile IOException failure;
+
+    // Only the game thread touches these
+    private ByteBuffer buffer = ByteBuffer.allocate(BUFFER_BYTES);
+    private long lastTick;
+    private long inputs;
+    private long bytes;
+    private boolean closed;
+
+    /**
+     * Starts recording {@code session}, which must not have ticked yet.
+     */
+    public InputRecorder(Path path, GameSession session) throws IOException {
+        if (session.getTick() != 0) {
+            throw new IllegalStateException("Recording has to start with the session");
+        }
+        channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING);
+        for (int i = 0; i < SPARE_BUFFERS; i++) {
+            spare.add(ByteBuffer.allocate(BUFFER_BYTES));
+        }
+        buffer.putInt(MAGIC);
+        buffer.put(VERSION);
+        putVarint(session.getWorldWidth());
+        putVarint(session.getLevelManager().getTotalLevels());
+    }
+
+    /**
+     * A recorder for the file named by the mario.record property, or null if
+     * the property is not set or the file cannot be opened.
+     */
+    public static InputRecorder openDefault(GameSession session) {
+        String name = System.getProperty("mario.record");
+        if (name == null) return null;
+        try {
+            return new InputRecorder(Paths.get(name), session);
+        } catch (IOException e) {
+            System.err.println("Not recording to " + name + ": " + e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Records {@code input} as applied after {@code tick} ticks. Game thread only.
+     */
+    public void record(long tick, Input input, int argument) {
+        if (closed) return;
+        ensureRoom();
+        putVarint((tick - lastTick) << CODE_BITS | input.ordinal());
+        if (input.hasArgument()) {
+            putZigzag(argument);
+        }
+        lastTick = tick;
+        inputs++;
+    }
+
+    /**
+     * Ends the recording with the outcome {@code session} has reached and waits
+     * for everything to reach the disk.
+     *
+     * @throws IOException if any write failed along the way
+     */
+    public void close(GameSession session) throws IOException {
+        if (closed) return;
+        Outcome outcome = Outcome.of(session);
+        ensureRoom();
+        putVarint((outcome.getTick() - lastTick) << CODE_BITS | END);
+        putZigzag(outcome.getScore());
+        putVarint(outcome.getLives());
+        buffer.put((byte) outcome.getKind().ordinal());
+        putVarint(outcome.getCapabilities());
+        putVarint(outcome.getLevel());
+        closed = true;
+        handOff();
+        writer.shutdown();
+        try {
+            writer.awaitTermination(1, TimeUnit.MINUTES);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        channel.close();
+        if (failure != null) throw failure;
+    }
+
+    private void ensureRoom() {
+        if (buffer.remaining() < MAX_RECORD_BYTES) handOff();
+    }
+
+    /**
+     * Passes the filled buffer to the writer and carries on in a spare one.
+     */
+    private void handOff() {
+        ByteBuffer full = buffer;
+        full.flip();
+        bytes += full.remaining();
+        writer.execute(() -> write(full));
+        buffer = spare.poll();
+        if (buffer == null) buffer = ByteBuffer.allocate(BUFFER_BYTES);
+    }
+
+    // Writer thread
+    private void write(ByteBuffer full) {
+        try {
+            while (full.hasRemaining()) {
+                channel.write(full);
+            }
+        } catch (IOException e) {
+            if (failure == null) failure = e;
+        }
+        full.clear();
+        spare.offer(full);
+    }
+
+    private void putVarint(long value) {
+        while ((value & ~0x7FL) != 0) {
+            buffer.put((byte) (value & 0x7F | 0x80));
+            value >>>= 7;
+        }
+        buffer.put((byte) value);
+    }
+
+    private void putZigzag(int value) {
+        putVarint((value << 1 ^ value >> 31) & 0xFFFFFFFFL);
+    }
+
+    /** Inputs recorded so far */
+    public long getInputs() { return inputs; }
+
+    /** Bytes handed to the writer so far; all of the file once closed */
+    public long getBytes() { return bytes; }
+}
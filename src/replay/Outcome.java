@@ -0,0 +1,66 @@
+package replay;
+
+import core.GameSession;
+import core.MarioSnapshot;
+
+/**
+ * Where a game stood when its recording ended: the tick, Mario's score,
+ * lives, state and abilities, and the level. A replay has to arrive at the
+ * same outcome as the game it was recorded from.
+ */
+public final class Outcome {
+    private final long tick;
+    private final int score;
+    private final int lives;
+    private final MarioSnapshot.Kind kind;
+    private final long capabilities;
+    private final int level;
+
+    Outcome(long tick, int score, int lives, MarioSnapshot.Kind kind, long capabilities, int level) {
+        this.tick = tick;
+        this.score = score;
+        this.lives = lives;
+        this.kind = kind;
+        this.capabilities = capabilities;
+        this.level = level;
+    }
+
+    public static Outcome of(GameSession session) {
+        MarioSnapshot mario = session.getSnapshot();
+        return new Outcome(session.getTick(), mario.getScore(), mario.getLives(), mario.getKind(),
+                mario.getCapabilities(), session.getLevelManager().getCurrentLevelNumber());
+    }
+
+    public long getTick() { return tick; }
+    public int getScore() { return score; }
+    public int getLives() { return lives; }
+    public MarioSnapshot.Kind getKind() { return kind; }
+    public long getCapabilities() { return capabilities; }
+    /** 1-based, as LevelManager counts */
+    public int getLevel() { return level; }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof Outcome)) return false;
+        Outcome other = (Outcome) o;
+        return tick == other.tick && score == other.score && lives == other.lives && kind == other.kind
+                && capabilities == other.capabilities && level == other.level;
+    }
+
+    @Override
+    public int hashCode() {
+        int result = Long.hashCode(tick);
+        result = 31 * result + score;
+        result = 31 * result + lives;
+        result = 31 * result + kind.hashCode();
+        result = 31 * result + Long.hashCode(capabilities);
+        return 31 * result + level;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("tick %,d: score %,d, lives %d, %s, abilities %s, level %d",
+                tick, score, lives, kind, Long.toBinaryString(capabilities), level);
+    }
+}
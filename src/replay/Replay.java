@@ -0,0 +1,172 @@
+package replay;
+
+import core.GameLoop;
+import core.GameSession;
+import core.MarioSnapshot;
+import interfaces.GameOutput;
+import level.LevelManager;
+
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+
+/**
+ * A recording made by {@link InputRecorder}, decoded and ready to play back.
+ * A replay runs a new headless session through the recorded ticks as fast as
+ * it can tick, with nothing drawn and no clock to wait for, applying each
+ * input after the tick it was recorded after; the game being deterministic,
+ * it must end at the outcome the recording ended with.
+ *
+ * Usage: java replay.Replay recording
+ */
+public final class Replay {
+    private final int worldWidth;
+    private final int levelCount;
+    private final long[] ticks;
+    private final Input[] inputs;
+    private final int[] arguments;
+    private final Outcome expected;
+
+    private Replay(int worldWidth, int levelCount, long[] ticks, Input[] inputs, int[] arguments, Outcome expected) {
+        this.worldWidth = worldWidth;
+        this.levelCount = levelCount;
+        this.ticks = ticks;
+        this.inputs = inputs;
+        this.arguments = arguments;
+        this.expected = expected;
+    }
+
+    public static Replay read(Path path) throws IOException {
+        return read(ByteBuffer.wrap(Files.readAllBytes(path)));
+    }
+
+    /**
+     * Decodes a whole recording.
+     *
+     * @throws IOException if it is not a recording, or it ends before its end record
+     */
+    public static Replay read(ByteBuffer in) throws IOException {
+        try {
+            if (in.getInt() != InputRecorder.MAGIC) {
+                throw new IOException("Not an input recording");
+            }
+            byte version = in.get();
+            if (version != InputRecorder.VERSION) {
+                throw new IOException("Unsupported recording version " + version);
+            }
+            int worldWidth = (int) getVarint(in);
+            int levelCount = (int) getVarint(in);
+
+            long[] ticks = new long[64];
+            Input[] inputs = new Input[64];
+            int[] arguments = new int[64];
+            int count = 0;
+            long tick = 0;
+            while (true) {
+                long record = getVarint(in);
+                tick += record >>> InputRecorder.CODE_BITS;
+                int code = (int) record & InputRecorder.END;
+                if (code == InputRecorder.END) break;
+                Input input = Input.fromOrdinal(code);
+                if (input == null) {
+                    throw new IOException("Unknown input " + code + " at tick " + tick);
+                }
+                if (count == ticks.length) {
+                    ticks = Arrays.copyOf(ticks, count * 2);
+                    inputs = Arrays.copyOf(inputs, count * 2);
+                    arguments = Arrays.copyOf(arguments, count * 2);
+                }
+                ticks[count] = tick;
+                inputs[count] = input;
+                arguments[count] = input.hasArgument() ? getZigzag(in) : 0;
+                count++;
+            }
+            int score = getZigzag(in);
+            int lives = (int) getVarint(in);
+            MarioSnapshot.Kind kind = MarioSnapshot.Kind.values()[in.get()];
+            long capabilities = getVarint(in);
+            int level = (int) getVarint(in);
+            return new Replay(worldWidth, levelCount, Arrays.copyOf(ticks, count),
+                    Arrays.copyOf(inputs, count), Arrays.copyOf(arguments, count),
+                    new Outcome(tick, score, lives, kind, capabilities, level));
+        } catch (BufferUnderflowException | ArrayIndexOutOfBoundsException e) {
+            throw new IOException("Recording is cut short or corrupt", e);
+        }
+    }
+
+    private static long getVarint(ByteBuffer in) {
+        long value = 0;
+        for (int shift = 0; ; shift += 7) {
+            byte b = in.get();
+            value |= (long) (b & 0x7F) << shift;
+            if (b >= 0) return value;
+        }
+    }
+
+    private static int getZigzag(ByteBuffer in) {
+        int value = (int) getVarint(in);
+        return value >>> 1 ^ -(value & 1);
+    }
+
+    /**
+     * Plays the recording on a new headless session with the game's levels.
+     */
+    public Outcome run() {
+        GameSession session = new GameSession(GameOutput.NONE, worldWidth, new LevelManager());
+        if (session.getLevelManager().getTotalLevels() != levelCount) {
+            throw new IllegalStateException("Recorded with " + levelCount + " levels, playing "
+                    + session.getLevelManager().getTotalLevels());
+        }
+        return run(session);
+    }
+
+    /**
+     * Plays the recording on {@code session}, which must be new, and returns
+     * where it ends.
+     */
+    public Outcome run(GameSession session) {
+        for (int i = 0; i < ticks.length; i++) {
+            while (session.getTick() < ticks[i]) {
+                session.tick();
+            }
+            inputs[i].apply(session, arguments[i]);
+        }
+        while (session.getTick() < expected.getTick()) {
+            session.tick();
+        }
+        return Outcome.of(session);
+    }
+
+    /** Where the recorded game ended */
+    public Outcome getExpected() { return expected; }
+
+    public int getInputCount() { return ticks.length; }
+
+    /** Game ticks the recording covers */
+    public long getTicks() { return expected.getTick(); }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length != 1) {
+            System.out.println("Usage: java replay.Replay recording");
+            System.exit(2);
+        }
+        Replay replay = read(Paths.get(args[0]));
+        long start = System.nanoTime();
+        Outcome outcome = replay.run();
+        double seconds = (System.nanoTime() - start) / 1e9;
+        double gameSeconds = (double) replay.getTicks() / GameLoop.TICKS_PER_SECOND;
+        System.out.printf("%,d inputs over %,.0f s of play, replayed in %.3f s (%,.0fx real time)%n",
+                replay.getInputCount(), gameSeconds, seconds, gameSeconds / seconds);
+        System.out.println("recorded: " + replay.getExpected());
+        System.out.println("replayed: " + outcome);
+        if (!outcome.equals(replay.getExpected())) {
+            System.out.println("MISMATCH: the replay did not end where the game did");
+            System.exit(1);
+        }
+        System.out.println("OK");
+    }
+}
@@ -1,6 +1,6 @@
 package states;
 import core.Mario;
-import ui.GameFrame;
+import core.MarioSnapshot;
 
 import java.awt.Color;
 
@@ -8,63 +8,57 @@ import java.awt.Color;
  * Big Mario State - Powered up state
  */
 public  class BigMario extends MarioState {
+    private static final Color COLOR = new Color(255, 255, 100);
 
-    public BigMario(Mario mario) {
-        super(mario);
-    }
+    BigMario() { }
 
     @Override
-    public void jump() {
-        GameFrame.getInstance().addLogMessage("🟡 Big Mario performs a HIGH jump!", Color.BLUE);
+    public void jump(Mario mario) {
+        getOutput(mario).addLogMessage("🟡 Big Mario performs a HIGH jump!", Color.BLUE);
         mario.addScore(15);
-        GameFrame.getInstance().updateDisplay();
+        getOutput(mario).updateDisplay();
     }
 
 
     @Override
-    public void move(int direction) {
-        GameFrame.getInstance().addLogMessage("🟡 Big Mario moves with power", Color.BLUE);
+    public void move(Mario mario, int direction) {
+        getOutput(mario).addLogMessage("🟡 Big Mario moves with power", Color.BLUE);
         mario.addScore(8);
-        GameFrame.getInstance().updateDisplay();
-    }
-
-    @Override
-    public void move() {
-
+        getOutput(mario).updateDisplay();
     }
 
     @Override
-    public void takeDamage() {
-        mario.setState(new SmallMario(mario));
-        GameFrame.getInstance().addLogMessage("🟡 → 🔴 Big Mario becomes Small Mario", Color.ORANGE);
-        GameFrame.getInstance().updateDisplay();
+    public void takeDamage(Mario mario) {
+        mario.transition(MarioStates.Event.DAMAGE);
+        getOutput(mario).addLogMessage("🟡 → 🔴 Big Mario becomes Small Mario", Color.ORANGE);
+        getOutput(mario).updateDisplay();
     }
 
     @Override
-    public void collectMushroom() {
+    public void collectMushroom(Mario mario) {
         mario.addScore(100);
-        GameFrame.getInstance().addLogMessage("🟡 Big Mario collects mushroom (bonus points only)", Color.CYAN);
-        GameFrame.getInstance().updateDisplay();
+        getOutput(mario).addLogMessage("🟡 Big Mario collects mushroom (bonus points only)", Color.CYAN);
+        getOutput(mario).updateDisplay();
     }
 
     @Override
-    public void collectFireFlower() {
-        mario.setState(new FireMario(mario));
+    public void collectFireFlower(Mario mario) {
+        mario.transition(MarioStates.Event.FIRE_FLOWER);
         mario.addScore(200);
-        GameFrame.getInstance().addLogMessage("🟡 → 🔥 Big Mario becomes Fire Mario!", Color.GREEN);
-        GameFrame.getInstance().updateDisplay();
+        getOutput(mario).addLogMessage("🟡 → 🔥 Big Mario becomes Fire Mario!", Color.GREEN);
+        getOutput(mario).updateDisplay();
     }
 
     @Override
-    public void collectStar() {
-        mario.setState(new InvincibleMario(mario, this));
+    public void collectStar(Mario mario) {
+        mario.transition(MarioStates.Event.STAR);
         mario.addScore(300);
-        GameFrame.getInstance().addLogMessage("🟡 → ⭐ Big Mario becomes Invincible!", Color.GREEN);
-        GameFrame.getInstance().updateDisplay();
+        getOutput(mario).addLogMessage("🟡 → ⭐ Big Mario becomes Invincible!", Color.GREEN);
+        getOutput(mario).updateDisplay();
     }
 
     @Override
-    public String getStateName() {
+    public String getStateName(Mario mario) {
         return "Big Mario";
     }
 
@@ -79,12 +73,14 @@ public  class BigMario extends MarioState {
     }
 
     @Override
-    public boolean canShootFire() {
+    public boolean canShootFire(Mario mario) {
         return false;
     }
 
     @Override
     public Color getStateColor() {
-        return new Color(255, 255, 100);
+        return COLOR;
     }
-}
\ No newline at end of file
+    @Override
+    public MarioSnapshot.Kind getKind() { return MarioSnapshot.Kind.BIG; }
+}
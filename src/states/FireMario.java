@@ -1,7 +1,7 @@
 package states;
 
 import core.Mario;
-import ui.GameFrame;
+import core.MarioSnapshot;
 
 import java.awt.*;
 
@@ -9,82 +9,78 @@ import java.awt.*;
  * Fire Mario State - Fire power state
  */
 public class FireMario extends MarioState {
-    public FireMario(Mario mario) {
-        super(mario);
-    }
+    private static final Color COLOR = new Color(255, 150, 50);
+
+    FireMario() { }
 
     @Override
-    public void jump() {
-        GameFrame.getInstance().addLogMessage("🔥 Fire Mario jumps with burning flames!", Color.BLUE);
+    public void jump(Mario mario) {
+        getOutput(mario).addLogMessage("🔥 Fire Mario jumps with burning flames!", Color.BLUE);
         mario.addScore(20);
-        GameFrame.getInstance().updateDisplay();
+        getOutput(mario).updateDisplay();
     }
 
     @Override
-    public void move(int direction) {
-        Point pos = mario.getPosition();
-        pos.x += direction * 7; // Fire Mario moves at same speed as Big Mario
+    public void move(Mario mario, int direction) {
+        int x = mario.getX() + direction * 7; // Fire Mario moves at same speed as Big Mario
 
         // Boundary checking
-        if (pos.x < 0) pos.x = 0;
-        if (pos.x > GameFrame.getInstance().getGamePanel().getWidth() - 40)
-            pos.x = GameFrame.getInstance().getGamePanel().getWidth() - 40;
+        if (x < 0) x = 0;
+        if (x > mario.getSession().getWorldWidth() - 40)
+            x = mario.getSession().getWorldWidth() - 40;
 
-        mario.setPosition(pos);
+        mario.setPosition(x, mario.getY());
 
-        GameFrame.getInstance().addLogMessage("🔥 Fire Mario moves " + (direction > 0 ? "right" : "left") + " with fiery power", Color.BLUE);
+        getOutput(mario).addLogMessage(direction > 0 ? "🔥 Fire Mario moves right with fiery power" : "🔥 Fire Mario moves left with fiery power", Color.BLUE);
         mario.addScore(12);
-        GameFrame.getInstance().updateDisplay();
+        getOutput(mario).updateDisplay();
     }
 
     @Override
-    public void move() {
-
+    public void takeDamage(Mario mario) {
+        mario.transition(MarioStates.Event.DAMAGE);
+        getOutput(mario).addLogMessage("🔥 → 🟡 Fire Mario becomes Big Mario", Color.ORANGE);
+        getOutput(mario).updateDisplay();
     }
 
     @Override
-    public void takeDamage() {
-        mario.setState(new BigMario(mario));
-        GameFrame.getInstance().addLogMessage("🔥 → 🟡 Fire Mario becomes Big Mario", Color.ORANGE);
-        GameFrame.getInstance().updateDisplay();
-    }
-
-    @Override
-    public void collectMushroom() {
+    public void collectMushroom(Mario mario) {
         mario.addScore(100);
-        GameFrame.getInstance().addLogMessage("🔥 Fire Mario collects mushroom (bonus points only)", Color.CYAN);
-        GameFrame.getInstance().updateDisplay();
+        getOutput(mario).addLogMessage("🔥 Fire Mario collects mushroom (bonus points only)", Color.CYAN);
+        getOutput(mario).updateDisplay();
     }
 
     @Override
-    public void collectFireFlower() {
+    public void collectFireFlower(Mario mario) {
         mario.addScore(200);
-        GameFrame.getInstance().addLogMessage("🔥 Fire Mario collects fire flower (bonus points only)", Color.CYAN);
-        GameFrame.getInstance().updateDisplay();
+        getOutput(mario).addLogMessage("🔥 Fire Mario collects fire flower (bonus points only)", Color.CYAN);
+        getOutput(mario).updateDisplay();
     }
 
     @Override
-    public void collectStar() {
-        mario.setState(new InvincibleMario(mario, this));
+    public void collectStar(Mario mario) {
+        mario.transition(MarioStates.Event.STAR);
         mario.addScore(300);
-        GameFrame.getInstance().addLogMessage("🔥 → ⭐ Fire Mario becomes Invincible!", Color.GREEN);
-        GameFrame.getInstance().updateDisplay();
+        getOutput(mario).addLogMessage("🔥 → ⭐ Fire Mario becomes Invincible!", Color.GREEN);
+        getOutput(mario).updateDisplay();
     }
 
-    public void shootFire() {
-        GameFrame.getInstance().addLogMessage("🔥💥 Fire Mario shoots a fireball!", Color.MAGENTA);
+    public void shootFire(Mario mario) {
+        getOutput(mario).addLogMessage("🔥💥 Fire Mario shoots a fireball!", Color.MAGENTA);
         mario.addScore(50);
-        GameFrame.getInstance().updateDisplay();
+        getOutput(mario).updateDisplay();
     }
 
     @Override
-    public String getStateName() { return "Fire Mario"; }
+    public String getStateName(Mario mario) { return "Fire Mario"; }
     @Override
     public String getStateEmoji() { return "🔥"; }
     @Override
     public boolean canBreakBlocks() { return true; }
     @Override
-    public boolean canShootFire() { return true; }
+    public boolean canShootFire(Mario mario) { return true; }
+    @Override
+    public Color getStateColor() { return COLOR; }
     @Override
-    public Color getStateColor() { return new Color(255, 150, 50); }
-}
\ No newline at end of file
+    public MarioSnapshot.Kind getKind() { return MarioSnapshot.Kind.FIRE; }
+}
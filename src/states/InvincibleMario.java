@@ -1,112 +1,110 @@
 package states;
 
 import core.Mario;
-import ui.GameFrame;
+import core.MarioSnapshot;
 
 import java.awt.*;
-import java.util.concurrent.Executors;
-import java.util.concurrent.ScheduledExecutorService;
-import java.util.concurrent.TimeUnit;
-import javax.swing.SwingUtilities;
 
 /**
  * Invincible Mario State - Temporary invincibility
  */
 class InvincibleMario extends MarioState {
-    private MarioState originalState;
-    private int invincibilityTimer;
-    private ScheduledExecutorService scheduler;
-
-    public InvincibleMario(Mario mario, MarioState originalState) {
-        super(mario);
-        this.originalState = originalState;
-        this.invincibilityTimer = 8;
-        startTimer();
+    private static final Color COLOR = new Color(255, 255, 0);
+
+    static final int DURATION_SECONDS = 8;
+    // Expiry message per state returned to, built on first use
+    private static final String[] EXPIRED_MESSAGES = new String[MarioSnapshot.Kind.values().length];
+
+    InvincibleMario() { }
+
+    @Override
+    public void enter(Mario mario, MarioState from) {
+        mario.beginTemporaryState(from, DURATION_SECONDS);
     }
 
     @Override
-    public void jump() {
-        GameFrame.getInstance().addLogMessage("⭐ Invincible Mario jumps with STAR POWER!", Color.BLUE);
+    public void jump(Mario mario) {
+        getOutput(mario).addLogMessage("⭐ Invincible Mario jumps with STAR POWER!", Color.BLUE);
         mario.addScore(25);
-        GameFrame.getInstance().updateDisplay();
+        getOutput(mario).updateDisplay();
     }
 
     @Override
-    public void move(int direction) {
-        Point pos = mario.getPosition();
-        pos.x += direction * 10; // Invincible Mario moves fastest
+    public void move(Mario mario, int direction) {
+        int x = mario.getX() + direction * 10; // Invincible Mario moves fastest
 
         // Boundary checking
-        if (pos.x < 0) pos.x = 0;
-        if (pos.x > GameFrame.getInstance().getGamePanel().getWidth() - 40)
-            pos.x = GameFrame.getInstance().getGamePanel().getWidth() - 40;
+        if (x < 0) x = 0;
+        if (x > mario.getSession().getWorldWidth() - 40)
+            x = mario.getSession().getWorldWidth() - 40;
 
-        mario.setPosition(pos);
+        mario.setPosition(x, mario.getY());
 
-        GameFrame.getInstance().addLogMessage("⭐ Invincible Mario moves " + (direction > 0 ? "right" : "left") + " unstoppably", Color.BLUE);
+        getOutput(mario).addLogMessage(direction > 0 ? "⭐ Invincible Mario moves right unstoppably" : "⭐ Invincible Mario moves left unstoppably", Color.BLUE);
         mario.addScore(15);
-        GameFrame.getInstance().updateDisplay();
-    }
-
-    @Override
-    public void move() {
-
+        getOutput(mario).updateDisplay();
     }
 
     @Override
-    public void takeDamage() {
-        GameFrame.getInstance().addLogMessage("⭐ Invincible Mario is IMMUNE to damage!", Color.YELLOW);
-        GameFrame.getInstance().updateDisplay();
+    public void takeDamage(Mario mario) {
+        getOutput(mario).addLogMessage("⭐ Invincible Mario is IMMUNE to damage!", Color.YELLOW);
+        getOutput(mario).updateDisplay();
     }
 
     @Override
-    public void collectMushroom() {
+    public void collectMushroom(Mario mario) {
         mario.addScore(100);
-        GameFrame.getInstance().addLogMessage("⭐ Invincible Mario collects mushroom (bonus points)", Color.CYAN);
-        GameFrame.getInstance().updateDisplay();
+        getOutput(mario).addLogMessage("⭐ Invincible Mario collects mushroom (bonus points)", Color.CYAN);
+        getOutput(mario).updateDisplay();
     }
 
     @Override
-    public void collectFireFlower() {
+    public void collectFireFlower(Mario mario) {
         mario.addScore(200);
-        GameFrame.getInstance().addLogMessage("⭐ Invincible Mario collects fire flower (bonus points)", Color.CYAN);
-        GameFrame.getInstance().updateDisplay();
+        getOutput(mario).addLogMessage("⭐ Invincible Mario collects fire flower (bonus points)", Color.CYAN);
+        getOutput(mario).updateDisplay();
     }
 
     @Override
-    public void collectStar() {
-        this.invincibilityTimer = 8;
+    public void collectStar(Mario mario) {
+        mario.setStateSeconds(DURATION_SECONDS);
         mario.addScore(300);
-        GameFrame.getInstance().addLogMessage("⭐ Star collected! Invincibility timer reset!", Color.CYAN);
-        GameFrame.getInstance().updateDisplay();
+        getOutput(mario).addLogMessage("⭐ Star collected! Invincibility timer reset!", Color.CYAN);
+        getOutput(mario).updateDisplay();
+    }
+
+    @Override
+    public void onSecond(Mario mario) {
+        int seconds = mario.getStateSeconds() - 1;
+        mario.setStateSeconds(seconds);
+        getOutput(mario).updateInvincibilityTimer(seconds);
+        if (seconds <= 0) {
+            MarioState original = mario.endTemporaryState();
+            getOutput(mario).addLogMessage(expiredMessage(original), Color.ORANGE);
+            getOutput(mario).updateDisplay();
+        }
     }
 
-    private void startTimer() {
-        scheduler = Executors.newScheduledThreadPool(1);
-        scheduler.scheduleAtFixedRate(() -> {
-            invincibilityTimer--;
-            SwingUtilities.invokeLater(() -> {
-                GameFrame.getInstance().updateInvincibilityTimer(invincibilityTimer);
-                if (invincibilityTimer <= 0) {
-                    mario.setState(originalState);
-                    GameFrame.getInstance().addLogMessage("⭐ → " + originalState.getStateEmoji() + " Invincibility expired!", Color.ORANGE);
-                    GameFrame.getInstance().updateDisplay();
-                    scheduler.shutdown();
-                }
-            });
-        }, 1, 1, TimeUnit.SECONDS);
+    private static String expiredMessage(MarioState original) {
+        int kind = original.getKind().ordinal();
+        if (EXPIRED_MESSAGES[kind] == null) {
+            EXPIRED_MESSAGES[kind] = "⭐ → " + original.getStateEmoji() + " Invincibility expired!";
+        }
+        return EXPIRED_MESSAGES[kind];
     }
 
     @Override
-    public String getStateName() {
-        return "Invincible " + originalState.getStateName() + " (" + invincibilityTimer + "s)";
+    public String getStateName(Mario mario) {
+        return "Invincible " + mario.getReturnState().getStateName(mario) + " (" + mario.getStateSeconds() + "s)";
     }
     @Override
     public String getStateEmoji() { return "⭐"; }
     @Override
     public boolean canBreakBlocks() { return true; }
     @Override
-    public boolean canShootFire() { return originalState.canShootFire(); }
+    public boolean canShootFire(Mario mario) { return mario.getReturnState().canShootFire(mario); }
+    @Override
+    public Color getStateColor() { return COLOR; }
     @Override
-    public Color getStateColor() { return new Color(255, 255, 0); }
-}
\ No newline at end of file
+    public MarioSnapshot.Kind getKind() { return MarioSnapshot.Kind.INVINCIBLE; }
+}
@@ -1,31 +1,44 @@
 package states;
 import core.Mario;
+import core.MarioSnapshot;
+import interfaces.GameOutput;
 
 import java.awt.Color;
 
 /**
  * Abstract State class for State Pattern
- * Defines the interface for different Mario states
+ * Defines the interface for different Mario states.
+ *
+ * States are stateless flyweights shared by every Mario (see {@link MarioStates});
+ * the Mario they act on is passed in, and anything that differs between Marios,
+ * such as the time left on a temporary state, is kept by Mario.
  */
 public abstract class MarioState {
-    protected Mario mario;
+    MarioState() { }
 
-    public MarioState(Mario mario) {
-        this.mario = mario;
-    }
+    public abstract void jump(Mario mario);
+    public abstract void move(Mario mario, int direction);
 
-    public abstract void jump();
-    public abstract void move(int direction);
-
-    public abstract void move();
-
-    public abstract void takeDamage();
-    public abstract void collectMushroom();
-    public abstract void collectFireFlower();
-    public abstract void collectStar();
-    public abstract String getStateName();
+    public abstract void takeDamage(Mario mario);
+    public abstract void collectMushroom(Mario mario);
+    public abstract void collectFireFlower(Mario mario);
+    public abstract void collectStar(Mario mario);
+    public abstract String getStateName(Mario mario);
     public abstract String getStateEmoji();
     public abstract boolean canBreakBlocks();
-    public abstract boolean canShootFire();
+    public abstract boolean canShootFire(Mario mario);
     public abstract Color getStateColor();
-}
\ No newline at end of file
+    public abstract MarioSnapshot.Kind getKind();
+
+    /**
+     * Called after {@code mario} switched into this state from {@code from}.
+     */
+    public void enter(Mario mario, MarioState from) { }
+
+    /**
+     * Called once per simulated second while {@code mario} is in a temporary state.
+     */
+    public void onSecond(Mario mario) { }
+
+    protected static GameOutput getOutput(Mario mario) { return mario.getSession().getOutput(); }
+}
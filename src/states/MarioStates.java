@@ -0,0 +1,62 @@
+package states;
+
+import core.MarioSnapshot;
+
+/**
+ * The shared state instances and the transition table between them.
+ * A transition is one array lookup and allocates nothing, so any number of
+ * Marios can be simulated side by side at no cost per state change.
+ */
+public final class MarioStates {
+    /**
+     * What can happen to Mario that may change his state.
+     */
+    public enum Event { DAMAGE, MUSHROOM, FIRE_FLOWER, STAR }
+
+    public static final MarioState SMALL = new SmallMario();
+    public static final MarioState BIG = new BigMario();
+    public static final MarioState FIRE = new FireMario();
+    public static final MarioState INVINCIBLE = new InvincibleMario();
+
+    // [from kind][event]; null where the event leaves the state as it is
+    private static final MarioState[][] TRANSITIONS =
+            new MarioState[MarioSnapshot.Kind.values().length][Event.values().length];
+
+    static {
+        on(SMALL, Event.FIRE_FLOWER, FIRE);
+        on(SMALL, Event.STAR, INVINCIBLE);
+
+        on(BIG, Event.DAMAGE, SMALL);
+        on(BIG, Event.FIRE_FLOWER, FIRE);
+        on(BIG, Event.STAR, INVINCIBLE);
+
+        on(FIRE, Event.DAMAGE, BIG);
+        on(FIRE, Event.STAR, INVINCIBLE);
+        // Invincibility ends on its timer, back to the state Mario came from
+    }
+
+    private MarioStates() { }
+
+    private static void on(MarioState from, Event event, MarioState to) {
+        TRANSITIONS[from.getKind().ordinal()][event.ordinal()] = to;
+    }
+
+    /**
+     * The shared state of the given kind.
+     */
+    public static MarioState of(MarioSnapshot.Kind kind) {
+        switch (kind) {
+            case SMALL: return SMALL;
+            case BIG: return BIG;
+            case FIRE: return FIRE;
+            default: return INVINCIBLE;
+        }
+    }
+
+    /**
+     * The state {@code event} takes {@code from} to, or null if it stays put.
+     */
+    public static MarioState next(MarioState from, Event event) {
+        return TRANSITIONS[from.getKind().ordinal()][event.ordinal()];
+    }
+}
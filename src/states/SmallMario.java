@@ -1,7 +1,7 @@
 package states;
 
 import core.Mario;
-import ui.GameFrame;
+import core.MarioSnapshot;
 
 import java.awt.*;
 
@@ -9,54 +9,48 @@ import java.awt.*;
  * Small Mario State - Default state
  */
 public class SmallMario extends MarioState {
-    public SmallMario(Mario mario) {
-        super(mario);
-    }
+    private static final Color COLOR = new Color(255, 100, 100);
+
+    SmallMario() { }
 
     @Override
-    public void jump() {
-        GameFrame.getInstance().addLogMessage("🔴 Small Mario performs a small jump!", Color.BLUE);
+    public void jump(Mario mario) {
+        getOutput(mario).addLogMessage("🔴 Small Mario performs a small jump!", Color.BLUE);
         mario.addScore(10);
-        GameFrame.getInstance().updateDisplay();
+        getOutput(mario).updateDisplay();
     }
 
     @Override
-    public void move(int direction) {
-        Point pos = mario.getPosition();
-        pos.x += direction * 5; // Move 5 pixels in direction
+    public void move(Mario mario, int direction) {
+        int x = mario.getX() + direction * 5; // Move 5 pixels in direction
 
         // Boundary checking
-        if (pos.x < 0) pos.x = 0;
-        if (pos.x > GameFrame.getInstance().getGamePanel().getWidth() - 40)
-            pos.x = GameFrame.getInstance().getGamePanel().getWidth() - 40;
+        if (x < 0) x = 0;
+        if (x > mario.getSession().getWorldWidth() - 40)
+            x = mario.getSession().getWorldWidth() - 40;
 
-        mario.setPosition(pos);
+        mario.setPosition(x, mario.getY());
 
-        GameFrame.getInstance().addLogMessage("🔴 Small Mario moves " + (direction > 0 ? "right" : "left"), Color.BLUE);
+        getOutput(mario).addLogMessage(direction > 0 ? "🔴 Small Mario moves right" : "🔴 Small Mario moves left", Color.BLUE);
         mario.addScore(5);
-        GameFrame.getInstance().updateDisplay();
+        getOutput(mario).updateDisplay();
     }
 
     @Override
-    public void move() {
-
-    }
-
-    @Override
-    public void takeDamage() {
+    public void takeDamage(Mario mario) {
         mario.setLives(mario.getLives() - 1);
-        GameFrame.getInstance().addLogMessage("💀 Small Mario dies! Lost a life!", Color.RED);
+        getOutput(mario).addLogMessage("💀 Small Mario dies! Lost a life!", Color.RED);
         if (mario.getLives() <= 0) {
-            GameFrame.getInstance().showGameOver();
+            getOutput(mario).showGameOver();
         } else {
             // Reset position after damage
-            mario.setPosition(new Point(100, 400));
+            mario.setPosition(100, 400);
         }
-        GameFrame.getInstance().updateDisplay();
+        getOutput(mario).updateDisplay();
     }
 
     @Override
-    public void collectMushroom() {
+    public void collectMushroom(Mario mario) {
 
     }
 //
@@ -64,34 +58,36 @@ public class SmallMario extends MarioState {
 //    public void collectMushroom() {
 //        mario.setState(new BigMario(mario));
 //        mario.addScore(100);
-//        GameFrame.getInstance().addLogMessage("🔴 → 🟡 Small Mario becomes Big Mario!", Color.GREEN);
-//        GameFrame.getInstance().updateDisplay();
+//        getOutput().addLogMessage("🔴 → 🟡 Small Mario becomes Big Mario!", Color.GREEN);
+//        getOutput().updateDisplay();
 //    }
 
     @Override
-    public void collectFireFlower() {
-        mario.setState(new FireMario(mario));
+    public void collectFireFlower(Mario mario) {
+        mario.transition(MarioStates.Event.FIRE_FLOWER);
         mario.addScore(200);
-        GameFrame.getInstance().addLogMessage("🔴 → 🔥 Small Mario becomes Fire Mario!", Color.GREEN);
-        GameFrame.getInstance().updateDisplay();
+        getOutput(mario).addLogMessage("🔴 → 🔥 Small Mario becomes Fire Mario!", Color.GREEN);
+        getOutput(mario).updateDisplay();
     }
 
     @Override
-    public void collectStar() {
-        mario.setState(new InvincibleMario(mario, this));
+    public void collectStar(Mario mario) {
+        mario.transition(MarioStates.Event.STAR);
         mario.addScore(300);
-        GameFrame.getInstance().addLogMessage("🔴 → ⭐ Small Mario becomes Invincible!", Color.GREEN);
-        GameFrame.getInstance().updateDisplay();
+        getOutput(mario).addLogMessage("🔴 → ⭐ Small Mario becomes Invincible!", Color.GREEN);
+        getOutput(mario).updateDisplay();
     }
 
     @Override
-    public String getStateName() { return "Small Mario"; }
+    public String getStateName(Mario mario) { return "Small Mario"; }
     @Override
     public String getStateEmoji() { return "🔴"; }
     @Override
     public boolean canBreakBlocks() { return false; }
     @Override
-    public boolean canShootFire() { return false; }
+    public boolean canShootFire(Mario mario) { return false; }
+    @Override
+    public Color getStateColor() { return COLOR; }
     @Override
-    public Color getStateColor() { return new Color(255, 100, 100); }
-}
\ No newline at end of file
+    public MarioSnapshot.Kind getKind() { return MarioSnapshot.Kind.SMALL; }
+}
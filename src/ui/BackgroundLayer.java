@@ -0,0 +1,86 @@
+package ui;
+
+import level.Level;
+
+import java.awt.Color;
+import java.awt.GradientPaint;
+import java.awt.Graphics2D;
+import java.awt.GraphicsConfiguration;
+import java.awt.RenderingHints;
+import java.awt.Transparency;
+import java.awt.image.BufferedImage;
+
+/**
+ * The static bottom layer of the game panel: the level's background gradient
+ * and the ground strip. Neither changes between frames, so both are painted
+ * once into an opaque image per level and panel size and copied in each frame.
+ */
+public class BackgroundLayer {
+    public static final int GROUND_Y = 450;
+    public static final int GROUND_HEIGHT = 50;
+
+    private BufferedImage image;
+    private Level level;
+    private GraphicsConfiguration configuration;
+    private int rebuilds;
+
+    public void draw(Graphics2D g2d, Level level, int width, int height, GraphicsConfiguration configuration) {
+        if (width <= 0 || height <= 0) return;
+        if (image == null || level != this.level || configuration != this.configuration
+                || image.getWidth() != width || image.getHeight() != height) {
+            rebuild(level, width, height, configuration);
+        }
+        g2d.drawImage(image, 0, 0, null);
+    }
+
+    /**
+     * Forces a rebuild on the next draw.
+     */
+    public void invalidate() {
+        level = null;
+    }
+
+    /** How many times the layer has been repainted, for the debug overlay */
+    public int getRebuilds() { return rebuilds; }
+
+    private void rebuild(Level level, int width, int height, GraphicsConfiguration configuration) {
+        if (image != null) image.flush();
+        image = configuration != null
+                ? configuration.createCompatibleImage(width, height, Transparency.OPAQUE)
+                : new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        this.level = level;
+        this.configuration = configuration;
+        rebuilds++;
+
+        Graphics2D g2d = image.createGraphics();
+        g2d.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+        g2d.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+        paint(g2d, level, width, height);
+        g2d.dispose();
+    }
+
+    /**
+     * Paints the layer directly - what the panel used to do every frame.
+     */
+    public static void paint(Graphics2D g2d, Level level, int width, int height) {
+        // Draw background gradient
+        GradientPaint gradient = new GradientPaint(0, 0, level.getBackgroundColor().brighter(),
+                0, height, level.getBackgroundColor().darker());
+        g2d.setPaint(gradient);
+        g2d.fillRect(0, 0, width, height);
+
+        // Draw ground with texture
+        g2d.setColor(new Color(34, 139, 34));
+        g2d.fillRect(0, GROUND_Y, width, GROUND_HEIGHT);
+
+        // Draw ground details
+        g2d.setColor(new Color(0, 100, 0));
+        for (int i = 0; i < width; i += 20) {
+            g2d.drawLine(i, GROUND_Y, i + 10, GROUND_Y);
+        }
+
+        // Draw ground shadow
+        g2d.setColor(new Color(0, 0, 0, 30));
+        g2d.fillRect(0, GROUND_Y, width, 3);
+    }
+}
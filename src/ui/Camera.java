@@ -0,0 +1,38 @@
+package ui;
+
+/**
+ * Horizontal scroll position of the view onto the world. The view stays put
+ * while Mario moves about the middle of it, scrolls to keep him in that dead
+ * zone once he leaves it, and stops at the ends of the world.
+ */
+public class Camera {
+    // Mario moves freely between these fractions of the view width, in tenths
+    private static final int DEAD_ZONE_LEFT = 3;
+    private static final int DEAD_ZONE_RIGHT = 6;
+
+    private int x;
+
+    /**
+     * Scrolls so the target, {@code targetWidth} wide at {@code targetX}, is in
+     * the dead zone of a {@code viewWidth} view onto a {@code worldWidth} world.
+     */
+    public void follow(int targetX, int targetWidth, int viewWidth, int worldWidth) {
+        int left = x + viewWidth * DEAD_ZONE_LEFT / 10;
+        int right = x + viewWidth * DEAD_ZONE_RIGHT / 10;
+        if (targetX < left) {
+            x = targetX - viewWidth * DEAD_ZONE_LEFT / 10;
+        } else if (targetX + targetWidth > right) {
+            x = targetX + targetWidth - viewWidth * DEAD_ZONE_RIGHT / 10;
+        }
+        x = (int) Math.max(0, Math.min(x, (long) worldWidth - viewWidth));
+    }
+
+    /** World x at the left edge of the view */
+    public int getX() {
+        return x;
+    }
+
+    public void setX(int x) {
+        this.x = x;
+    }
+}
@@ -0,0 +1,47 @@
+package ui;
+
+import interfaces.GameOutput;
+
+import java.awt.Color;
+
+/**
+ * GameOutput for the console version of the game - prints through GameUI
+ */
+public class ConsoleOutput implements GameOutput {
+
+    @Override
+    public void addLogMessage(String message, Color color) {
+        if (Color.RED.equals(color)) {
+            GameUI.printError(message);
+        } else {
+            GameUI.printAction(message);
+        }
+    }
+
+    @Override
+    public void updateDisplay() {
+        // The console prints Mario's status before every menu instead
+    }
+
+    @Override
+    public void updateInvincibilityTimer(int timer) {
+        if (timer > 0) {
+            GameUI.printTimer("Invincibility: " + timer + "s");
+        }
+    }
+
+    @Override
+    public void removeDecorator(String decoratorType) {
+        GameUI.printDecorator(decoratorType + " wore off");
+    }
+
+    @Override
+    public void showGameOver() {
+        GameUI.printGameOver("GAME OVER");
+    }
+
+    @Override
+    public void createFireEffect(int x, int y, int size) {
+        // No visual effects on the console
+    }
+}
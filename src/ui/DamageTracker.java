@@ -0,0 +1,205 @@
+package ui;
+
+import java.awt.Rectangle;
+
+/**
+ * The regions of the game panel that changed since the last painted frame.
+ * A region merges with any other it overlaps unless their union would cover
+ * more than the two separately; past MAX_REGIONS everything collapses into
+ * one bounding rectangle. For painting, the regions are then grouped into a
+ * few clusters, see {@link #cluster(int)}. Rectangles are preallocated and reused.
+ */
+public class DamageTracker {
+    public static final int MAX_REGIONS = 16;
+    // A cluster's box may cover this many times the pixels of the regions in it
+    private static final int CLUSTER_SLACK = 2;
+
+    private final Rectangle[] regions = new Rectangle[MAX_REGIONS];
+    private int count;
+    private int width, height;
+    private final Rectangle[] clusters = new Rectangle[MAX_REGIONS];
+    private final long[] clusterPixels = new long[MAX_REGIONS];
+    private int clusterCount;
+
+    public DamageTracker() {
+        for (int i = 0; i < MAX_REGIONS; i++) {
+            regions[i] = new Rectangle();
+            clusters[i] = new Rectangle();
+        }
+    }
+
+    /**
+     * Forgets all damage; regions added afterwards are clipped to {@code width} x {@code height}.
+     */
+    public void clear(int width, int height) {
+        this.width = width;
+        this.height = height;
+        count = 0;
+    }
+
+    public void addAll() {
+        count = 1;
+        regions[0].setBounds(0, 0, width, height);
+    }
+
+    public void add(int x, int y, int w, int h) {
+        // Clip to the panel
+        int x2 = Math.min(x + w, width);
+        int y2 = Math.min(y + h, height);
+        x = Math.max(x, 0);
+        y = Math.max(y, 0);
+        if (x2 <= x || y2 <= y) return;
+        w = x2 - x;
+        h = y2 - y;
+
+        for (int i = 0; i < count; i++) {
+            Rectangle r = regions[i];
+            if (worthMerging(r, x, y, w, h)) {
+                r.add(x, y);
+                r.add(x2, y2);
+                absorbOverlaps(i);
+                return;
+            }
+        }
+        if (count < MAX_REGIONS) {
+            regions[count++].setBounds(x, y, w, h);
+        } else {
+            // Too fragmented to be worth tracking piece by piece
+            Rectangle r = regions[0];
+            for (int i = 1; i < count; i++) {
+                r.add(regions[i]);
+            }
+            r.add(x, y);
+            r.add(x2, y2);
+            count = 1;
+        }
+    }
+
+    /**
+     * Merges region {@code i}, which just grew, with any others it now warrants merging with.
+     */
+    private void absorbOverlaps(int i) {
+        boolean merged = true;
+        while (merged) {
+            merged = false;
+            Rectangle grown = regions[i];
+            for (int j = 0; j < count; j++) {
+                if (j == i) continue;
+                Rectangle r = regions[j];
+                if (worthMerging(grown, r.x, r.y, r.width, r.height)) {
+                    grown.add(r);
+                    removeAt(j);
+                    if (i == count) i = j; // the grown region was last and moved into the gap
+                    merged = true;
+                    break;
+                }
+            }
+        }
+    }
+
+    private void removeAt(int j) {
+        count--;
+        Rectangle removed = regions[j];
+        regions[j] = regions[count];
+        regions[count] = removed;
+    }
+
+    private static boolean worthMerging(Rectangle r, int x, int y, int w, int h) {
+        int ux1 = Math.min(r.x, x);
+        int uy1 = Math.min(r.y, y);
+        int ux2 = Math.max(r.x + r.width, x + w);
+        int uy2 = Math.max(r.y + r.height, y + h);
+        long union = (long) (ux2 - ux1) * (uy2 - uy1);
+        return union <= (long) r.width * r.height + (long) w * h;
+    }
+
+    public int size() { return count; }
+
+    public Rectangle get(int i) { return regions[i]; }
+
+    /**
+     * Groups the regions into at most {@code maxClusters} rectangles to paint,
+     * one paint each. Two groups become one when their boxes overlap, or when
+     * one box around both covers no more than CLUSTER_SLACK times the pixels
+     * of the regions in them; so Mario and the log, in opposite corners, stay
+     * apart, and so do scattered items. Past {@code maxClusters}, the pair
+     * whose merged box grows least is merged. The clusters never overlap.
+     *
+     * @return the number of clusters, read with {@link #getCluster(int)}
+     */
+    public int cluster(int maxClusters) {
+        clusterCount = count;
+        for (int i = 0; i < count; i++) {
+            clusters[i].setBounds(regions[i]);
+            clusterPixels[i] = (long) regions[i].width * regions[i].height;
+        }
+        boolean merged = true;
+        while (merged && clusterCount > 1) {
+            merged = false;
+            int bestI = -1, bestJ = -1;
+            long bestGrowth = Long.MAX_VALUE;
+            for (int i = 0; i < clusterCount && !merged; i++) {
+                for (int j = i + 1; j < clusterCount; j++) {
+                    Rectangle a = clusters[i];
+                    Rectangle b = clusters[j];
+                    long union = unionArea(a, b);
+                    if (a.intersects(b) || union <= CLUSTER_SLACK * (clusterPixels[i] + clusterPixels[j])) {
+                        mergeClusters(i, j);
+                        merged = true;
+                        break;
+                    }
+                    long growth = union - (long) a.width * a.height - (long) b.width * b.height;
+                    if (growth < bestGrowth) {
+                        bestGrowth = growth;
+                        bestI = i;
+                        bestJ = j;
+                    }
+                }
+            }
+            if (!merged && clusterCount > maxClusters) {
+                mergeClusters(bestI, bestJ);
+                merged = true;
+            }
+        }
+        return clusterCount;
+    }
+
+    private void mergeClusters(int i, int j) {
+        clusters[i].add(clusters[j]);
+        clusterPixels[i] += clusterPixels[j];
+        clusterCount--;
+        Rectangle removed = clusters[j];
+        clusters[j] = clusters[clusterCount];
+        clusterPixels[j] = clusterPixels[clusterCount];
+        clusters[clusterCount] = removed;
+    }
+
+    private static long unionArea(Rectangle a, Rectangle b) {
+        int x1 = Math.min(a.x, b.x);
+        int y1 = Math.min(a.y, b.y);
+        int x2 = Math.max(a.x + a.width, b.x + b.width);
+        int y2 = Math.max(a.y + a.height, b.y + b.height);
+        return (long) (x2 - x1) * (y2 - y1);
+    }
+
+    /** The i-th rectangle of the last {@link #cluster(int)} */
+    public Rectangle getCluster(int i) { return clusters[i]; }
+
+    /** Pixels the last {@link #cluster(int)}'s rectangles cover, all of which are painted */
+    public long clusterArea() {
+        long area = 0;
+        for (int i = 0; i < clusterCount; i++) {
+            area += (long) clusters[i].width * clusters[i].height;
+        }
+        return area;
+    }
+
+    /** Total damaged pixels - an overestimate where regions overlap */
+    public long area() {
+        long area = 0;
+        for (int i = 0; i < count; i++) {
+            area += (long) regions[i].width * regions[i].height;
+        }
+        return area;
+    }
+}
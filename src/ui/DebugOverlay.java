@@ -0,0 +1,150 @@
+package ui;
+
+import java.awt.Color;
+import java.awt.Font;
+import java.awt.Graphics2D;
+import java.lang.management.ManagementFactory;
+
+/**
+ * Per-frame rendering telemetry, drawn in the bottom-left corner of the game panel
+ * when switched on. Bytes allocated by the painting thread and the time spent are
+ * counted around the game's own paint code on every frame, visible or not, so a
+ * regression shows up the moment the overlay is opened. A frame is everything
+ * painted between {@link #beginFrame()} and {@link #endFrame()}, however many
+ * paints Swing makes of it; a paint outside them, such as after a resize, counts
+ * as a frame of its own.
+ */
+public class DebugOverlay {
+    private static final com.sun.management.ThreadMXBean THREADS =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+    private static final Font FONT = new Font("Monospaced", Font.PLAIN, 11);
+    private static final Color BACKGROUND = new Color(0, 0, 0, 170);
+    private static final int LINE_HEIGHT = 13;
+    private static final int LINES = 6;
+    private static final int WIDTH = 420;
+    private static final int HEIGHT = LINES * LINE_HEIGHT + 8;
+
+    private boolean visible;
+    private boolean inFrame;
+    private long paintStartBytes;
+    private long paintStartNanos;
+    // Summed over the paints of the frame under way
+    private int framePaints;
+    private long frameBytes;
+    private long frameNanos;
+    private long frames;
+    private long lastFrameBytes;
+    private long lastFrameNanos;
+    private long maxFrameNanos;
+    private long maxFrameBytes;
+    private long allocatingFrames;
+    private int damageRegions;
+    private long damagePixels;
+    private long panelPixels;
+    private long damagedFrames;
+    private long totalDamagePixels;
+
+    /**
+     * Starts a frame; the paints up to {@link #endFrame()} are added up as one.
+     */
+    public void beginFrame() {
+        inFrame = true;
+    }
+
+    public void endFrame() {
+        inFrame = false;
+        if (framePaints > 0) finishFrame();
+    }
+
+    /**
+     * Marks the start of the game's paint code in one paint.
+     */
+    public void beginPaint() {
+        paintStartNanos = System.nanoTime();
+        paintStartBytes = THREADS.getCurrentThreadAllocatedBytes();
+    }
+
+    public void endPaint() {
+        frameBytes += THREADS.getCurrentThreadAllocatedBytes() - paintStartBytes;
+        frameNanos += System.nanoTime() - paintStartNanos;
+        framePaints++;
+        if (!inFrame) finishFrame();
+    }
+
+    private void finishFrame() {
+        frames++;
+        lastFrameBytes = frameBytes;
+        lastFrameNanos = frameNanos;
+        maxFrameBytes = Math.max(maxFrameBytes, frameBytes);
+        maxFrameNanos = Math.max(maxFrameNanos, frameNanos);
+        if (frameBytes > 0) allocatingFrames++;
+        framePaints = 0;
+        frameBytes = 0;
+        frameNanos = 0;
+    }
+
+    /**
+     * Records what one frame of damage-driven painting covered: the pixels
+     * painted, in {@code regions} clustered rectangles.
+     */
+    public void recordDamage(int regions, long pixels, long panelPixels) {
+        this.damageRegions = regions;
+        this.damagePixels = pixels;
+        this.panelPixels = panelPixels;
+        damagedFrames++;
+        totalDamagePixels += pixels;
+    }
+
+    /**
+     * Adds the overlay's own area to {@code damage} while it is shown - its numbers change every frame.
+     */
+    public void addDamage(DamageTracker damage, int panelHeight) {
+        if (visible) damage.add(10, top(panelHeight), WIDTH, HEIGHT);
+    }
+
+    private static int top(int panelHeight) {
+        return panelHeight - 10 - HEIGHT;
+    }
+
+    /**
+     * Draws the overlay. This runs outside the measured span, so its own
+     * string formatting does not count against the frame.
+     */
+    public void draw(Graphics2D g2d, int panelHeight, SpriteCache sprites) {
+        if (!visible) return;
+        String[] lines = {
+                String.format("frames painted   %,d", frames),
+                String.format("paint alloc      %,d B (max %,d B)", lastFrameBytes, maxFrameBytes),
+                String.format("allocating frames %,d", allocatingFrames),
+                String.format("paint time       %.2f ms (max %.2f ms)", lastFrameNanos / 1e6, maxFrameNanos / 1e6),
+                String.format("sprites          %d, %,d KB, %,d hit / %,d miss",
+                        sprites.size(), sprites.getBytes() / 1024, sprites.getHits(), sprites.getMisses()),
+                String.format("pixels filled    %,d in %d rects (%.1f%%, avg %,d)",
+                        damagePixels, damageRegions, panelPixels == 0 ? 0.0 : 100.0 * damagePixels / panelPixels,
+                        damagedFrames == 0 ? 0 : totalDamagePixels / damagedFrames),
+        };
+        int top = top(panelHeight);
+        g2d.setColor(BACKGROUND);
+        g2d.fillRect(10, top, WIDTH, HEIGHT);
+        g2d.setColor(Color.GREEN);
+        g2d.setFont(FONT);
+        for (int i = 0; i < lines.length; i++) {
+            g2d.drawString(lines[i], 16, top + 4 + (i + 1) * LINE_HEIGHT - 2);
+        }
+    }
+
+    public boolean isVisible() { return visible; }
+
+    public void setVisible(boolean visible) {
+        this.visible = visible;
+        maxFrameBytes = 0;
+        maxFrameNanos = 0;
+        allocatingFrames = 0;
+        damagedFrames = 0;
+        totalDamagePixels = 0;
+    }
+
+    public long getLastFrameBytes() { return lastFrameBytes; }
+    public long getMaxFrameBytes() { return maxFrameBytes; }
+    public long getLastFrameNanos() { return lastFrameNanos; }
+}
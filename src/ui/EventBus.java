@@ -0,0 +1,233 @@
+package ui;
+
+import interfaces.GameOutput;
+
+import java.awt.Color;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Typed events from the game to the window. The session reports to the bus
+ * as its GameOutput from whatever thread it runs on; each report becomes an
+ * event in a fixed ring that any number of threads write without locks,
+ * sequenced by the same {@link RingSequencer} as {@link LogRing}. The event
+ * dispatch thread takes them out once per frame in {@link #drain(GameOutput)}
+ * and hands the window one batch, with redundant events collapsed: however
+ * many times Mario's state, score or abilities changed during the frame, the
+ * display is refreshed once, the invincibility timer is set to its latest
+ * value, and each expired ability and each distinct effect is passed on once.
+ * The first 32 distinct effects of a frame are remembered; any beyond that go
+ * on as they come.
+ *
+ * Log messages need no collapsing and are passed straight to the target,
+ * whose GameLog already queues them this way.
+ */
+public class EventBus implements GameOutput {
+    public enum Type { STATE_CHANGED, INVINCIBILITY_TIMER, ABILITY_EXPIRED, EFFECT_SPAWNED, GAME_OVER }
+
+    public static final int CAPACITY = 4_096;
+    private static final Type[] TYPES = Type.values();
+    private static final int NO_TIMER = Integer.MIN_VALUE;
+    // Distinct effects remembered per drain; past that, further effects are passed on as they come
+    private static final int MAX_EFFECTS = 32;
+
+    private final GameOutput target;
+    private final RingSequencer ring;
+    private final byte[] types;
+    private final int[] xs;
+    private final int[] ys;
+    private final int[] sizes;
+    private final String[] names;
+    // Bit per Type that lost an event to a full ring since the last drain
+    private final AtomicInteger lostTypes = new AtomicInteger();
+
+    // Only the draining thread touches these
+    private final String[] expired = new String[TYPES.length * 4];
+    private final int[] effectXs = new int[MAX_EFFECTS];
+    private final int[] effectYs = new int[MAX_EFFECTS];
+    private final int[] effectSizes = new int[MAX_EFFECTS];
+    private long received;
+    private long delivered;
+
+    /**
+     * @param target where log messages go straight away, and drained events by default
+     */
+    public EventBus(GameOutput target) {
+        this(target, CAPACITY);
+    }
+
+    /**
+     * @param capacity slots in the ring, rounded up to a power of two
+     */
+    public EventBus(GameOutput target, int capacity) {
+        this.target = target;
+        ring = new RingSequencer(capacity);
+        int size = ring.capacity();
+        types = new byte[size];
+        xs = new int[size];
+        ys = new int[size];
+        sizes = new int[size];
+        names = new String[size];
+    }
+
+    @Override
+    public void addLogMessage(String message, Color color) {
+        target.addLogMessage(message, color);
+    }
+
+    @Override
+    public void updateDisplay() {
+        offer(Type.STATE_CHANGED, 0, 0, 0, null);
+    }
+
+    @Override
+    public void updateInvincibilityTimer(int timer) {
+        offer(Type.INVINCIBILITY_TIMER, timer, 0, 0, null);
+    }
+
+    @Override
+    public void removeDecorator(String decoratorType) {
+        offer(Type.ABILITY_EXPIRED, 0, 0, 0, decoratorType);
+    }
+
+    @Override
+    public void showGameOver() {
+        offer(Type.GAME_OVER, 0, 0, 0, null);
+    }
+
+    @Override
+    public void createFireEffect(int x, int y, int size) {
+        offer(Type.EFFECT_SPAWNED, x, y, size, null);
+    }
+
+    /**
+     * Queues an event; never blocks. An event that finds the ring full is
+     * dropped and counted, and the next drain makes up for it as well as it
+     * can: the display is refreshed, and a lost game over still ends the game.
+     */
+    private void offer(Type type, int x, int y, int size, String name) {
+        long position = ring.claim();
+        if (position < 0) {
+            int bit = 1 << type.ordinal();
+            int lost;
+            do {
+                lost = lostTypes.get();
+            } while ((lost & bit) == 0 && !lostTypes.compareAndSet(lost, lost | bit));
+            return;
+        }
+        int slot = (int) position & ring.mask();
+        types[slot] = (byte) type.ordinal();
+        xs[slot] = x;
+        ys[slot] = y;
+        sizes[slot] = size;
+        names[slot] = name;
+        ring.publish(position);
+    }
+
+    /**
+     * Delivers the queued events to the target this bus was made with.
+     */
+    public int drain() {
+        return drain(target);
+    }
+
+    /**
+     * Takes every published event, oldest first, and delivers the frame's
+     * batch to {@code output}: effects as they come, then expired abilities,
+     * the latest invincibility time, one display refresh and, last, game
+     * over. Stops after one ring's worth, so producers that keep up with the
+     * reader cannot hold it here. Draining thread only.
+     *
+     * @return how many events were taken
+     */
+    public int drain(GameOutput output) {
+        int lost = lostTypes.getAndSet(0);
+        boolean stateChanged = lost != 0;
+        boolean gameOver = (lost & (1 << Type.GAME_OVER.ordinal())) != 0;
+        int timer = NO_TIMER;
+        int expiredCount = 0;
+        int effectCount = 0;
+
+        int taken = 0;
+        int slot;
+        while (taken <= ring.mask() && (slot = ring.next()) >= 0) {
+            switch (TYPES[types[slot]]) {
+                case STATE_CHANGED:
+                    stateChanged = true;
+                    break;
+                case INVINCIBILITY_TIMER:
+                    timer = xs[slot];
+                    break;
+                case ABILITY_EXPIRED:
+                    expiredCount = addExpired(names[slot], expiredCount);
+                    stateChanged = true;
+                    break;
+                case EFFECT_SPAWNED:
+                    // Several spawns at the same spot and size in one frame look like one
+                    if (!seenEffect(xs[slot], ys[slot], sizes[slot], effectCount)) {
+                        if (effectCount < MAX_EFFECTS) {
+                            effectXs[effectCount] = xs[slot];
+                            effectYs[effectCount] = ys[slot];
+                            effectSizes[effectCount] = sizes[slot];
+                            effectCount++;
+                        }
+                        output.createFireEffect(xs[slot], ys[slot], sizes[slot]);
+                        delivered++;
+                    }
+                    break;
+                case GAME_OVER:
+                    gameOver = true;
+                    break;
+            }
+            names[slot] = null;
+            ring.release();
+            taken++;
+        }
+        received += taken;
+
+        for (int i = 0; i < expiredCount; i++) {
+            output.removeDecorator(expired[i]);
+            expired[i] = null;
+        }
+        delivered += expiredCount;
+        if (timer != NO_TIMER) {
+            output.updateInvincibilityTimer(timer);
+            delivered++;
+        }
+        if (stateChanged) {
+            output.updateDisplay();
+            delivered++;
+        }
+        if (gameOver) {
+            output.showGameOver();
+            delivered++;
+        }
+        return taken;
+    }
+
+    private boolean seenEffect(int x, int y, int size, int count) {
+        for (int i = 0; i < count; i++) {
+            if (effectXs[i] == x && effectYs[i] == y && effectSizes[i] == size) return true;
+        }
+        return false;
+    }
+
+    private int addExpired(String name, int count) {
+        for (int i = 0; i < count; i++) {
+            if (expired[i].equals(name)) return count;
+        }
+        if (count == expired.length) return count;
+        expired[count] = name;
+        return count + 1;
+    }
+
+    public int capacity() { return ring.capacity(); }
+
+    /** Events lost to a full ring since creation */
+    public long getDropped() { return ring.getDropped(); }
+
+    /** Events taken out of the ring so far */
+    public long getReceived() { return received; }
+
+    /** Calls made on outputs so far; received minus delivered is what collapsing saved */
+    public long getDelivered() { return delivered; }
+}
@@ -1,36 +1,56 @@
 package ui;
 
-import core.Mario;
-import decorators.DoubleJumpDecorator;
-import decorators.ShieldDecorator;
-import decorators.SpeedBoostDecorator;
-import decorators.SuperStrengthDecorator;
+import core.GameLoop;
+import core.GameSession;
+import core.MarioSnapshot;
+import interfaces.GameOutput;
 import interfaces.MarioComponent;
+import replay.Input;
+import replay.InputRecorder;
+import save.SaveGame;
 
 import javax.swing.*;
 import javax.swing.border.Border;
 import java.awt.*;
 import java.awt.event.*;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.util.List;
 
 /**
- * Main game window that contains all UI components
+ * Main game window that contains all UI components.
+ * Acts as the GameOutput of the session it displays.
  */
-public class GameFrame extends JFrame {
+public class GameFrame extends JFrame implements GameOutput {
+    // The loop driver fires about as often as the display can use; the loop itself decides how many ticks to run
+    private static final int FRAME_DELAY_MS = 4;
+    private static final Color BIG_STATE_COLOR = new Color(255, 165, 0);
+    private static final Path QUICK_SAVE = Paths.get("saves", "quicksave.sav");
+
     private static GameFrame instance;
-    private MarioComponent mario;
-    private LevelManager levelManager;
+    private GameSession session;
     private GamePanel gamePanel;
+    private GameLoop gameLoop;
+    private Timer loopDriver;
     private JPanel controlPanel;
     private JPanel statusPanel;
     private JLabel scoreLabel, livesLabel, stateLabel, abilitiesLabel, levelLabel;
     private JProgressBar invincibilityBar;
     private JPanel logPanel;
     private JTextArea logArea;
+    private MarioSnapshot shownSnapshot;
+    private GameLog log;
+    // The session reports here; the frame's share is delivered once per frame
+    private final EventBus events = new EventBus(this);
+    // Null unless the mario.record property names a file to record the game to
+    private InputRecorder recorder;
+    private final SaveGame saveGame = new SaveGame();
 
     private GameFrame() {
-        mario = new Mario();
-        levelManager = new LevelManager();
+        session = new GameSession(events);
+        recorder = InputRecorder.openDefault(session);
         initializeGUI();
     }
 
@@ -44,11 +64,17 @@ public class GameFrame extends JFrame {
     private void initializeGUI() {
         setTitle("🍄 Super Mario Design Patterns - State & Decorator Demo 🍄");
         setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
+        addWindowListener(new WindowAdapter() {
+            @Override
+            public void windowClosing(WindowEvent e) {
+                closeRecording();
+            }
+        });
         setLayout(new BorderLayout(10, 10));
         getContentPane().setBackground(new Color(45, 45, 45));
 
         // Create game panel
-        gamePanel = new GamePanel(mario, levelManager);
+        gamePanel = createGamePanel();
         add(gamePanel, BorderLayout.CENTER);
 
         // Create control panel
@@ -72,6 +98,35 @@ public class GameFrame extends JFrame {
         addKeyBindings();
 
         updateDisplay();
+
+        startGameLoop();
+    }
+
+    private void startGameLoop() {
+        // Single clock for input, physics, collisions, effects and power-up timers
+        gameLoop = new GameLoop(tick -> {
+            session.tick();
+            gamePanel.simulate(tick);
+        }, () -> {
+            // One batch of game events and one log update per frame, however many the ticks produced
+            events.drain();
+            log.flush();
+            gamePanel.paintDamage();
+        });
+        loopDriver = new Timer(FRAME_DELAY_MS, e -> gameLoop.frame(System.nanoTime()));
+        loopDriver.start();
+    }
+
+    private GamePanel createGamePanel() {
+        GamePanel panel = new GamePanel(session);
+        // Mario's movement is clamped to the visible width, or the level's if it is wider
+        panel.addComponentListener(new ComponentAdapter() {
+            @Override
+            public void componentResized(ComponentEvent e) {
+                perform(Input.RESIZE, panel.getWidth());
+            }
+        });
+        return panel;
     }
 
     private void createControlPanel() {
@@ -91,24 +146,24 @@ public class GameFrame extends JFrame {
         controlPanel.setForeground(Color.WHITE);
 
         // Action buttons
-        addStyledButton("🦘 Jump", e -> { mario.jump(); gamePanel.checkCollisions(); }, new Color(65, 105, 225));
-        addStyledButton("⬅️ Move Left", e -> { mario.move(-1); gamePanel.checkCollisions(); }, new Color(70, 130, 180));
-        addStyledButton("➡️ Move Right", e -> { mario.move(1); gamePanel.checkCollisions(); }, new Color(70, 130, 180));
-        addStyledButton("🔥 Fire", e -> shootFire(), new Color(220, 20, 60));
-        addStyledButton("🧱 Break", e -> breakBlock(), new Color(139, 69, 19));
-
-        addStyledButton("🍄 Mushroom", e -> { mario.collectMushroom(); gamePanel.checkCollisions(); }, new Color(255, 99, 71));
-        addStyledButton("🌸 Fire Flower", e -> { mario.collectFireFlower(); gamePanel.checkCollisions(); }, new Color(255, 69, 0));
-        addStyledButton("⭐ Star", e -> { mario.collectStar(); gamePanel.checkCollisions(); }, new Color(255, 215, 0));
-        addStyledButton("💥 Damage", e -> mario.takeDamage(), new Color(178, 34, 34));
-        addStyledButton("🚀 Speed", e -> addSpeedBoost(), new Color(30, 144, 255));
-
-        addStyledButton("⬆️ DblJump", e -> addDoubleJump(), new Color(123, 104, 238));
-        addStyledButton("🛡️ Shield", e -> addShield(), new Color(0, 191, 255));
-        addStyledButton("💪 Strength", e -> addSuperStrength(), new Color(218, 165, 32));
+        addStyledButton("🦘 Jump", e -> post(Input.JUMP), new Color(65, 105, 225));
+        addStyledButton("⬅️ Move Left", e -> post(Input.MOVE_LEFT), new Color(70, 130, 180));
+        addStyledButton("➡️ Move Right", e -> post(Input.MOVE_RIGHT), new Color(70, 130, 180));
+        addStyledButton("🔥 Fire", e -> post(Input.FIRE), new Color(220, 20, 60));
+        addStyledButton("🧱 Break", e -> post(Input.BREAK), new Color(139, 69, 19));
+
+        addStyledButton("🍄 Mushroom", e -> post(Input.MUSHROOM), new Color(255, 99, 71));
+        addStyledButton("🌸 Fire Flower", e -> post(Input.FIRE_FLOWER), new Color(255, 69, 0));
+        addStyledButton("⭐ Star", e -> post(Input.STAR), new Color(255, 215, 0));
+        addStyledButton("💥 Damage", e -> post(Input.DAMAGE), new Color(178, 34, 34));
+        addStyledButton("🚀 Speed", e -> post(Input.SPEED_BOOST), new Color(30, 144, 255));
+
+        addStyledButton("⬆️ DblJump", e -> post(Input.DOUBLE_JUMP), new Color(123, 104, 238));
+        addStyledButton("🛡️ Shield", e -> post(Input.SHIELD), new Color(0, 191, 255));
+        addStyledButton("💪 Strength", e -> post(Input.SUPER_STRENGTH), new Color(218, 165, 32));
         addStyledButton("🎭 Demo", e -> demonstratePatterns(), new Color(138, 43, 226));
-        addStyledButton("◀️ Prev Level", e -> previousLevel(), new Color(72, 61, 139));
-        addStyledButton("▶️ Next Level", e -> nextLevel(), new Color(72, 61, 139));
+        addStyledButton("◀️ Prev Level", e -> post(Input.PREVIOUS_LEVEL), new Color(72, 61, 139));
+        addStyledButton("▶️ Next Level", e -> post(Input.NEXT_LEVEL), new Color(72, 61, 139));
     }
 
     private void createStatusPanel() {
@@ -186,6 +241,7 @@ public class GameFrame extends JFrame {
         logArea.setFont(new Font("Monospaced", Font.PLAIN, 12));
         logArea.setLineWrap(true);
         logArea.setWrapStyleWord(true);
+        log = new GameLog(logArea, gamePanel);
 
         JScrollPane scrollPane = new JScrollPane(logArea);
         scrollPane.setBorder(BorderFactory.createLineBorder(new Color(80, 80, 80)));
@@ -255,162 +311,153 @@ public class GameFrame extends JFrame {
         // Space for jump
         inputMap.put(KeyStroke.getKeyStroke(KeyEvent.VK_SPACE, 0), "jump");
 
+        // F3 for the rendering debug overlay
+        inputMap.put(KeyStroke.getKeyStroke(KeyEvent.VK_F3, 0), "debugOverlay");
+
+        // F5 and F9 to save and load the quick save slot
+        inputMap.put(KeyStroke.getKeyStroke(KeyEvent.VK_F5, 0), "quickSave");
+        inputMap.put(KeyStroke.getKeyStroke(KeyEvent.VK_F9, 0), "quickLoad");
+
+        actionMap.put("quickSave", new AbstractAction() {
+            @Override
+            public void actionPerformed(ActionEvent e) {
+                gameLoop.post(GameFrame.this::quickSave);
+            }
+        });
+
+        actionMap.put("quickLoad", new AbstractAction() {
+            @Override
+            public void actionPerformed(ActionEvent e) {
+                gameLoop.post(GameFrame.this::quickLoad);
+            }
+        });
+
+        actionMap.put("debugOverlay", new AbstractAction() {
+            @Override
+            public void actionPerformed(ActionEvent e) {
+                gamePanel.toggleDebugOverlay();
+            }
+        });
+
         actionMap.put("jump", new AbstractAction() {
             @Override
             public void actionPerformed(ActionEvent e) {
-                mario.jump();
-                gamePanel.checkCollisions();
+                post(Input.JUMP);
             }
         });
 
         actionMap.put("moveLeft", new AbstractAction() {
             @Override
             public void actionPerformed(ActionEvent e) {
-                mario.move(-1);
-                gamePanel.checkCollisions();
+                post(Input.MOVE_LEFT);
             }
         });
 
         actionMap.put("moveRight", new AbstractAction() {
             @Override
             public void actionPerformed(ActionEvent e) {
-                mario.move(1);
-                gamePanel.checkCollisions();
+                post(Input.MOVE_RIGHT);
             }
         });
 
         actionMap.put("fire", new AbstractAction() {
             @Override
             public void actionPerformed(ActionEvent e) {
-                shootFire();
+                post(Input.FIRE);
             }
         });
 
         actionMap.put("break", new AbstractAction() {
             @Override
             public void actionPerformed(ActionEvent e) {
-                breakBlock();
+                post(Input.BREAK);
             }
         });
 
         actionMap.put("mushroom", new AbstractAction() {
             @Override
             public void actionPerformed(ActionEvent e) {
-                mario.collectMushroom();
-                gamePanel.checkCollisions();
+                post(Input.MUSHROOM);
             }
         });
 
         actionMap.put("flower", new AbstractAction() {
             @Override
             public void actionPerformed(ActionEvent e) {
-                mario.collectFireFlower();
-                gamePanel.checkCollisions();
+                post(Input.FIRE_FLOWER);
             }
         });
 
         actionMap.put("star", new AbstractAction() {
             @Override
             public void actionPerformed(ActionEvent e) {
-                mario.collectStar();
-                gamePanel.checkCollisions();
+                post(Input.STAR);
             }
         });
 
         actionMap.put("damage", new AbstractAction() {
             @Override
             public void actionPerformed(ActionEvent e) {
-                mario.takeDamage();
+                post(Input.DAMAGE);
             }
         });
     }
 
-    // Action methods
-    private void shootFire() {
-        if (mario.canShootFire()) {
-            if (mario instanceof Mario) {
-                ((Mario) mario).shootFire();
-            } else {
-                addLogMessage("🔥💥 Shooting fireball through decorators!", Color.MAGENTA);
-                mario.addScore(50);
-                updateDisplay();
-            }
-        } else {
-            addLogMessage("❌ Cannot shoot fire in current state!", Color.RED);
-        }
+    /**
+     * Queues a player action for the start of the next tick.
+     */
+    private void post(Input input) {
+        gameLoop.post(() -> perform(input, 0));
     }
 
-    private void breakBlock() {
-        if (mario.canBreakBlocks()) {
-            addLogMessage("🧱💥 Breaking block!", Color.ORANGE);
-            mario.addScore(25);
-            if (mario.hasAbility("Super Strength")) {
-                addLogMessage("💪 SUPER STRENGTH: Breaking extra blocks!", Color.MAGENTA);
-                mario.addScore(75);
-            }
-            updateDisplay();
-        } else {
-            addLogMessage("❌ Cannot break blocks in current state!", Color.RED);
+    /**
+     * Applies an input to the session now, recording it first if the game is recorded.
+     */
+    private void perform(Input input, int argument) {
+        if (recorder != null) {
+            recorder.record(session.getTick(), input, argument);
         }
+        input.apply(session, argument);
     }
 
-    private void addSpeedBoost() {
-        if (!mario.hasAbility("Speed Boost")) {
-            mario = new SpeedBoostDecorator(mario);
-            addLogMessage("🚀 Speed Boost activated!", Color.MAGENTA);
-            updateDisplay();
-        } else {
-            addLogMessage("❌ Speed Boost already active!", Color.RED);
+    private void quickSave() {
+        try {
+            Files.createDirectories(QUICK_SAVE.getParent());
+            saveGame.save(session, QUICK_SAVE);
+            addLogMessage("💾 Game saved", Color.GREEN);
+        } catch (IOException e) {
+            addLogMessage("❌ Could not save: " + e.getMessage(), Color.RED);
         }
     }
 
-    private void addDoubleJump() {
-        if (!mario.hasAbility("Double Jump")) {
-            mario = new DoubleJumpDecorator(mario);
-            addLogMessage("⬆️ Double Jump activated!", Color.MAGENTA);
-            updateDisplay();
-        } else {
-            addLogMessage("❌ Double Jump already active!", Color.RED);
+    private void quickLoad() {
+        if (!Files.isRegularFile(QUICK_SAVE)) {
+            addLogMessage("❌ No saved game yet - F5 saves one", Color.RED);
+            return;
         }
-    }
-
-    private void addShield() {
-        if (!mario.hasAbility("Shield")) {
-            mario = new ShieldDecorator(mario);
-            addLogMessage("🛡️ Shield activated!", Color.CYAN);
-            updateDisplay();
-        } else {
-            addLogMessage("❌ Shield already active!", Color.RED);
+        if (recorder != null) {
+            // A replay starts from a new game, not from a saved one
+            closeRecording();
+            recorder = null;
+            addLogMessage("⏹️ Recording stopped at the load", Color.GRAY);
         }
-    }
-
-    private void addSuperStrength() {
-        if (!mario.hasAbility("Super Strength")) {
-            mario = new SuperStrengthDecorator(mario);
-            addLogMessage("💪 Super Strength activated!", Color.ORANGE);
-            updateDisplay();
-        } else {
-            addLogMessage("❌ Super Strength already active!", Color.RED);
+        try {
+            SaveGame.load(QUICK_SAVE, session);
+            addLogMessage("📂 Game loaded", Color.GREEN);
+        } catch (IOException e) {
+            // A snapshot that fails part way leaves a mixed game behind; start afresh rather than play it
+            session.restart();
+            addLogMessage("❌ Could not load: " + e.getMessage(), Color.RED);
         }
+        events.updateDisplay();
     }
 
-    private void nextLevel() {
-        if (!levelManager.isLastLevel()) {
-            levelManager.nextLevel();
-            addLogMessage("▶️ Advanced to " + levelManager.getCurrentLevel().getName(), Color.GREEN);
-            updateDisplay();
-        } else {
-            addLogMessage("🎉 You've completed all levels!", Color.ORANGE);
-        }
-    }
-
-    private void previousLevel() {
-        if (levelManager.getCurrentLevelNumber() > 1) {
-            levelManager.previousLevel();
-            addLogMessage("◀️ Returned to " + levelManager.getCurrentLevel().getName(), Color.BLUE);
-            updateDisplay();
-        } else {
-            addLogMessage("❌ Already at first level!", Color.RED);
+    private void closeRecording() {
+        if (recorder == null) return;
+        try {
+            recorder.close(session);
+        } catch (IOException e) {
+            System.err.println("Recording incomplete: " + e.getMessage());
         }
     }
 
@@ -424,32 +471,27 @@ public class GameFrame extends JFrame {
             switch (step[0]) {
                 case 0:
                     addLogMessage("📖 State Pattern: Collecting mushroom...", Color.BLUE);
-                    mario.collectMushroom();
+                    post(Input.MUSHROOM);
                     break;
                 case 1:
                     addLogMessage("📖 State Pattern: Collecting fire flower...", Color.BLUE);
-                    mario.collectFireFlower();
+                    post(Input.FIRE_FLOWER);
                     break;
                 case 2:
                     addLogMessage("📖 Decorator Pattern: Adding Speed Boost...", Color.PINK);
-                    if (!mario.hasAbility("Speed Boost")) {
-                        mario = new SpeedBoostDecorator(mario);
-                    }
+                    post(Input.SPEED_BOOST);
                     break;
                 case 3:
                     addLogMessage("📖 Decorator Pattern: Adding Shield...", Color.PINK);
-                    if (!mario.hasAbility("Shield")) {
-                        mario = new ShieldDecorator(mario);
-                    }
+                    post(Input.SHIELD);
                     break;
                 case 4:
                     addLogMessage("📖 Integration: Testing enhanced abilities...", Color.GREEN);
-                    mario.jump();
-                    gamePanel.performJumpAnimation();
+                    post(Input.JUMP);
                     break;
                 case 5:
                     addLogMessage("📖 Integration: Testing fire shooting...", Color.GREEN);
-                    shootFire();
+                    post(Input.FIRE);
                     break;
                 case 6:
                     addLogMessage("🎉 Demo Complete! All patterns working together!", Color.ORANGE);
@@ -457,30 +499,31 @@ public class GameFrame extends JFrame {
                     break;
             }
             step[0]++;
-            updateDisplay();
+            events.updateDisplay();
         });
 
         demoTimer.start();
     }
 
+    @Override
     public void addLogMessage(String message, Color color) {
-        // Add to game panel if needed
-        gamePanel.addLogMessage(message, color);
-
-        // Also add to the log area
-        SwingUtilities.invokeLater(() -> {
-            logArea.setForeground(color);
-            logArea.append(message + "\n");
-            logArea.setCaretPosition(logArea.getDocument().getLength());
-        });
+        // Shown on the next frame, in the game panel and the log area
+        log.add(message, color);
     }
 
+    @Override
     public void updateDisplay() {
+        levelLabel.setText("Level: " + session.getLevelManager().getCurrentLevel().getName());
+
+        // Mario's labels only change with his snapshot
+        MarioSnapshot mario = session.getSnapshot();
+        if (mario == shownSnapshot) return;
+        shownSnapshot = mario;
+
         // Update status labels
         scoreLabel.setText("Score: " + mario.getScore());
         livesLabel.setText("Lives: " + mario.getLives());
         stateLabel.setText("State: " + mario.getStateName());
-        levelLabel.setText("Level: " + levelManager.getCurrentLevel().getName());
 
         List<String> abilities = mario.getAbilities();
         if (abilities.isEmpty()) {
@@ -494,26 +537,24 @@ public class GameFrame extends JFrame {
         }
 
         // Update invincibility bar
-        if (mario.getStateName().contains("Invincible")) {
-            invincibilityBar.setVisible(true);
-        } else {
-            invincibilityBar.setVisible(false);
-        }
+        invincibilityBar.setVisible(mario.isInvincible());
 
         // Color code the status based on Mario's state
-        if (mario.getStateName().contains("Small")) {
-            stateLabel.setForeground(Color.RED);
-        } else if (mario.getStateName().contains("Big")) {
-            stateLabel.setForeground(new Color(255, 165, 0));
-        } else if (mario.getStateName().contains("Fire")) {
-            stateLabel.setForeground(Color.RED);
-        } else if (mario.getStateName().contains("Invincible")) {
-            stateLabel.setForeground(Color.MAGENTA);
+        switch (mario.getKind()) {
+            case SMALL:
+            case FIRE:
+                stateLabel.setForeground(Color.RED);
+                break;
+            case BIG:
+                stateLabel.setForeground(BIG_STATE_COLOR);
+                break;
+            case INVINCIBLE:
+                stateLabel.setForeground(Color.MAGENTA);
+                break;
         }
-
-        repaint();
     }
 
+    @Override
     public void updateInvincibilityTimer(int timer) {
         if (timer > 0) {
             invincibilityBar.setValue(timer);
@@ -522,40 +563,48 @@ public class GameFrame extends JFrame {
         gamePanel.updateInvincibilityTimer(timer);
     }
 
+    @Override
     public void removeDecorator(String decoratorType) {
-        // This is a simplified approach - in a real implementation,
-        // you'd need a more sophisticated way to unwrap decorators
-        updateDisplay();
+        // The decorator has already unlinked itself from the session's Mario;
+        // the display refresh that ends the frame's batch of events shows it
     }
 
+    @Override
     public void showGameOver() {
+        // The dialog is modal; keep the loop from ticking underneath it
+        loopDriver.stop();
         JOptionPane.showMessageDialog(this,
-                "💀 GAME OVER! 💀\n\nFinal Score: " + mario.getScore() +
+                "💀 GAME OVER! 💀\n\nFinal Score: " + session.getMario().getScore() +
                         "\n\nThanks for playing Super Mario Design Patterns!",
                 "Game Over", JOptionPane.INFORMATION_MESSAGE);
 
-        // Reset the game
-        mario = new Mario();
-        levelManager = new LevelManager();
-        gamePanel = new GamePanel(mario, levelManager);
+        // Reset the game; the levels are reset in place, not rebuilt
+        perform(Input.RESTART, 0);
+        gamePanel = createGamePanel();
         remove(getContentPane().getComponent(0));
         add(gamePanel, BorderLayout.CENTER);
+        log.setPanel(gamePanel);
         updateDisplay();
         revalidate();
 
         // Clear log
-        logArea.setText("");
+        log.clear();
+        loopDriver.start();
+    }
+
+    @Override
+    public void createFireEffect(int x, int y, int size) {
+        gamePanel.createFireEffect(x, y, size);
     }
 
     public void resetGame() {
-        mario = new Mario();
-        levelManager.resetCurrentLevel();
-        addLogMessage("🔄 Game reset! Mario is back to Small Mario state.", Color.BLUE);
-        updateDisplay();
+        post(Input.RESET);
     }
 
     // Make the frame accessible to other classes
-    public MarioComponent getMario() { return mario; }
-    public void setMario(MarioComponent mario) { this.mario = mario; }
+    public MarioComponent getMario() { return session.getMario(); }
+    public void setMario(MarioComponent mario) { session.setMario(mario); }
+    public GameSession getSession() { return session; }
     public GamePanel getGamePanel() { return gamePanel; }
+    public GameLoop getGameLoop() { return gameLoop; }
 }
\ No newline at end of file
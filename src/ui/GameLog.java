@@ -0,0 +1,105 @@
+package ui;
+
+import javax.swing.JTextArea;
+import javax.swing.text.BadLocationException;
+import javax.swing.text.Document;
+import javax.swing.text.Element;
+import java.awt.Color;
+
+/**
+ * The game log as the window shows it: messages from any thread go into a
+ * {@link LogRing}, and the event dispatch thread takes them out once per frame
+ * in {@link #flush()}. A flush appends the batch to the log area as one edit
+ * and cuts the area back to MAX_LINES, so however fast messages arrive the EDT
+ * does a bounded amount of work per frame and the document stays small.
+ *
+ * Appending is dear - the text view measures every new line, and emoji send
+ * it through font fallback - so a flush appends at most FLUSH_LINES messages,
+ * the newest, and one line counting the ones it skipped.
+ */
+public class GameLog {
+    public static final int CAPACITY = 16_384;
+    public static final int MAX_LINES = 500;
+    public static final int FLUSH_LINES = 16;
+
+    private final LogRing ring = new LogRing(CAPACITY);
+    private final JTextArea area;
+    private GamePanel panel;
+
+    // The latest FLUSH_LINES messages of the current batch, reused every flush
+    private final String[] batchMessages = new String[FLUSH_LINES];
+    private final Color[] batchColors = new Color[FLUSH_LINES];
+    private final StringBuilder text = new StringBuilder();
+    private long flushed;
+
+    public GameLog(JTextArea area, GamePanel panel) {
+        this.area = area;
+        this.panel = panel;
+    }
+
+    /**
+     * Queues a message; safe from any thread and never blocks.
+     */
+    public void add(String message, Color color) {
+        ring.offer(message, color);
+    }
+
+    /**
+     * Moves queued messages into the game panel and the log area. EDT only.
+     */
+    public void flush() {
+        int count = ring.drain(batchMessages, batchColors);
+        if (count == 0) return;
+        flushed += count;
+
+        // The area has a single foreground colour; it follows the newest message
+        Color newest = batchColors[(count - 1) % FLUSH_LINES];
+        int kept = Math.min(count, FLUSH_LINES);
+        // The panel shows only its last few lines
+        int panelFrom = count - GamePanel.MAX_LOG_LINES;
+        text.setLength(0);
+        if (count > kept) {
+            text.append("... ").append(count - kept).append(" more messages\n");
+        }
+        for (int n = count - kept; n < count; n++) {
+            int index = n % FLUSH_LINES;
+            if (n >= panelFrom) panel.addLogMessage(batchMessages[index], batchColors[index]);
+            text.append(batchMessages[index]).append('\n');
+            batchMessages[index] = null;
+            batchColors[index] = null;
+        }
+
+        if (newest != null) area.setForeground(newest);
+        area.append(text.toString());
+        trim(area.getDocument());
+        area.setCaretPosition(area.getDocument().getLength());
+    }
+
+    private static void trim(Document document) {
+        Element root = document.getDefaultRootElement();
+        // The text ends with a newline, which leaves an empty last line
+        int excess = root.getElementCount() - 1 - MAX_LINES;
+        if (excess <= 0) return;
+        try {
+            document.remove(0, root.getElement(excess - 1).getEndOffset());
+        } catch (BadLocationException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Empties the log area; queued messages are kept.
+     */
+    public void clear() {
+        area.setText("");
+    }
+
+    public void setPanel(GamePanel panel) {
+        this.panel = panel;
+    }
+
+    public LogRing getRing() { return ring; }
+
+    /** Messages taken out of the ring so far */
+    public long getFlushed() { return flushed; }
+}
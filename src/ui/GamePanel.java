@@ -1,89 +1,323 @@
 package ui;
 
+import core.Ability;
+import core.GameLoop;
+import core.GameSession;
 import core.Mario;
+import core.MarioSnapshot;
 import interfaces.MarioComponent;
+import level.Block;
+import level.GameObject;
+import level.Level;
+import level.LevelManager;
 
 import javax.swing.*;
 import java.awt.*;
-import java.awt.event.ActionEvent;
-import java.awt.event.ActionListener;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
-import java.util.Random;
+import java.util.Map;
 
 /**
  * Main game panel that handles all visual rendering and animations
  */
 public class GamePanel extends JPanel {
-    private MarioComponent mario;
-    private LevelManager levelManager;
-    private List<String> logMessages;
-    private Timer animationTimer;
-    private boolean isJumping = false;
-    private int jumpOffset = 0;
+    private static final int EFFECT_UPDATES_PER_SECOND = 60;
+    // Room around an item's box for its label above and animation overshoot
+    private static final int ITEM_MARGIN = 8;
+    private static final int ITEM_LABEL_HEIGHT = 20;
+    private static final SpriteCache.Painter<GameObject> ITEM_PAINTER =
+            (g2d, item, frame) -> item.render(g2d, 0, 0, frame);
+    private static final int MAX_LOG_LINE = 35;
+    public static final int MAX_LOG_LINES = 8;
+    // Paint passes a frame may take; more, smaller ones fill fewer pixels but traverse the scene again
+    public static final int MAX_PAINT_CLUSTERS = 4;
+
+    // Fonts, colours and paints used while painting are created once, so a frame allocates nothing
+    private static final Font HEADING_FONT = new Font("Arial", Font.BOLD, 16);
+    private static final Font TEXT_FONT = new Font("Arial", Font.PLAIN, 12);
+    private static final Font LOG_TITLE_FONT = new Font("Arial", Font.BOLD, 12);
+    private static final Font LOG_FONT = new Font("Monospaced", Font.PLAIN, 10);
+    private static final Font LABEL_FONT = new Font("Arial", Font.BOLD, 10);
+    private static final Color HIGHLIGHT = new Color(255, 255, 255, 100);
+    private static final Color PANEL_TOP = new Color(0, 0, 0, 200);
+    private static final Color PANEL_BOTTOM = new Color(0, 0, 0, 150);
+    private static final Color HAT_LIGHT = new Color(200, 0, 0);
+    private static final Color HAT_DARK = new Color(150, 0, 0);
+
+    private GameSession session;
+    // The last MAX_LOG_LINES messages, oldest at logStart
+    private final String[] logLines = new String[MAX_LOG_LINES];
+    private int logStart;
+    private int logSize;
     private int invincibilityTimer = 0;
-    private List<FireEffect> fireEffects;
-    private List<SmokeEffect> smokeEffects;
-    private List<FireballEffect> fireballEffects;
-    private Random random;
+    private ParticleSystem particles;
     private boolean showStrengthEffect = false;
     private int strengthEffectTimer = 0;
+    private long animationTime = 0;
+    // Bumped on every log message, so the cached log text is redrawn
+    private int logVersion;
+
+    private final DebugOverlay debugOverlay = new DebugOverlay();
+    private final Camera camera = new Camera();
+    // Objects in view, found through the level's index; reused every frame
+    private final List<GameObject> visibleItems = new ArrayList<>();
+    private final List<Block> visibleBlocks = new ArrayList<>();
+
+    // What the last painted frame showed, to work out what changed since
+    private final DamageTracker damage = new DamageTracker();
+    private final Rectangle particleBounds = new Rectangle();
+    private final Rectangle lastParticleBounds = new Rectangle();
+    private Level lastLevel;
+    private int lastLevelModCount;
+    private int lastContentVersion;
+    private int lastCameraX;
+    // Objects in view then and now, swapped after each comparison
+    private List<GameObject> lastItems = new ArrayList<>();
+    private List<Block> lastBlocks = new ArrayList<>();
+    private List<GameObject> currentItems = new ArrayList<>();
+    private List<Block> currentBlocks = new ArrayList<>();
+    private long lastAnimationTime;
+    private int lastMarioX, lastMarioY;
+    private int lastLogVersion;
+    private int lastWidth, lastHeight;
+
+    private final BackgroundLayer background = new BackgroundLayer();
+    private final SpriteCache sprites = new SpriteCache();
+    private final Map<Class<?>, SpriteCache.Kind<GameObject>> itemSprites = new HashMap<>();
+    private final SpriteCache.Kind<Color> marioBodySprite =
+            sprites.register(0, 0, Mario.SIZE + 1, Mario.SIZE + 1, GamePanel::paintMarioBody);
+    private final SpriteCache.Kind<Object> marioFaceSprite =
+            sprites.register(1, 10, Mario.SIZE + 3, Mario.SIZE + 12, GamePanel::paintMarioFace);
+    // Shapes Java2D would otherwise allocate for on every fill, and glows drawn opaque then faded
+    private final SpriteCache.Kind<Object> shadowSprite = sprites.register(0, 0, 36, 11, (g2d, unused, variant) -> {
+        g2d.setColor(new Color(0, 0, 0, 40));
+        g2d.fillOval(5, 0, 30, 10);
+    });
+    private final SpriteCache.Kind<Object> invincibleGlowSprite = sprites.register(5, 5, 51, 51, (g2d, unused, variant) -> {
+        g2d.setColor(new Color(255, 255, 0));
+        g2d.fillRoundRect(-5, -5, 50, 50, 15, 15);
+    });
+    private final SpriteCache.Kind<Object> speedBoostGlowSprite = sprites.register(10, 10, 61, 61, (g2d, unused, variant) -> {
+        g2d.setColor(new Color(255, 0, 255));
+        g2d.fillOval(-10, -10, 60, 60);
+    });
+    private final SpriteCache.Kind<Object> shieldGlowSprite = sprites.register(9, 9, 58, 58, (g2d, unused, variant) -> {
+        g2d.setColor(new Color(0, 255, 255));
+        g2d.drawOval(-8, -8, 56, 56);
+        g2d.drawOval(-6, -6, 52, 52);
+    });
+    private final SpriteCache.Kind<Object> strengthGlowSprite = sprites.register(3, 3, 47, 47, (g2d, unused, variant) -> {
+        g2d.setColor(new Color(255, 165, 0));
+        g2d.fillRoundRect(-3, -3, 46, 46, 12, 12);
+    });
+    private final SpriteCache.Kind<Object> strengthOverlaySprite = sprites.register(8, 8, 57, 57, (g2d, unused, variant) -> {
+        g2d.setColor(new Color(255, 215, 0, 100));
+        g2d.fillRoundRect(-8, -8, 56, 56, 15, 15);
+    });
+    // Text as well: switching fonts mid-frame makes Java2D allocate a glyph strike lookup
+    private final SpriteCache.Kind<LevelManager> levelInfoSprite =
+            sprites.register(0, 0, 301, 81, GamePanel::paintLevelInfo);
+    // The log's panel and title never change; the lines over them are painted in place per message
+    private final SpriteCache.Kind<Object> logBackgroundSprite =
+            sprites.register(0, 0, 331, 151, GamePanel::paintLogBackground);
+    private final RedrawnSprite<Object> logPanelSprite =
+            new RedrawnSprite<>(0, 0, 331, 151, this::paintLogPanel);
+    private final RedrawnSprite<String> newestLogLineSprite =
+            new RedrawnSprite<>(0, 10, 320, 14, GamePanel::paintNewestLogLine);
+    // Keyed by the emoji's hash - there are only a handful of state emojis
+    private final SpriteCache.Kind<String> stateEmojiSprite = sprites.register(0, 18, 28, 24, (g2d, emoji, hash) -> {
+        g2d.setFont(HEADING_FONT);
+        g2d.setColor(Color.BLACK);
+        g2d.drawString(emoji, 0, 0);
+    });
 
-    public GamePanel(MarioComponent mario, LevelManager levelManager) {
-        this.mario = mario;
-        this.levelManager = levelManager;
-        this.logMessages = new ArrayList<>();
-        this.fireEffects = new ArrayList<>();
-        this.smokeEffects = new ArrayList<>();
-        this.fireballEffects = new ArrayList<>();
-        this.random = new Random();
+    public GamePanel(GameSession session) {
+        this.session = session;
+        this.particles = new ParticleSystem();
         setPreferredSize(new Dimension(800, 500));
         setBackground(Color.WHITE);
 
-        // Animation timer for smooth graphics
-        animationTimer = new Timer(16, e -> { // ~60 FPS
-            updateEffects();
-            repaint();
-        });
-        animationTimer.start();
-
-        // Game loop timer for continuous updates
-        Timer gameLoopTimer = new Timer(100, e -> {
-            mario.update();
-        });
-        gameLoopTimer.start();
-
         addLogMessage("🎮 Welcome to Super Mario Design Patterns!", Color.BLUE);
         addLogMessage("Use the control panel to interact with Mario!", Color.GRAY);
     }
 
     @Override
     protected void paintComponent(Graphics g) {
-        super.paintComponent(g);
+        // No super.paintComponent(): the opaque background layer covers the whole panel
         Graphics2D g2d = (Graphics2D) g.create();
 
         // Enable anti-aliasing for smoother graphics
         g2d.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
         g2d.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
 
-        // Draw background gradient
-        Level currentLevel = levelManager.getCurrentLevel();
-        GradientPaint gradient = new GradientPaint(0, 0, currentLevel.getBackgroundColor().brighter(),
-                0, getHeight(), currentLevel.getBackgroundColor().darker());
-        g2d.setPaint(gradient);
-        g2d.fillRect(0, 0, getWidth(), getHeight());
+        debugOverlay.beginPaint();
+        render(g2d);
+        debugOverlay.endPaint();
+        debugOverlay.draw(g2d, getHeight(), sprites);
+
+        g2d.dispose();
+    }
+
+    /**
+     * Repaints what changed since the last call. The damaged regions are
+     * grouped into at most MAX_PAINT_CLUSTERS clusters that do not overlap -
+     * typically Mario and the world around him, and the log - and each is
+     * painted in one pass clipped to its box, so far-apart damage is not
+     * merged into one box across the panel and the scene is not traversed
+     * once per region. The game loop calls this once per frame instead of
+     * repaint(), which would redraw the whole panel; Swing still repaints
+     * everything on resize or exposure.
+     */
+    public void paintDamage() {
+        DamageTracker damage = collectDamage();
+        int clusters = damage.cluster(MAX_PAINT_CLUSTERS);
+        // However many paints the frame takes, the overlay reports their total
+        debugOverlay.beginFrame();
+        for (int i = 0; i < clusters; i++) {
+            paintImmediately(damage.getCluster(i));
+        }
+        debugOverlay.endFrame();
+        debugOverlay.recordDamage(clusters, damage.clusterArea(), (long) getWidth() * getHeight());
+    }
+
+    /**
+     * Works out which regions changed since the last call: Mario's old and new
+     * bounds, animated, collected or broken objects in view, the particles and
+     * the log. Everything, if the view scrolled.
+     */
+    public DamageTracker collectDamage() {
+        int width = getWidth();
+        int height = getHeight();
+        int cameraX = camera.getX();
+        Level level = session.getLevelManager().getCurrentLevel();
+        damage.clear(width, height);
+
+        if (level != lastLevel || level.getContentVersion() != lastContentVersion
+                || width != lastWidth || height != lastHeight || cameraX != lastCameraX) {
+            // New background and level info, objects streamed in or out, or a scroll
+            damage.addAll();
+            lastLevel = level;
+            lastContentVersion = level.getContentVersion();
+            lastWidth = width;
+            lastHeight = height;
+            lastCameraX = cameraX;
+            findVisible(level, lastItems, lastBlocks);
+        } else {
+            // Mario always: his glows and state emoji pulse every frame
+            int x = session.getMario().getX();
+            int drawY = session.getMario().getY() - session.getJumpOffset();
+            marioDamage(lastMarioX - cameraX, lastMarioY);
+            marioDamage(x - cameraX, drawY);
+
+            boolean animating = animationTime != lastAnimationTime;
+            boolean changed = level.getModCount() != lastLevelModCount;
+            if (animating || changed) {
+                findVisible(level, currentItems, currentBlocks);
+                objectDamage(currentItems, changed, animating, cameraX);
+                objectDamage(currentBlocks, changed, animating, cameraX);
+                if (changed) {
+                    // Whatever was in view before, including what has just gone
+                    objectDamage(lastItems, true, false, cameraX);
+                    objectDamage(lastBlocks, true, false, cameraX);
+                }
+                List<GameObject> items = lastItems;
+                lastItems = currentItems;
+                currentItems = items;
+                List<Block> blocks = lastBlocks;
+                lastBlocks = currentBlocks;
+                currentBlocks = blocks;
+            }
+
+            particles.getBounds(particleBounds);
+            particleBounds.x -= cameraX;
+            addDamage(lastParticleBounds);
+            addDamage(particleBounds);
+
+            if (logVersion != lastLogVersion) {
+                damage.add(width - 350, 10, 331, 151);
+            } else if (logSize > 0) {
+                // The newest line pulses
+                damage.add(width - 340, 35 + (logSize - 1) * 12, 320, 14);
+            }
+
+            debugOverlay.addDamage(damage, height);
+        }
+
+        lastMarioX = session.getMario().getX();
+        lastMarioY = session.getMario().getY() - session.getJumpOffset();
+        lastLevelModCount = level.getModCount();
+        lastAnimationTime = animationTime;
+        lastLogVersion = logVersion;
+        particles.getBounds(lastParticleBounds);
+        lastParticleBounds.x -= cameraX;
+        return damage;
+    }
+
+    private void marioDamage(int x, int drawY) {
+        // Widest glow to the state emoji above, and the shadow on the ground
+        damage.add(x - 10, drawY - 31, Mario.SIZE + 22, Mario.SIZE + 43);
+        damage.add(x, BackgroundLayer.GROUND_Y - 5, 36, 11);
+    }
 
-        // Draw ground
-        drawGround(g2d);
+    /**
+     * Fills the lists with the uncollected items and unbroken blocks whose
+     * sprites reach into the view. The level's index finds them, so the cost
+     * follows what is on screen rather than the size of the level.
+     */
+    private void findVisible(Level level, List<GameObject> items, List<Block> blocks) {
+        int x = camera.getX() - ITEM_MARGIN;
+        int y = -ITEM_MARGIN;
+        int width = getWidth() + 2 * ITEM_MARGIN;
+        int height = getHeight() + ITEM_LABEL_HEIGHT + ITEM_MARGIN;
+        level.findItems(x, y, width, height, items);
+        level.findBlocks(x, y, width, height, blocks);
+    }
+
+    /**
+     * Damages every object when {@code all}, otherwise, when {@code animating},
+     * those that moved to a new animation frame.
+     */
+    private void objectDamage(List<? extends GameObject> objects, boolean all, boolean animating, int cameraX) {
+        for (int i = 0; i < objects.size(); i++) {
+            GameObject object = objects.get(i);
+            if (all || (animating && object.getFrame(animationTime) != object.getFrame(lastAnimationTime))) {
+                damage.add(object.getX() - cameraX - ITEM_MARGIN, object.getY() - ITEM_LABEL_HEIGHT,
+                        object.getWidth() + 2 * ITEM_MARGIN, object.getHeight() + ITEM_LABEL_HEIGHT + ITEM_MARGIN);
+            }
+        }
+    }
+
+    private void addDamage(Rectangle r) {
+        if (!r.isEmpty()) damage.add(r.x, r.y, r.width, r.height);
+    }
+
+    /**
+     * Paints one frame of the game. Allocates nothing once sprites and the
+     * background layer are built; the debug overlay reports any regression.
+     */
+    public void render(Graphics2D g2d) {
+        // Sprites and the background are rasterized for the screen we are on
+        GraphicsConfiguration configuration = getGraphicsConfiguration();
+        sprites.validate(configuration);
+
+        // Draw background gradient and ground, rebuilt only on level change or resize
+        Level currentLevel = session.getLevelManager().getCurrentLevel();
+        background.draw(g2d, currentLevel, getWidth(), getHeight(), configuration);
+
+        // The world is drawn in camera space, and only what is in view
+        int cameraX = camera.getX();
+        g2d.translate(-cameraX, 0);
+        findVisible(currentLevel, visibleItems, visibleBlocks);
 
         // Draw level items
-        for (GameObject item : currentLevel.getItems()) {
-            item.draw(g2d);
+        for (int i = 0; i < visibleItems.size(); i++) {
+            drawSprite(g2d, visibleItems.get(i));
         }
 
         // Draw blocks
-        for (Block block : currentLevel.getBlocks()) {
-            block.draw(g2d);
+        for (int i = 0; i < visibleBlocks.size(); i++) {
+            drawSprite(g2d, visibleBlocks.get(i));
         }
 
         // Draw effects (fire, smoke, etc.)
@@ -91,290 +325,242 @@ public class GamePanel extends JPanel {
 
         // Draw Mario
         drawMario(g2d);
+        g2d.translate(cameraX, 0);
 
         // Draw level info
         drawLevelInfo(g2d);
 
         // Draw log messages
-        drawLogMessages(g2d);
-
-        g2d.dispose();
+        drawLogMessages(g2d, configuration);
     }
 
-    private void drawGround(Graphics2D g2d) {
-        // Draw ground with texture
-        g2d.setColor(new Color(34, 139, 34));
-        g2d.fillRect(0, 450, getWidth(), 50);
-
-        // Draw ground details
-        g2d.setColor(new Color(0, 100, 0));
-        for (int i = 0; i < getWidth(); i += 20) {
-            g2d.drawLine(i, 450, i + 10, 450);
+    private void drawSprite(Graphics2D g2d, GameObject object) {
+        if (!object.isVisible()) return;
+        SpriteCache.Kind<GameObject> kind = itemSprites.get(object.getClass());
+        if (kind == null) {
+            // Every object of a class shares its size, so one box fits them all
+            kind = sprites.register(ITEM_MARGIN, ITEM_LABEL_HEIGHT,
+                    object.getWidth() + 2 * ITEM_MARGIN, object.getHeight() + ITEM_LABEL_HEIGHT + ITEM_MARGIN,
+                    ITEM_PAINTER);
+            itemSprites.put(object.getClass(), kind);
         }
-
-        // Draw ground shadow
-        g2d.setColor(new Color(0, 0, 0, 30));
-        g2d.fillRect(0, 450, getWidth(), 3);
+        sprites.draw(g2d, kind, object, object.getFrame(animationTime), object.getX(), object.getY());
     }
 
     private void drawMario(Graphics2D g2d) {
-        Point pos = mario.getPosition();
-        int drawY = pos.y - jumpOffset;
+        MarioComponent mario = session.getMario();
+        Mario core = session.getCore();
+        int x = mario.getX();
+        int drawY = mario.getY() - session.getJumpOffset();
 
         // Get Mario's state color
-        Color stateColor = Color.RED; // Default
-        if (mario instanceof Mario) {
-            stateColor = ((Mario) mario).getStateColor();
-        }
+        Color stateColor = core.getStateColor();
 
         // Draw shadow
-        g2d.setColor(new Color(0, 0, 0, 40));
-        g2d.fillOval(pos.x + 5, 445, 30, 10);
+        sprites.draw(g2d, shadowSprite, null, 0, x, BackgroundLayer.GROUND_Y - 5);
 
         // Draw Mario's body with gradient for 3D effect
-        GradientPaint bodyGradient = new GradientPaint(
-                pos.x, drawY, stateColor.brighter(),
-                pos.x, drawY + 40, stateColor.darker()
-        );
-        g2d.setPaint(bodyGradient);
-        g2d.fillRoundRect(pos.x, drawY, 40, 40, 10, 10);
+        sprites.draw(g2d, marioBodySprite, stateColor, stateColor.getRGB(), x, drawY);
 
         // Add invincibility effect with pulsing animation
-        if (mario.getStateName().contains("Invincible")) {
-            int alpha = (int)(100 + 55 * Math.sin(System.currentTimeMillis() / 100.0));
-            g2d.setColor(new Color(255, 255, 0, alpha));
-            g2d.fillRoundRect(pos.x - 5, drawY - 5, 50, 50, 15, 15);
+        MarioSnapshot snapshot = session.getSnapshot();
+        long now = System.currentTimeMillis();
+        if (snapshot.isInvincible()) {
+            int alpha = (int)(100 + 55 * Math.sin(now / 100.0));
+            sprites.draw(g2d, invincibleGlowSprite, null, 0, x, drawY, alpha);
         }
 
         // Draw decorators effects
-        List<String> abilities = mario.getAbilities();
-        for (String ability : abilities) {
-            if (ability.contains("Speed Boost")) {
-                int alpha = (int)(100 + 55 * Math.sin(System.currentTimeMillis() / 150.0));
-                g2d.setColor(new Color(255, 0, 255, alpha));
-                g2d.fillOval(pos.x - 10, drawY - 10, 60, 60);
-            }
-            if (ability.contains("Shield")) {
-                int alpha = (int)(150 + 55 * Math.cos(System.currentTimeMillis() / 200.0));
-                g2d.setColor(new Color(0, 255, 255, alpha));
-                g2d.drawOval(pos.x - 8, drawY - 8, 56, 56);
-                g2d.drawOval(pos.x - 6, drawY - 6, 52, 52);
-            }
-            if (ability.contains("Super Strength")) {
-                int alpha = (int)(120 + 35 * Math.sin(System.currentTimeMillis() / 180.0));
-                g2d.setColor(new Color(255, 165, 0, alpha));
-                g2d.fillRoundRect(pos.x - 3, drawY - 3, 46, 46, 12, 12);
-            }
+        long capabilities = snapshot.getCapabilities();
+        if ((capabilities & Ability.SPEED_BOOST.mask()) != 0) {
+            int alpha = (int)(100 + 55 * Math.sin(now / 150.0));
+            sprites.draw(g2d, speedBoostGlowSprite, null, 0, x, drawY, alpha);
+        }
+        if ((capabilities & Ability.SHIELD.mask()) != 0) {
+            int alpha = (int)(150 + 55 * Math.cos(now / 200.0));
+            sprites.draw(g2d, shieldGlowSprite, null, 0, x, drawY, alpha);
+        }
+        if ((capabilities & Ability.SUPER_STRENGTH.mask()) != 0) {
+            int alpha = (int)(120 + 35 * Math.sin(now / 180.0));
+            sprites.draw(g2d, strengthGlowSprite, null, 0, x, drawY, alpha);
         }
 
         // Strength effect overlay
         if (showStrengthEffect) {
-            g2d.setColor(new Color(255, 215, 0, 100));
-            g2d.fillRoundRect(pos.x - 8, drawY - 8, 56, 56, 15, 15);
+            sprites.draw(g2d, strengthOverlaySprite, null, 0, x, drawY);
         }
 
-        // Draw Mario's face - direction aware
+        // Draw Mario's face, hat and border - direction aware
+        sprites.draw(g2d, marioFaceSprite, null, core.getFacingDirection() > 0 ? 1 : 0, x, drawY);
+
+        // Draw state emoji above Mario with pulsing effect
+        String emoji = mario.getStateEmoji();
+        int emojiYOffset = (int)(-10 + 2 * Math.sin(now / 200.0));
+        sprites.draw(g2d, stateEmojiSprite, emoji, emoji.hashCode(), x + 15, drawY + emojiYOffset);
+    }
+
+    private static void paintMarioBody(Graphics2D g2d, Color stateColor, int rgb) {
+        GradientPaint bodyGradient = new GradientPaint(
+                0, 0, stateColor.brighter(),
+                0, Mario.SIZE, stateColor.darker()
+        );
+        g2d.setPaint(bodyGradient);
+        g2d.fillRoundRect(0, 0, 40, 40, 10, 10);
+    }
+
+    private static void paintMarioFace(Graphics2D g2d, Object unused, int facingRight) {
         g2d.setColor(Color.BLACK);
-        int eyeOffset = ((Mario) mario).getFacingDirection() > 0 ? 0 : 8;
-        g2d.fillOval(pos.x + 12 + eyeOffset, drawY + 8, 4, 4); // Left eye
-        g2d.fillOval(pos.x + 24 - eyeOffset, drawY + 8, 4, 4); // Right eye
-        g2d.fillOval(pos.x + 18, drawY + 15, 4, 2); // Nose
-        g2d.drawArc(pos.x + 15, drawY + 20, 10, 8, 0, -180); // Mouth
+        int eyeOffset = facingRight == 1 ? 0 : 8;
+        g2d.fillOval(12 + eyeOffset, 8, 4, 4); // Left eye
+        g2d.fillOval(24 - eyeOffset, 8, 4, 4); // Right eye
+        g2d.fillOval(18, 15, 4, 2); // Nose
+        g2d.drawArc(15, 20, 10, 8, 0, -180); // Mouth
 
         // Draw Mario's hat with gradient
         GradientPaint hatGradient = new GradientPaint(
-                pos.x + 8, drawY - 5, new Color(200, 0, 0),
-                pos.x + 32, drawY + 7, new Color(150, 0, 0)
+                8, -5, HAT_LIGHT,
+                32, 7, HAT_DARK
         );
         g2d.setPaint(hatGradient);
-        g2d.fillRoundRect(pos.x + 8, drawY - 5, 24, 12, 8, 8);
+        g2d.fillRoundRect(8, -5, 24, 12, 8, 8);
 
         g2d.setColor(Color.WHITE);
-        g2d.fillOval(pos.x + 18, drawY - 2, 4, 4);
+        g2d.fillOval(18, -2, 4, 4);
         g2d.setColor(Color.BLACK);
-        g2d.drawString("M", pos.x + 19, drawY + 1);
-
-        // Draw state emoji above Mario with pulsing effect
-        g2d.setFont(new Font("Arial", Font.BOLD, 16));
-        int emojiYOffset = (int)(-10 + 2 * Math.sin(System.currentTimeMillis() / 200.0));
-        g2d.setColor(Color.BLACK);
-        g2d.drawString(mario.getStateEmoji(), pos.x + 15, drawY + emojiYOffset);
+        g2d.setFont(LABEL_FONT);
+        g2d.drawString("M", 19, 1);
 
         // Draw border with highlight
         g2d.setColor(Color.BLACK);
-        g2d.drawRoundRect(pos.x, drawY, 40, 40, 10, 10);
-        g2d.setColor(new Color(255, 255, 255, 100));
-        g2d.drawRoundRect(pos.x + 1, drawY + 1, 38, 38, 8, 8);
+        g2d.drawRoundRect(0, 0, 40, 40, 10, 10);
+        g2d.setColor(HIGHLIGHT);
+        g2d.drawRoundRect(1, 1, 38, 38, 8, 8);
     }
 
-    private void drawEffects(Graphics2D g2d) {
-        // Draw fire effects
-        for (FireEffect effect : fireEffects) {
-            effect.draw(g2d);
-        }
+    private static void paintPanel(Graphics2D g2d, int width, int height) {
+        GradientPaint panelGradient = new GradientPaint(
+                0, 0, PANEL_TOP,
+                0, height, PANEL_BOTTOM
+        );
+        g2d.setPaint(panelGradient);
+        g2d.fillRoundRect(0, 0, width, height, 15, 15);
 
-        // Draw smoke effects
-        for (SmokeEffect effect : smokeEffects) {
-            effect.draw(g2d);
-        }
+        // Draw border
+        g2d.setColor(HIGHLIGHT);
+        g2d.drawRoundRect(0, 0, width, height, 15, 15);
+    }
 
-        // Draw fireball effects
-        for (FireballEffect effect : fireballEffects) {
-            effect.draw(g2d);
-        }
+    private void drawEffects(Graphics2D g2d) {
+        // Fire, smoke and fireballs
+        particles.draw(g2d);
     }
 
     private void drawLevelInfo(Graphics2D g2d) {
-        Level currentLevel = levelManager.getCurrentLevel();
-
-        // Draw level info panel with gradient
-        GradientPaint panelGradient = new GradientPaint(
-                10, 10, new Color(0, 0, 0, 200),
-                10, 90, new Color(0, 0, 0, 150)
-        );
-        g2d.setPaint(panelGradient);
-        g2d.fillRoundRect(10, 10, 300, 80, 15, 15);
+        // Panel and text change only with the level
+        LevelManager levelManager = session.getLevelManager();
+        sprites.draw(g2d, levelInfoSprite, levelManager, levelManager.getCurrentLevelNumber(), 10, 10);
+    }
 
-        // Draw border
-        g2d.setColor(new Color(255, 255, 255, 100));
-        g2d.drawRoundRect(10, 10, 300, 80, 15, 15);
+    private static void paintLevelInfo(Graphics2D g2d, LevelManager levelManager, int levelNumber) {
+        Level currentLevel = levelManager.getCurrentLevel();
+        paintPanel(g2d, 300, 80);
 
         g2d.setColor(Color.WHITE);
-        g2d.setFont(new Font("Arial", Font.BOLD, 16));
-        g2d.drawString(currentLevel.getName(), 20, 30);
+        g2d.setFont(HEADING_FONT);
+        g2d.drawString(currentLevel.getName(), 10, 20);
 
-        g2d.setFont(new Font("Arial", Font.PLAIN, 12));
-        g2d.drawString(currentLevel.getDescription(), 20, 50);
+        g2d.setFont(TEXT_FONT);
+        g2d.drawString(currentLevel.getDescription(), 10, 40);
 
-        g2d.drawString("Level " + levelManager.getCurrentLevelNumber() + " of " + levelManager.getTotalLevels(), 20, 70);
+        g2d.drawString("Level " + levelNumber + " of " + levelManager.getTotalLevels(), 10, 60);
     }
 
-    private void drawLogMessages(Graphics2D g2d) {
-        // Draw log panel background with gradient
-        GradientPaint logGradient = new GradientPaint(
-                getWidth() - 350, 10, new Color(0, 0, 0, 200),
-                getWidth() - 350, 160, new Color(0, 0, 0, 150)
-        );
-        g2d.setPaint(logGradient);
-        g2d.fillRoundRect(getWidth() - 350, 10, 330, 150, 15, 15);
+    private void drawLogMessages(Graphics2D g2d, GraphicsConfiguration configuration) {
+        // Panel and older lines change only when a message arrives
+        int width = getWidth();
+        logPanelSprite.draw(g2d, configuration, null, logVersion, width - 350, 10);
 
-        // Draw border
-        g2d.setColor(new Color(255, 255, 255, 100));
-        g2d.drawRoundRect(getWidth() - 350, 10, 330, 150, 15, 15);
+        // Add subtle pulsing effect to newest message
+        if (logSize > 0) {
+            int alpha = (int)(255 * (0.7 + 0.3 * Math.sin(System.currentTimeMillis() / 300.0)));
+            newestLogLineSprite.draw(g2d, configuration, logLine(logSize - 1), logVersion,
+                    width - 340, 45 + (logSize - 1) * 12, alpha);
+        }
+    }
+
+    private static void paintLogBackground(Graphics2D g2d, Object unused, int variant) {
+        paintPanel(g2d, 330, 150);
 
         g2d.setColor(Color.WHITE);
-        g2d.setFont(new Font("Arial", Font.BOLD, 12));
-        g2d.drawString("Game Log", getWidth() - 340, 30);
-
-        // Draw recent log messages
-        g2d.setFont(new Font("Monospaced", Font.PLAIN, 10));
-        int y = 45;
-        int maxMessages = 8;
-        int start = Math.max(0, logMessages.size() - maxMessages);
-
-        for (int i = start; i < logMessages.size() && y < 150; i++) {
-            String message = logMessages.get(i);
-            String cleanMessage = message.length() > 35 ? message.substring(0, 32) + "..." : message;
-
-            // Add subtle pulsing effect to newest message
-            if (i == logMessages.size() - 1) {
-                int alpha = (int)(255 * (0.7 + 0.3 * Math.sin(System.currentTimeMillis() / 300.0)));
-                g2d.setColor(new Color(255, 255, 255, alpha));
-            } else {
-                g2d.setColor(Color.LIGHT_GRAY);
-            }
+        g2d.setFont(LOG_TITLE_FONT);
+        g2d.drawString("Game Log", 10, 20);
+    }
 
-            g2d.drawString(cleanMessage, getWidth() - 340, y);
+    private void paintLogPanel(Graphics2D g2d, Object unused, int version) {
+        sprites.draw(g2d, logBackgroundSprite, null, 0, 0, 0);
+
+        // Draw recent log messages, all but the newest
+        g2d.setFont(LOG_FONT);
+        g2d.setColor(Color.LIGHT_GRAY);
+        int y = 35;
+        for (int i = 0; i < logSize - 1; i++) {
+            g2d.drawString(logLine(i), 10, y);
             y += 12;
         }
     }
 
-    public void addLogMessage(String message, Color color) {
-        logMessages.add(message);
-        if (logMessages.size() > 50) {
-            logMessages.remove(0);
-        }
-        repaint();
+    private static void paintNewestLogLine(Graphics2D g2d, String line, int version) {
+        g2d.setFont(LOG_FONT);
+        g2d.setColor(Color.WHITE);
+        g2d.drawString(line, 0, 0);
     }
 
-    public void performJumpAnimation() {
-        if (!isJumping) {
-            isJumping = true;
-            Timer jumpTimer = new Timer(50, null);
-            jumpTimer.addActionListener(new ActionListener() {
-                private int frame = 0;
-                @Override
-                public void actionPerformed(ActionEvent e) {
-                    frame++;
-                    if (frame <= 10) {
-                        jumpOffset = frame * 3; // Going up
-                    } else if (frame <= 20) {
-                        jumpOffset = (20 - frame) * 3; // Going down
-                    } else {
-                        jumpOffset = 0;
-                        isJumping = false;
-                        jumpTimer.stop();
-                    }
-                    repaint();
-                }
-            });
-            jumpTimer.start();
-        }
+    /** The i-th shown log line, oldest first */
+    private String logLine(int i) {
+        return logLines[(logStart + i) % MAX_LOG_LINES];
     }
 
-    public void checkCollisions() {
-        Level currentLevel = levelManager.getCurrentLevel();
-        Point marioPos = mario.getPosition();
-
-        // Check item collisions
-        for (GameObject item : currentLevel.getItems()) {
-            if (item.checkCollision(marioPos)) {
-                item.collect();
-                if (item instanceof Mushroom) {
-                    mario.collectMushroom();
-                } else if (item instanceof FireFlower) {
-                    mario.collectFireFlower();
-                } else if (item instanceof Star) {
-                    mario.collectStar();
-                }
-            }
+    public void addLogMessage(String message, Color color) {
+        // Only the shortened form is ever shown, so shorten once here rather than every frame
+        String line = message.length() > MAX_LOG_LINE ? message.substring(0, 32) + "..." : message;
+        if (logSize < MAX_LOG_LINES) {
+            logLines[(logStart + logSize++) % MAX_LOG_LINES] = line;
+        } else {
+            // Overwrite the oldest line
+            logLines[logStart] = line;
+            logStart = (logStart + 1) % MAX_LOG_LINES;
         }
+        logVersion++;
+    }
 
-        // Check block collisions for breaking
-        for (Block block : currentLevel.getBlocks()) {
-            if (block.checkCollision(marioPos) && !block.isBroken()) {
-                if (mario.canBreakBlocks()) {
-                    block.breakBlock();
-                    addLogMessage("🧱💥 Block broken!", Color.ORANGE);
-                    mario.addScore(25);
-                    if (mario.hasAbility("Super Strength")) {
-                        addLogMessage("💪 SUPER STRENGTH bonus!", Color.MAGENTA);
-                        mario.addScore(75);
-                        createFireEffect(marioPos.x + 20, marioPos.y, 8);
-                    }
-                }
-            }
-        }
+    /**
+     * Visual-only simulation step, driven by the GameLoop after the session tick.
+     */
+    public void simulate(long tick) {
+        MarioComponent mario = session.getMario();
+        camera.follow(mario.getX(), mario.getWidth(), getWidth(), session.getWorldWidth());
 
-        repaint();
+        // Effects were tuned for 60 updates per second
+        if (tick % (GameLoop.TICKS_PER_SECOND / EFFECT_UPDATES_PER_SECOND) == 0) {
+            updateEffects();
+        }
     }
 
     public void updateInvincibilityTimer(int timer) {
         this.invincibilityTimer = timer;
-        repaint();
     }
 
     // Fire effect methods
     public void createFireEffect(int x, int y, int size) {
-        fireEffects.add(new FireEffect(x, y, size));
+        particles.spawnFire(x, y, size);
     }
 
     public void createSmokeEffect(int x, int y, int size) {
-        smokeEffects.add(new SmokeEffect(x, y, size));
+        particles.spawnSmoke(x, y, size);
     }
 
     public void createFireballEffect(int x, int y) {
-        fireballEffects.add(new FireballEffect(x, y));
+        particles.spawnFireball(x, y);
     }
 
     public void showStrengthEffect() {
@@ -382,6 +568,32 @@ public class GamePanel extends JPanel {
         strengthEffectTimer = 20; // Show for 20 frames
     }
 
+    public SpriteCache getSprites() {
+        return sprites;
+    }
+
+    /** The game log's panel, painted again for each message */
+    public RedrawnSprite<Object> getLogPanelSprite() {
+        return logPanelSprite;
+    }
+
+    public BackgroundLayer getBackgroundLayer() {
+        return background;
+    }
+
+    public Camera getCamera() {
+        return camera;
+    }
+
+    public DebugOverlay getDebugOverlay() {
+        return debugOverlay;
+    }
+
+    public void toggleDebugOverlay() {
+        debugOverlay.setVisible(!debugOverlay.isVisible());
+        repaint();
+    }
+
     public void playFireTransformationSound() {
         // Sound implementation would go here
         System.out.println("Playing fire transformation sound");
@@ -398,14 +610,10 @@ public class GamePanel extends JPanel {
     }
 
     private void updateEffects() {
-        // Update fire effects
-        fireEffects.removeIf(FireEffect::update);
-
-        // Update smoke effects
-        smokeEffects.removeIf(SmokeEffect::update);
+        animationTime++;
 
-        // Update fireball effects
-        fireballEffects.removeIf(FireballEffect::update);
+        // Update fire, smoke and fireball particles
+        particles.update(camera.getX() + getWidth());
 
         // Update strength effect
         if (showStrengthEffect) {
@@ -415,108 +623,4 @@ public class GamePanel extends JPanel {
             }
         }
     }
-
-    // Inner classes for visual effects
-    private class FireEffect {
-        int x, y;
-        int size;
-        int life;
-        int maxLife;
-
-        FireEffect(int x, int y, int size) {
-            this.x = x;
-            this.y = y;
-            this.size = size;
-            this.maxLife = 30 + random.nextInt(20);
-            this.life = maxLife;
-        }
-
-        boolean update() {
-            life--;
-            y -= 2;
-            x += random.nextInt(5) - 2;
-            return life <= 0;
-        }
-
-        void draw(Graphics2D g2d) {
-            float alpha = (float) life / maxLife;
-            int currentSize = (int)(size * (0.5 + 0.5 * alpha));
-
-            // Draw multiple layers for fire effect
-            g2d.setColor(new Color(255, 255, 0, (int)(100 * alpha)));
-            g2d.fillOval(x - currentSize/2, y - currentSize/2, currentSize, currentSize);
-
-            g2d.setColor(new Color(255, 165, 0, (int)(150 * alpha)));
-            g2d.fillOval(x - currentSize/3, y - currentSize/3, currentSize*2/3, currentSize*2/3);
-
-            g2d.setColor(new Color(255, 69, 0, (int)(200 * alpha)));
-            g2d.fillOval(x - currentSize/4, y - currentSize/4, currentSize/2, currentSize/2);
-        }
-    }
-
-    private class SmokeEffect {
-        int x, y;
-        int size;
-        int life;
-        int maxLife;
-
-        SmokeEffect(int x, int y, int size) {
-            this.x = x;
-            this.y = y;
-            this.size = size;
-            this.maxLife = 40 + random.nextInt(20);
-            this.life = maxLife;
-        }
-
-        boolean update() {
-            life--;
-            y -= 1;
-            x += random.nextInt(3) - 1;
-            return life <= 0;
-        }
-
-        void draw(Graphics2D g2d) {
-            float alpha = (float) life / maxLife;
-            int currentSize = (int)(size * alpha);
-
-            g2d.setColor(new Color(100, 100, 100, (int)(100 * alpha)));
-            g2d.fillOval(x - currentSize/2, y - currentSize/2, currentSize, currentSize);
-        }
-    }
-
-    private class FireballEffect {
-        int x, y;
-        int life;
-
-        FireballEffect(int x, int y) {
-            this.x = x;
-            this.y = y;
-            this.life = 30;
-        }
-
-        boolean update() {
-            life--;
-            x += 8;
-            return life <= 0 || x > getWidth();
-        }
-
-        void draw(Graphics2D g2d) {
-            float alpha = (float) life / 30;
-            int size = 12;
-
-            g2d.setColor(new Color(255, 255, 0, (int)(255 * alpha)));
-            g2d.fillOval(x - size/2, y - size/2, size, size);
-
-            g2d.setColor(new Color(255, 69, 0, (int)(200 * alpha)));
-            g2d.fillOval(x - size/3, y - size/3, size*2/3, size*2/3);
-
-            // Draw trail
-            for (int i = 1; i <= 3; i++) {
-                int trailAlpha = (int)(100 * alpha / i);
-                int trailSize = size - i * 2;
-                g2d.setColor(new Color(255, 165, 0, trailAlpha));
-                g2d.fillOval(x - i * 4 - trailSize/2, y - trailSize/2, trailSize, trailSize);
-            }
-        }
-    }
-}
\ No newline at end of file
+}
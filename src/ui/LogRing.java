@@ -0,0 +1,68 @@
+package ui;
+
+import java.awt.Color;
+
+/**
+ * Fixed-capacity ring of log messages, written by any number of threads and
+ * read by one. Producers never block or wait for the reader: each claims a
+ * slot with one compare-and-set, and a message that finds the ring full is
+ * dropped and counted instead. The slots are handed out by a
+ * {@link RingSequencer}, so no locks are needed on either side.
+ */
+public class LogRing {
+    private final RingSequencer ring;
+    private final String[] messages;
+    private final Color[] colors;
+
+    /**
+     * @param capacity slots in the ring, rounded up to a power of two
+     */
+    public LogRing(int capacity) {
+        ring = new RingSequencer(capacity);
+        messages = new String[ring.capacity()];
+        colors = new Color[ring.capacity()];
+    }
+
+    /**
+     * Appends a message; returns false, dropping it, if the ring is full.
+     */
+    public boolean offer(String message, Color color) {
+        long position = ring.claim();
+        if (position < 0) return false;
+        int slot = (int) position & ring.mask();
+        messages[slot] = message;
+        colors[slot] = color;
+        ring.publish(position);
+        return true;
+    }
+
+    /**
+     * Takes every published message, oldest first. Only the most recent
+     * {@code messages.length} are kept, wrapping around the two arrays: the
+     * message taken n-th (counting from 0) lands at index n % length.
+     * Stops after one ring's worth, so producers that keep up with the reader
+     * cannot hold it here. Reader thread only.
+     *
+     * @return how many messages were taken
+     */
+    public int drain(String[] messages, Color[] colors) {
+        int window = messages.length;
+        int taken = 0;
+        int slot;
+        while (taken <= ring.mask() && (slot = ring.next()) >= 0) {
+            int index = taken % window;
+            messages[index] = this.messages[slot];
+            colors[index] = this.colors[slot];
+            this.messages[slot] = null;
+            this.colors[slot] = null;
+            ring.release();
+            taken++;
+        }
+        return taken;
+    }
+
+    public int capacity() { return ring.capacity(); }
+
+    /** Messages lost to a full ring since creation */
+    public long getDropped() { return ring.getDropped(); }
+}
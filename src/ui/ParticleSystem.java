@@ -0,0 +1,286 @@
+package ui;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.Rectangle;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+
+/**
+ * Fire, smoke and fireball particles stored as parallel primitive arrays.
+ * The pool has a fixed capacity: spawning never allocates, dead particles are
+ * removed by swapping the last live particle into their slot, and every colour
+ * a particle can fade through is created once up front.
+ *
+ * Drawing blits a pre-rendered stamp per particle type, size and fade step
+ * rather than filling anti-aliased ovals, which is what keeps tens of
+ * thousands of particles affordable.
+ */
+public class ParticleSystem {
+    public static final int DEFAULT_CAPACITY = 65_536;
+
+    private static final byte FIRE = 0;
+    private static final byte SMOKE = 1;
+    private static final byte FIREBALL = 2;
+    private static final int FIREBALL_LIFE = 30;
+    private static final int FIREBALL_SIZE = 12;
+
+    // Alpha ramps, indexed by remaining life in 1/255ths
+    private static final int RAMP_LEVELS = 256;
+    private static final Color[] FIRE_OUTER = ramp(255, 255, 0, 100);
+    private static final Color[] FIRE_MIDDLE = ramp(255, 165, 0, 150);
+    private static final Color[] FIRE_INNER = ramp(255, 69, 0, 200);
+    private static final Color[] SMOKE_COLOR = ramp(100, 100, 100, 100);
+    private static final Color[] FIREBALL_OUTER = ramp(255, 255, 0, 255);
+    private static final Color[] FIREBALL_INNER = ramp(255, 69, 0, 200);
+    private static final Color[][] FIREBALL_TRAIL = {
+            ramp(255, 165, 0, 100), ramp(255, 165, 0, 50), ramp(255, 165, 0, 33)
+    };
+
+    // Stamps are cached per type, size and one of STAMP_LEVELS fade steps
+    private static final int STAMP_LEVELS = 32;
+    private static final int MAX_STAMP_SIZE = 64;
+    private final Stamp[][][] stamps = new Stamp[3][MAX_STAMP_SIZE + 1][];
+
+    private final int capacity;
+    private final int[] x;
+    private final int[] y;
+    private final int[] size;
+    private final int[] life;
+    private final int[] maxLife;
+    private final byte[] type;
+    private int count;
+    private int seed = 0x2545F491;
+    private long dropped;
+    // Extent of the particle positions, kept up to date by spawn and update
+    private int minX = Integer.MAX_VALUE, minY = Integer.MAX_VALUE;
+    private int maxX = Integer.MIN_VALUE, maxY = Integer.MIN_VALUE;
+    private int maxSize;
+
+    public ParticleSystem() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    public ParticleSystem(int capacity) {
+        this.capacity = capacity;
+        this.x = new int[capacity];
+        this.y = new int[capacity];
+        this.size = new int[capacity];
+        this.life = new int[capacity];
+        this.maxLife = new int[capacity];
+        this.type = new byte[capacity];
+    }
+
+    public void spawnFire(int x, int y, int size) {
+        spawn(FIRE, x, y, size, 30 + nextInt(20));
+    }
+
+    public void spawnSmoke(int x, int y, int size) {
+        spawn(SMOKE, x, y, size, 40 + nextInt(20));
+    }
+
+    public void spawnFireball(int x, int y) {
+        spawn(FIREBALL, x, y, FIREBALL_SIZE, FIREBALL_LIFE);
+    }
+
+    private void spawn(byte kind, int px, int py, int psize, int plife) {
+        if (count == capacity) {
+            dropped++;
+            return;
+        }
+        int i = count++;
+        minX = Math.min(minX, px);
+        minY = Math.min(minY, py);
+        maxX = Math.max(maxX, px);
+        maxY = Math.max(maxY, py);
+        maxSize = Math.max(maxSize, psize);
+        type[i] = kind;
+        x[i] = px;
+        y[i] = py;
+        size[i] = psize;
+        life[i] = plife;
+        maxLife[i] = plife;
+    }
+
+    /**
+     * Advances every particle one step and compacts out the dead ones.
+     * Fireballs also die once they leave the {@code worldWidth}.
+     */
+    public void update(int worldWidth) {
+        minX = minY = Integer.MAX_VALUE;
+        maxX = maxY = Integer.MIN_VALUE;
+        int i = 0;
+        while (i < count) {
+            life[i]--;
+            switch (type[i]) {
+                case FIRE:
+                    y[i] -= 2;
+                    x[i] += nextInt(5) - 2;
+                    break;
+                case SMOKE:
+                    y[i] -= 1;
+                    x[i] += nextInt(3) - 1;
+                    break;
+                default:
+                    x[i] += 8;
+                    break;
+            }
+            boolean dead = life[i] <= 0 || (type[i] == FIREBALL && x[i] > worldWidth);
+            if (dead) {
+                removeAt(i); // the swapped-in particle is updated on this index next
+            } else {
+                minX = Math.min(minX, x[i]);
+                minY = Math.min(minY, y[i]);
+                maxX = Math.max(maxX, x[i]);
+                maxY = Math.max(maxY, y[i]);
+                i++;
+            }
+        }
+    }
+
+    /**
+     * Sets {@code out} to an area covering everything {@link #draw} paints,
+     * or to an empty rectangle when there are no particles.
+     */
+    public void getBounds(Rectangle out) {
+        if (count == 0) {
+            out.setBounds(0, 0, 0, 0);
+            return;
+        }
+        // Room for the widest stamp: half a particle, or a fireball's trail
+        int margin = maxSize + 16;
+        out.setBounds(minX - margin, minY - margin, maxX - minX + 2 * margin, maxY - minY + 2 * margin);
+    }
+
+    private void removeAt(int i) {
+        int last = --count;
+        x[i] = x[last];
+        y[i] = y[last];
+        size[i] = size[last];
+        life[i] = life[last];
+        maxLife[i] = maxLife[last];
+        type[i] = type[last];
+    }
+
+    public void draw(Graphics2D g2d) {
+        for (int i = 0; i < count; i++) {
+            int level = life[i] * (RAMP_LEVELS - 1) / maxLife[i];
+            Stamp stamp = stamp(type[i], size[i], level);
+            if (stamp != null) {
+                g2d.drawImage(stamp.image, x[i] - stamp.anchorX, y[i] - stamp.anchorY, null);
+            } else {
+                drawParticle(g2d, type[i], x[i], y[i], size[i], level);
+            }
+        }
+    }
+
+    private Stamp stamp(byte kind, int psize, int level) {
+        if (psize > MAX_STAMP_SIZE) return null;
+        Stamp[] levels = stamps[kind][psize];
+        if (levels == null) {
+            levels = new Stamp[STAMP_LEVELS];
+            stamps[kind][psize] = levels;
+        }
+        int step = level * STAMP_LEVELS / RAMP_LEVELS;
+        Stamp stamp = levels[step];
+        if (stamp == null) {
+            stamp = renderStamp(kind, psize, (step * RAMP_LEVELS + RAMP_LEVELS / 2) / STAMP_LEVELS);
+            levels[step] = stamp;
+        }
+        return stamp;
+    }
+
+    private static Stamp renderStamp(byte kind, int psize, int level) {
+        // Bounds of what drawParticle paints around the particle's position
+        int left, top, width, height;
+        if (kind == FIREBALL) {
+            left = 12 + (psize - 6) / 2;
+            top = psize / 2;
+            width = left + psize - psize / 2 + 1;
+            height = psize + 1;
+        } else {
+            int currentSize = currentSize(kind, psize, level);
+            left = top = currentSize / 2;
+            width = height = currentSize + 1;
+        }
+        BufferedImage image = new BufferedImage(Math.max(1, width), Math.max(1, height), BufferedImage.TYPE_INT_ARGB_PRE);
+        Graphics2D g2d = image.createGraphics();
+        g2d.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+        drawParticle(g2d, kind, left, top, psize, level);
+        g2d.dispose();
+        return new Stamp(image, left, top);
+    }
+
+    private static int currentSize(byte kind, int psize, int level) {
+        if (kind == FIRE) {
+            return psize * (RAMP_LEVELS - 1 + level) / (2 * (RAMP_LEVELS - 1));
+        }
+        return psize * level / (RAMP_LEVELS - 1);
+    }
+
+    private static void drawParticle(Graphics2D g2d, byte kind, int px, int py, int psize, int level) {
+        switch (kind) {
+            case FIRE: {
+                int currentSize = currentSize(kind, psize, level);
+                g2d.setColor(FIRE_OUTER[level]);
+                g2d.fillOval(px - currentSize / 2, py - currentSize / 2, currentSize, currentSize);
+                g2d.setColor(FIRE_MIDDLE[level]);
+                g2d.fillOval(px - currentSize / 3, py - currentSize / 3, currentSize * 2 / 3, currentSize * 2 / 3);
+                g2d.setColor(FIRE_INNER[level]);
+                g2d.fillOval(px - currentSize / 4, py - currentSize / 4, currentSize / 2, currentSize / 2);
+                break;
+            }
+            case SMOKE: {
+                int currentSize = currentSize(kind, psize, level);
+                g2d.setColor(SMOKE_COLOR[level]);
+                g2d.fillOval(px - currentSize / 2, py - currentSize / 2, currentSize, currentSize);
+                break;
+            }
+            default: {
+                g2d.setColor(FIREBALL_OUTER[level]);
+                g2d.fillOval(px - psize / 2, py - psize / 2, psize, psize);
+                g2d.setColor(FIREBALL_INNER[level]);
+                g2d.fillOval(px - psize / 3, py - psize / 3, psize * 2 / 3, psize * 2 / 3);
+                // Draw trail
+                for (int t = 1; t <= 3; t++) {
+                    int trailSize = psize - t * 2;
+                    g2d.setColor(FIREBALL_TRAIL[t - 1][level]);
+                    g2d.fillOval(px - t * 4 - trailSize / 2, py - trailSize / 2, trailSize, trailSize);
+                }
+                break;
+            }
+        }
+    }
+
+    public int getCount() { return count; }
+    public int getCapacity() { return capacity; }
+    /** Spawns rejected because the pool was full */
+    public long getDropped() { return dropped; }
+
+    // xorshift - cheaper than java.util.Random and needs no synchronization
+    private int nextInt(int bound) {
+        seed ^= seed << 13;
+        seed ^= seed >>> 17;
+        seed ^= seed << 5;
+        return (seed >>> 1) % bound;
+    }
+
+    private static Color[] ramp(int r, int g, int b, int maxAlpha) {
+        Color[] colors = new Color[RAMP_LEVELS];
+        for (int i = 0; i < RAMP_LEVELS; i++) {
+            colors[i] = new Color(r, g, b, maxAlpha * i / (RAMP_LEVELS - 1));
+        }
+        return colors;
+    }
+
+    private static final class Stamp {
+        final BufferedImage image;
+        final int anchorX, anchorY;
+
+        Stamp(BufferedImage image, int anchorX, int anchorY) {
+            this.image = image;
+            this.anchorX = anchorX;
+            this.anchorY = anchorY;
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package ui;
+
+import java.awt.AlphaComposite;
+import java.awt.Composite;
+import java.awt.Graphics2D;
+import java.awt.GraphicsConfiguration;
+import java.awt.RenderingHints;
+import java.awt.Transparency;
+import java.awt.image.BufferedImage;
+
+/**
+ * A sprite whose picture changes now and then, such as the game log. It
+ * keeps one image for good and paints over it in place whenever the version
+ * it is drawn with moves on, where a {@link SpriteCache} would rasterize a
+ * new image per version and push older sprites out of its budget with them.
+ * The image is made again only when the GraphicsConfiguration changes.
+ */
+public class RedrawnSprite<T> {
+    private final int left, top, width, height;
+    private final SpriteCache.Painter<T> painter;
+
+    private GraphicsConfiguration configuration;
+    private BufferedImage image;
+    // Kept with the image, so redrawing does not create a Graphics each time
+    private Graphics2D canvas;
+    private int version;
+    private long redraws;
+
+    /**
+     * The box spans {@code left} pixels left of the anchor and {@code top}
+     * pixels above it, {@code width} by {@code height} in total.
+     */
+    public RedrawnSprite(int left, int top, int width, int height, SpriteCache.Painter<T> painter) {
+        this.left = left;
+        this.top = top;
+        this.width = width;
+        this.height = height;
+        this.painter = painter;
+    }
+
+    /**
+     * Blits the sprite with its anchor at (x, y), first painting it again from
+     * {@code subject} if {@code version} differs from the one it shows.
+     */
+    public void draw(Graphics2D g2d, GraphicsConfiguration configuration, T subject, int version, int x, int y) {
+        if (image == null || configuration != this.configuration) {
+            create(configuration);
+            redraw(subject, version);
+        } else if (version != this.version) {
+            redraw(subject, version);
+        }
+        g2d.drawImage(image, x - left, y - top, null);
+    }
+
+    /**
+     * Same as {@link #draw(Graphics2D, GraphicsConfiguration, Object, int, int, int)},
+     * blended at {@code alpha} (0-255).
+     */
+    public void draw(Graphics2D g2d, GraphicsConfiguration configuration, T subject, int version,
+                     int x, int y, int alpha) {
+        Composite composite = g2d.getComposite();
+        g2d.setComposite(SpriteCache.FADE[alpha]);
+        draw(g2d, configuration, subject, version, x, y);
+        g2d.setComposite(composite);
+    }
+
+    private void create(GraphicsConfiguration configuration) {
+        if (image != null) {
+            canvas.dispose();
+            image.flush();
+        }
+        this.configuration = configuration;
+        image = configuration != null
+                ? configuration.createCompatibleImage(width, height, Transparency.TRANSLUCENT)
+                : new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB_PRE);
+        canvas = image.createGraphics();
+        canvas.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+        canvas.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+        canvas.translate(left, top);
+    }
+
+    private void redraw(T subject, int version) {
+        canvas.setComposite(AlphaComposite.Clear);
+        canvas.fillRect(-left, -top, width, height);
+        canvas.setComposite(AlphaComposite.SrcOver);
+        painter.paint(canvas, subject, version);
+        this.version = version;
+        redraws++;
+    }
+
+    /** Times the picture was painted again */
+    public long getRedraws() { return redraws; }
+}
@@ -0,0 +1,90 @@
+package ui;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * The slot bookkeeping behind the lock-free rings: which slot each of any
+ * number of writers may fill, and which the one reader may take. The rings
+ * keep their own contents in parallel arrays indexed by slot; this class
+ * only says when a slot is theirs to touch.
+ *
+ * Every slot carries a sequence number that says whether it is free for the
+ * writer of a given lap or holds an entry for the reader. A writer claims a
+ * slot with one compare-and-set and never waits: if the reader has not freed
+ * the slot since the last lap, the ring is full and the claim fails.
+ */
+final class RingSequencer {
+    private final int mask;
+    private final AtomicLongArray sequences;
+    private final AtomicLong tail = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+    // Only the reading thread touches this
+    private long head;
+
+    /**
+     * @param capacity slots in the ring, rounded up to a power of two
+     */
+    RingSequencer(int capacity) {
+        int size = Integer.highestOneBit(Math.max(1, capacity - 1)) << 1;
+        mask = size - 1;
+        sequences = new AtomicLongArray(size);
+        for (int i = 0; i < size; i++) {
+            sequences.set(i, i);
+        }
+    }
+
+    /**
+     * Claims the next slot for writing. The caller fills slot
+     * {@code position & mask()} and then calls {@link #publish(long)}.
+     *
+     * @return the claimed position, or -1 if the ring is full; the miss is counted
+     */
+    long claim() {
+        long position = tail.get();
+        while (true) {
+            long sequence = sequences.get((int) position & mask);
+            if (sequence == position) {
+                if (tail.compareAndSet(position, position + 1)) return position;
+                position = tail.get();
+            } else if (sequence < position) {
+                // The reader has not freed this slot since the last lap
+                dropped.incrementAndGet();
+                return -1;
+            } else {
+                // Another writer took this position first
+                position = tail.get();
+            }
+        }
+    }
+
+    /**
+     * Hands a filled slot to the reader; what was written to it before is visible to the reader.
+     */
+    void publish(long position) {
+        sequences.lazySet((int) position & mask, position + 1);
+    }
+
+    /**
+     * The slot holding the oldest published entry, or -1 if there is none yet. Reader only.
+     */
+    int next() {
+        int slot = (int) head & mask;
+        return sequences.get(slot) == head + 1 ? slot : -1;
+    }
+
+    /**
+     * Frees the slot {@link #next()} returned, once its contents are read, for the writer one lap ahead.
+     */
+    void release() {
+        sequences.lazySet((int) head & mask, head + mask + 1);
+        head++;
+    }
+
+    int mask() { return mask; }
+
+    int capacity() { return mask + 1; }
+
+    /** Claims that found the ring full since creation */
+    long getDropped() { return dropped.get(); }
+}
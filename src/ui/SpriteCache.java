@@ -0,0 +1,262 @@
+package ui;
+
+import java.awt.AlphaComposite;
+import java.awt.Composite;
+import java.awt.Graphics2D;
+import java.awt.GraphicsConfiguration;
+import java.awt.RenderingHints;
+import java.awt.Transparency;
+import java.awt.image.BufferedImage;
+
+/**
+ * Pre-rendered sprites, rasterized once and blitted from then on.
+ * Each {@link Kind} describes a family of sprites (one item type, Mario's body, ...)
+ * with a fixed box around its anchor point; a sprite is one variant of a kind, such
+ * as an animation frame or a state colour.
+ *
+ * Images are made compatible with the panel's GraphicsConfiguration so Java2D
+ * can keep them in accelerated memory, and are all dropped when that
+ * configuration changes. Least recently drawn sprites are evicted once the
+ * pixel memory exceeds the budget. Lookups use an open-addressing table on
+ * primitive keys, so a cache hit allocates nothing.
+ */
+public class SpriteCache {
+    public static final long DEFAULT_BUDGET_BYTES = 8L << 20;
+
+    // One composite per extra alpha level, so faded blits allocate nothing
+    static final AlphaComposite[] FADE = new AlphaComposite[256];
+    static {
+        for (int alpha = 0; alpha < FADE.length; alpha++) {
+            FADE[alpha] = AlphaComposite.getInstance(AlphaComposite.SRC_OVER, alpha / 255f);
+        }
+    }
+
+    /**
+     * Draws one sprite with its anchor at (0, 0).
+     */
+    public interface Painter<T> {
+        void paint(Graphics2D g2d, T subject, int variant);
+    }
+
+    public static final class Kind<T> {
+        final int id;
+        final int left, top, width, height;
+        final Painter<T> painter;
+
+        Kind(int id, int left, int top, int width, int height, Painter<T> painter) {
+            this.id = id;
+            this.left = left;
+            this.top = top;
+            this.width = width;
+            this.height = height;
+            this.painter = painter;
+        }
+    }
+
+    private static final class Entry {
+        final long key;
+        final BufferedImage image;
+        final int left, top;
+        final long bytes;
+        Entry newer, older;
+
+        Entry(long key, BufferedImage image, int left, int top) {
+            this.key = key;
+            this.image = image;
+            this.left = left;
+            this.top = top;
+            this.bytes = 4L * image.getWidth() * image.getHeight();
+        }
+    }
+
+    private final long budgetBytes;
+    private GraphicsConfiguration configuration;
+    private int nextKindId;
+
+    private long[] keys = new long[64];
+    private Entry[] entries = new Entry[64];
+    private int size;
+    // Recency list: newest is the most recently drawn sprite
+    private Entry newest, oldest;
+    private long bytes;
+
+    private long hits;
+    private long misses;
+    private long evictions;
+
+    public SpriteCache() {
+        this(DEFAULT_BUDGET_BYTES);
+    }
+
+    public SpriteCache(long budgetBytes) {
+        this.budgetBytes = budgetBytes;
+    }
+
+    /**
+     * Registers a sprite family. The box spans {@code left} pixels left of the
+     * anchor and {@code top} pixels above it, {@code width} by {@code height} in total.
+     */
+    public <T> Kind<T> register(int left, int top, int width, int height, Painter<T> painter) {
+        return new Kind<>(nextKindId++, left, top, width, height, painter);
+    }
+
+    /**
+     * Drops every sprite if {@code configuration} differs from the one they were made for,
+     * e.g. after the window moved to another screen. Call before drawing each frame.
+     */
+    public void validate(GraphicsConfiguration configuration) {
+        if (configuration != this.configuration) {
+            invalidate();
+            this.configuration = configuration;
+        }
+    }
+
+    public void invalidate() {
+        keys = new long[64];
+        entries = new Entry[64];
+        size = 0;
+        newest = oldest = null;
+        bytes = 0;
+    }
+
+    /**
+     * Blits the {@code variant} sprite of {@code kind} with its anchor at (x, y),
+     * rendering it from {@code subject} first if it is not cached.
+     */
+    public <T> void draw(Graphics2D g2d, Kind<T> kind, T subject, int variant, int x, int y) {
+        long key = ((long) kind.id << 32) | (variant & 0xFFFFFFFFL);
+        Entry entry = find(key);
+        if (entry != null) {
+            hits++;
+            if (entry != newest) {
+                unlink(entry);
+                linkNewest(entry);
+            }
+        } else {
+            misses++;
+            entry = new Entry(key, render(kind, subject, variant), kind.left, kind.top);
+            put(entry);
+            linkNewest(entry);
+            bytes += entry.bytes;
+            evictToBudget();
+        }
+        g2d.drawImage(entry.image, x - entry.left, y - entry.top, null);
+    }
+
+    /**
+     * Same as {@link #draw(Graphics2D, Kind, Object, int, int, int)}, blended at
+     * {@code alpha} (0-255) - one sprite serves every step of a fade or pulse.
+     */
+    public <T> void draw(Graphics2D g2d, Kind<T> kind, T subject, int variant, int x, int y, int alpha) {
+        Composite composite = g2d.getComposite();
+        g2d.setComposite(FADE[alpha]);
+        draw(g2d, kind, subject, variant, x, y);
+        g2d.setComposite(composite);
+    }
+
+    private <T> BufferedImage render(Kind<T> kind, T subject, int variant) {
+        BufferedImage image = configuration != null
+                ? configuration.createCompatibleImage(kind.width, kind.height, Transparency.TRANSLUCENT)
+                : new BufferedImage(kind.width, kind.height, BufferedImage.TYPE_INT_ARGB_PRE);
+        Graphics2D g2d = image.createGraphics();
+        g2d.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+        g2d.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+        g2d.translate(kind.left, kind.top);
+        kind.painter.paint(g2d, subject, variant);
+        g2d.dispose();
+        return image;
+    }
+
+    private void evictToBudget() {
+        // Never evict the sprite just drawn, even if it alone is over budget
+        while (bytes > budgetBytes && oldest != newest) {
+            Entry victim = oldest;
+            unlink(victim);
+            remove(victim.key);
+            bytes -= victim.bytes;
+            victim.image.flush();
+            evictions++;
+        }
+    }
+
+    public long getHits() { return hits; }
+    public long getMisses() { return misses; }
+    public long getEvictions() { return evictions; }
+    public long getBytes() { return bytes; }
+    public long getBudgetBytes() { return budgetBytes; }
+    public int size() { return size; }
+
+    private void linkNewest(Entry entry) {
+        entry.older = newest;
+        entry.newer = null;
+        if (newest != null) newest.newer = entry;
+        newest = entry;
+        if (oldest == null) oldest = entry;
+    }
+
+    private void unlink(Entry entry) {
+        if (entry.newer != null) entry.newer.older = entry.older; else newest = entry.older;
+        if (entry.older != null) entry.older.newer = entry.newer; else oldest = entry.newer;
+        entry.newer = entry.older = null;
+    }
+
+    private Entry find(long key) {
+        int mask = keys.length - 1;
+        for (int i = hash(key) & mask; entries[i] != null; i = (i + 1) & mask) {
+            if (keys[i] == key) return entries[i];
+        }
+        return null;
+    }
+
+    private void put(Entry entry) {
+        if ((size + 1) * 2 > keys.length) {
+            long[] oldKeys = keys;
+            Entry[] oldEntries = entries;
+            keys = new long[oldKeys.length * 2];
+            entries = new Entry[oldKeys.length * 2];
+            size = 0;
+            for (int i = 0; i < oldKeys.length; i++) {
+                if (oldEntries[i] != null) insert(oldKeys[i], oldEntries[i]);
+            }
+        }
+        insert(entry.key, entry);
+    }
+
+    private void insert(long key, Entry entry) {
+        int mask = keys.length - 1;
+        int i = hash(key) & mask;
+        while (entries[i] != null) {
+            i = (i + 1) & mask;
+        }
+        keys[i] = key;
+        entries[i] = entry;
+        size++;
+    }
+
+    private void remove(long key) {
+        int mask = keys.length - 1;
+        int i = hash(key) & mask;
+        while (entries[i] != null && keys[i] != key) {
+            i = (i + 1) & mask;
+        }
+        if (entries[i] == null) return;
+        entries[i] = null;
+        size--;
+        // Shift later entries of the probe run back so lookups still find them
+        for (int j = (i + 1) & mask; entries[j] != null; j = (j + 1) & mask) {
+            int home = hash(keys[j]) & mask;
+            boolean movable = i <= j ? (home <= i || home > j) : (home <= i && home > j);
+            if (movable) {
+                keys[i] = keys[j];
+                entries[i] = entries[j];
+                entries[j] = null;
+                i = j;
+            }
+        }
+    }
+
+    private static int hash(long key) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+}